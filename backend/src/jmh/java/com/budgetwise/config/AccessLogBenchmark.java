@@ -0,0 +1,128 @@
+package com.budgetwise.config;
+
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.classic.joran.JoranConfigurator;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedOutputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Request-thread cost of writing one access line under concurrent load: printed to
+ * {@code System.out} the way JwtAuthenticationFilter used to, against the "access"
+ * logger going through the async appender of logback-spring.xml. Sampling in
+ * {@link AccessLogFilter} cuts the logged lines further and is not part of this.
+ *
+ * <p>Standard out is replaced by a stream with the shape of {@code System.out}
+ * (buffered, flushed on every line) over a temp file. {@code slow} adds a pause to
+ * every flush, standing in for a terminal or a container log pipe that cannot keep up;
+ * there the async appender drops INFO lines once its queue is full rather than making
+ * requests wait.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Threads(16)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class AccessLogBenchmark {
+
+    private static final Logger ACCESS_LOG = LoggerFactory.getLogger("access");
+
+    @Param({ "file", "slow" })
+    public String sink;
+
+    private PrintStream originalOut;
+    private Path output;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        originalOut = System.out;
+        output = Files.createTempFile("access-log-benchmark", ".log");
+        OutputStream file = new FileOutputStream(output.toFile());
+        OutputStream target = "slow".equals(sink) ? new SlowOutputStream(file) : file;
+        System.setOut(new PrintStream(new BufferedOutputStream(target), true));
+
+        LoggerContext context = (LoggerContext) LoggerFactory.getILoggerFactory();
+        context.reset();
+        JoranConfigurator configurator = new JoranConfigurator();
+        configurator.setContext(context);
+        configurator.doConfigure(AccessLogBenchmark.class.getResource("/logback-spring.xml"));
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws Exception {
+        // Drains the async queues before the output is deleted
+        ((LoggerContext) LoggerFactory.getILoggerFactory()).stop();
+        System.out.close();
+        System.setOut(originalOut);
+        Files.deleteIfExists(output);
+    }
+
+    @Benchmark
+    public void systemOut() {
+        System.out.println("method=" + "GET" + " path=" + "/api/transactions" + " status=" + 200
+                + " durationMs=" + 3 + " userId=" + 42 + " requestId=" + "bench");
+    }
+
+    @Benchmark
+    public void asyncAppender() {
+        ACCESS_LOG.info("method={} path={} status={} durationMs={} userId={} requestId={}",
+                "GET", "/api/transactions", 200, 3, 42, "bench");
+    }
+
+    private static final class SlowOutputStream extends OutputStream {
+
+        private static final long FLUSH_PAUSE_NANOS = TimeUnit.MICROSECONDS.toNanos(50);
+
+        private final OutputStream delegate;
+
+        SlowOutputStream(OutputStream delegate) {
+            this.delegate = delegate;
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            delegate.write(b);
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            delegate.write(b, off, len);
+        }
+
+        @Override
+        public void flush() throws IOException {
+            LockSupport.parkNanos(FLUSH_PAUSE_NANOS);
+            delegate.flush();
+        }
+
+        @Override
+        public void close() throws IOException {
+            delegate.close();
+        }
+    }
+}
@@ -0,0 +1,67 @@
+package com.budgetwise.security;
+
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtParser;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.Keys;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.Date;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-request JWT cost: one verification with the parser and key {@link JwtTokenProvider}
+ * caches, against what the filter used to do, deriving the key and parser for each of
+ * the three parses (subject, expiry, claims) of every request.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class JwtVerificationBenchmark {
+
+    private static final String SECRET = "benchmark_secret_key_that_is_long_enough_for_hs256_signing";
+
+    private final AuthenticatedUser alice = new AuthenticatedUser(42L, "alice", "ROLE_USER");
+    private JwtTokenProvider provider;
+    private String token;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        provider = new JwtTokenProvider();
+        ReflectionTestUtils.setField(provider, "secret", SECRET);
+        ReflectionTestUtils.setField(provider, "expiration", 900_000L);
+        provider.init();
+        token = provider.generateToken(alice);
+    }
+
+    @Benchmark
+    public boolean cachedParser() {
+        return provider.isValidFor(provider.parseValidatedClaims(token), alice);
+    }
+
+    @Benchmark
+    public boolean parserPerCall() {
+        String subject = newParser().parseClaimsJws(token).getBody().getSubject();
+        Date expiration = newParser().parseClaimsJws(token).getBody().getExpiration();
+        Claims claims = newParser().parseClaimsJws(token).getBody();
+        return subject.equals(alice.getUsername()) && expiration.after(new Date()) && claims.getId() != null;
+    }
+
+    private static JwtParser newParser() {
+        return Jwts.parserBuilder().setSigningKey(Keys.hmacShaKeyFor(SECRET.getBytes())).build();
+    }
+}
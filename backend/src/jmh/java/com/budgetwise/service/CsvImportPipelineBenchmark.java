@@ -0,0 +1,123 @@
+package com.budgetwise.service;
+
+import com.budgetwise.model.Budget;
+import com.budgetwise.model.Goal;
+import com.budgetwise.model.Transaction;
+import com.budgetwise.model.User;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Rows per millisecond through the CSV pipeline (reader, parser workers, and the
+ * hand-off to the batch) without the database: the batch only counts what it is given.
+ * Dates cycle through the shapes {@link ImportDateParser} recognises and one that needs
+ * a fallback formatter.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class CsvImportPipelineBenchmark {
+
+    private static final int ROWS = 50_000;
+    private static final Map<String, Boolean> TRANSACTIONS_ONLY = Map.of("transactions", true);
+    private static final String[] DATES = {
+            "2024-01-15", "2024-01-15T10:30:00", "15-01-2024", "01/15/2024", "2024-01-15 10:30"
+    };
+
+    @Param({ "1", "4" })
+    public int parserThreads;
+
+    private byte[] csv;
+    private ThreadPoolTaskExecutor executor;
+    private CsvImportPipeline pipeline;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        StringBuilder text = new StringBuilder("# TRANSACTIONS\ndate,description,amount,category,type\n");
+        for (int i = 0; i < ROWS; i++) {
+            text.append(DATES[i % DATES.length]).append(",\"Coffee, row ").append(i).append("\",")
+                    .append(i % 500).append(".25,Food,EXPENSE\n");
+        }
+        csv = text.toString().getBytes(StandardCharsets.UTF_8);
+
+        // Same shape as ImportConfig.csvImportExecutor for a single pipeline
+        executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(parserThreads + 1);
+        executor.setMaxPoolSize(parserThreads + 1);
+        executor.setQueueCapacity(parserThreads + 1);
+        executor.initialize();
+        pipeline = new CsvImportPipeline(executor, parserThreads, 1);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        executor.shutdown();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(ROWS)
+    public int parseRows() throws Exception {
+        CountingBatch batch = new CountingBatch();
+        List<String> errors = pipeline.run(batch, new User(), new ByteArrayInputStream(csv), TRANSACTIONS_ONLY);
+        if (!errors.isEmpty() || batch.rows != ROWS) {
+            throw new IllegalStateException("Expected " + ROWS + " rows, got " + batch.rows + " and " + errors.size() + " errors");
+        }
+        return batch.rows;
+    }
+
+    private static final class CountingBatch extends ImportBatch {
+
+        private final ImportProgress progress = new ImportProgress("CSV");
+        int rows;
+
+        CountingBatch() {
+            super(null, null, null, ROWS, null, false);
+        }
+
+        @Override
+        public void addTransaction(Transaction transaction, String label) {
+            rows++;
+        }
+
+        @Override
+        public void addBudget(Budget budget, String label) {
+            rows++;
+        }
+
+        @Override
+        public void addGoal(Goal goal, String label) {
+            rows++;
+        }
+
+        @Override
+        public void flush() {
+        }
+
+        @Override
+        public ImportProgress getProgress() {
+            return progress;
+        }
+    }
+}
@@ -0,0 +1,87 @@
+package com.budgetwise.config;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.slf4j.MDC;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.regex.Pattern;
+
+/**
+ * Gives every request a correlation id and writes one structured access-log line for it.
+ *
+ * <p>The id is taken from an incoming {@code X-Request-Id} header when it looks sane,
+ * otherwise generated; it is echoed in the response and kept in the logging MDC as
+ * {@code requestId}, so every log line written while handling the request carries it.
+ * Access lines go to the {@code access} logger, which logback-spring.xml writes through
+ * an asynchronous appender. Successful fast requests are sampled; errors and slow
+ * requests are always logged.
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+public class AccessLogFilter extends OncePerRequestFilter {
+
+    public static final String REQUEST_ID_HEADER = "X-Request-Id";
+    public static final String MDC_REQUEST_ID = "requestId";
+    // Set by JwtAuthenticationFilter once the caller is known
+    public static final String MDC_USER_ID = "userId";
+
+    private static final Logger ACCESS_LOG = LoggerFactory.getLogger("access");
+    private static final Pattern VALID_REQUEST_ID = Pattern.compile("[A-Za-z0-9._-]{1,64}");
+
+    private final double sampleRate;
+    private final long slowThresholdMillis;
+
+    public AccessLogFilter(@Value("${logging.access.sample-rate:0.1}") double sampleRate,
+                           @Value("${logging.access.slow-threshold-ms:1000}") long slowThresholdMillis) {
+        this.sampleRate = sampleRate;
+        this.slowThresholdMillis = slowThresholdMillis;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request,
+                                    HttpServletResponse response,
+                                    FilterChain filterChain)
+            throws ServletException, IOException {
+
+        String requestId = request.getHeader(REQUEST_ID_HEADER);
+        if (requestId == null || !VALID_REQUEST_ID.matcher(requestId).matches()) {
+            requestId = UUID.randomUUID().toString();
+        }
+        MDC.put(MDC_REQUEST_ID, requestId);
+        response.setHeader(REQUEST_ID_HEADER, requestId);
+
+        long start = System.nanoTime();
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            long durationMillis = (System.nanoTime() - start) / 1_000_000;
+            int status = response.getStatus();
+            if (shouldLog(status, durationMillis) && ACCESS_LOG.isInfoEnabled()) {
+                ACCESS_LOG.info("method={} path={} status={} durationMs={} userId={} requestId={}",
+                        request.getMethod(), request.getRequestURI(), status, durationMillis,
+                        MDC.get(MDC_USER_ID), requestId);
+            }
+            MDC.remove(MDC_USER_ID);
+            MDC.remove(MDC_REQUEST_ID);
+        }
+    }
+
+    private boolean shouldLog(int status, long durationMillis) {
+        if (status >= 400 || durationMillis >= slowThresholdMillis) {
+            return true;
+        }
+        return sampleRate >= 1.0 || (sampleRate > 0 && ThreadLocalRandom.current().nextDouble() < sampleRate);
+    }
+}
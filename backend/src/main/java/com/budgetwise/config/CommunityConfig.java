@@ -0,0 +1,26 @@
+package com.budgetwise.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+@Configuration
+public class CommunityConfig {
+
+    /**
+     * Writes community events to the live streams. Each subscriber has at most one
+     * drain task queued or running, so the queue is bounded by the subscriber count
+     * and a client that stops reading ties up one thread, not the whole fan-out.
+     */
+    @Bean(name = "communityStreamExecutor")
+    public ThreadPoolTaskExecutor communityStreamExecutor(
+            @Value("${community.stream.threads:4}") int threads) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(Math.max(1, threads));
+        executor.setMaxPoolSize(Math.max(1, threads));
+        executor.setThreadNamePrefix("community-stream-");
+        executor.initialize();
+        return executor;
+    }
+}
@@ -0,0 +1,62 @@
+package com.budgetwise.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+@Configuration
+public class ImportConfig {
+
+    /**
+     * Threads for the CSV import pipeline: one reader plus the parser workers for
+     * each pipeline that may run at once, so pipeline tasks never wait behind each
+     * other. The queue only covers the moment between a finished pipeline releasing
+     * its slot and its threads getting back to the pool.
+     */
+    @Bean(name = "csvImportExecutor")
+    public ThreadPoolTaskExecutor csvImportExecutor(
+            @Value("${import.parser-threads:4}") int parserThreads,
+            @Value("${import.max-concurrent-pipelines:2}") int maxPipelines) {
+        int threads = Math.max(1, maxPipelines) * (Math.max(1, parserThreads) + 1);
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(threads);
+        executor.setMaxPoolSize(threads);
+        executor.setQueueCapacity(threads);
+        executor.setThreadNamePrefix("csv-import-");
+        executor.initialize();
+        return executor;
+    }
+
+    /**
+     * PDF page extraction and classification. Extraction workers hold a thread for
+     * their whole page range, so the pool is twice that size to leave room for the
+     * classification of pages that are already extracted.
+     */
+    @Bean(name = "pdfImportExecutor")
+    public ThreadPoolTaskExecutor pdfImportExecutor(@Value("${import.pdf-threads:4}") int pdfThreads) {
+        int threads = Math.max(1, pdfThreads) * 2;
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(threads);
+        executor.setMaxPoolSize(threads);
+        executor.setThreadNamePrefix("pdf-import-");
+        executor.initialize();
+        return executor;
+    }
+
+    /**
+     * Background imports started from upload sessions. Small and bounded: a full
+     * queue rejects the job and the client is asked to retry.
+     */
+    @Bean(name = "importJobExecutor")
+    public ThreadPoolTaskExecutor importJobExecutor(
+            @Value("${import.background-jobs:2}") int jobs) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(Math.max(1, jobs));
+        executor.setMaxPoolSize(Math.max(1, jobs));
+        executor.setQueueCapacity(20);
+        executor.setThreadNamePrefix("import-job-");
+        executor.initialize();
+        return executor;
+    }
+}
@@ -1,6 +1,7 @@
 package com.budgetwise.config;
 
 import com.budgetwise.security.JwtAuthenticationFilter;
+import jakarta.servlet.DispatcherType;
 import lombok.RequiredArgsConstructor;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
@@ -33,6 +34,9 @@ public class SecurityConfig {
             // fully disable CSRF (important for PUT/POST)
             .csrf(csrf -> csrf.disable())
             .authorizeHttpRequests(auth -> auth
+                // SSE completion/timeout and error dispatches: the original request was
+                // already authorized and the JWT filter does not run on them again
+                .dispatcherTypeMatchers(DispatcherType.ASYNC, DispatcherType.ERROR).permitAll()
                 .requestMatchers("/api/auth/**").permitAll()
                 .requestMatchers(HttpMethod.GET, "/api/profile/avatar/**").permitAll()
                 .requestMatchers("/swagger-ui/**", "/v3/api-docs/**").permitAll()
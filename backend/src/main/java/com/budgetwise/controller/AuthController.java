@@ -3,9 +3,13 @@ package com.budgetwise.controller;
 import com.budgetwise.dto.AuthRequest;
 import com.budgetwise.dto.AuthResponse;
 import com.budgetwise.dto.RegisterRequest;
+import com.budgetwise.security.AuthThrottledException;
+import com.budgetwise.security.LoginRateLimiter;
 import com.budgetwise.service.AuthService;
 import com.budgetwise.service.PasswordResetService;
+import jakarta.servlet.http.HttpServletRequest;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
@@ -20,14 +24,22 @@ public class AuthController {
 
     private final AuthService authService;
     private final PasswordResetService passwordResetService;
+    private final LoginRateLimiter loginRateLimiter;
+
+    // Throttling is keyed by getRemoteAddr(), which is the real client address when the
+    // request came through a trusted proxy (server.forward-headers-strategy)
 
     // ---------------- REGISTER ----------------
     @PostMapping("/register")
-    public ResponseEntity<?> register(@RequestBody RegisterRequest request) {
+    public ResponseEntity<?> register(@RequestBody RegisterRequest request, HttpServletRequest httpRequest) {
         try {
+            loginRateLimiter.checkRegister(httpRequest.getRemoteAddr(), request.getEmail());
             AuthResponse response = authService.register(request);
             return ResponseEntity.status(HttpStatus.CREATED).body(response);
         } 
+        catch (AuthThrottledException ex) {
+            return throttled(ex);
+        }
         catch (RuntimeException ex) {
             return ResponseEntity.status(HttpStatus.BAD_REQUEST)
                     .body(new AuthResponse(null, null, null, "Registration failed: " + ex.getMessage()));
@@ -40,11 +52,15 @@ public class AuthController {
 
     // ---------------- LOGIN (email or username) ----------------
     @PostMapping("/login")
-    public ResponseEntity<?> authenticate(@RequestBody AuthRequest request) {
+    public ResponseEntity<?> authenticate(@RequestBody AuthRequest request, HttpServletRequest httpRequest) {
         try {
+            loginRateLimiter.checkLogin(httpRequest.getRemoteAddr(), request.getEmailOrUsername());
             AuthResponse response = authService.authenticate(request);
             return ResponseEntity.ok(response);
         } 
+        catch (AuthThrottledException ex) {
+            return throttled(ex);
+        }
         catch (RuntimeException ex) {
             return ResponseEntity.status(HttpStatus.UNAUTHORIZED)
                     .body(new AuthResponse(null, null, null, "Login failed: " + ex.getMessage()));
@@ -55,9 +71,28 @@ public class AuthController {
         }
     }
 
+    private ResponseEntity<?> throttled(AuthThrottledException ex) {
+        return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(ex.getRetryAfterSeconds()))
+                .body(new AuthResponse(null, null, null, ex.getMessage()));
+    }
+
+    // ---------------- REFRESH ----------------
+    @PostMapping("/refresh")
+    public ResponseEntity<?> refresh(@RequestBody Map<String, String> request) {
+        try {
+            return ResponseEntity.ok(authService.refresh(request.get("refreshToken")));
+        }
+        catch (RuntimeException ex) {
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED)
+                    .body(new AuthResponse(null, null, null, ex.getMessage()));
+        }
+    }
+
     // ---------------- LOGOUT ----------------
     @PostMapping("/logout")
-    public ResponseEntity<?> logout(@RequestHeader(value = "Authorization", required = false) String authHeader) {
+    public ResponseEntity<?> logout(@RequestHeader(value = "Authorization", required = false) String authHeader,
+                                    @RequestBody(required = false) Map<String, String> body) {
         try {
             if (authHeader == null || !authHeader.startsWith("Bearer ")) {
                 return ResponseEntity.status(HttpStatus.BAD_REQUEST)
@@ -65,7 +100,7 @@ public class AuthController {
             }
 
             String token = authHeader.substring(7);
-            authService.logout(token);
+            authService.logout(token, body != null ? body.get("refreshToken") : null);
 
             return ResponseEntity.ok(
                     new AuthResponse(null, null, null, "Logout successful")
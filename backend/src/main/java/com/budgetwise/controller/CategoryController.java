@@ -1,94 +1,43 @@
 package com.budgetwise.controller;
 
+import com.budgetwise.dto.CategoryMergeRequest;
 import com.budgetwise.dto.CategoryRequest;
 import com.budgetwise.dto.CategoryResponse;
 import com.budgetwise.model.Category;
-import com.budgetwise.model.User;
-import com.budgetwise.repository.CategoryRepository;
-import com.budgetwise.repository.UserRepository;
+import com.budgetwise.security.CurrentUser;
+import com.budgetwise.service.CategoryService;
+import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
-import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.*;
 
 import java.util.*;
-import java.util.stream.Collectors;
 
 @RestController
 @RequestMapping("/api/categories")
 @CrossOrigin(origins = "*")
+@Slf4j
 public class CategoryController {
 
     @Autowired
-    private CategoryRepository categoryRepository;
+    private CategoryService categoryService;
 
     @Autowired
-    private UserRepository userRepository;
-
-    // Default categories to initialize for new users
-    private static final List<String> DEFAULT_CATEGORIES = Arrays.asList(
-        "Salary",
-        "Housing",
-        "Food",
-        "Transport",
-        "Shopping",
-        "Entertainment",
-        "Healthcare",
-        "Education",
-        "Other"
-    );
+    private CurrentUser currentUser;
 
     /**
      * Get all categories for the authenticated user
      */
     @GetMapping
-    public ResponseEntity<?> getCategories(Authentication authentication) {
+    public ResponseEntity<?> getCategories() {
         try {
-            // Check if authentication is present
-            if (authentication == null || authentication.getName() == null) {
-                System.err.println("[CATEGORY] Authentication is null or has no name");
-                return ResponseEntity.status(HttpStatus.UNAUTHORIZED)
-                    .body(Map.of("message", "Authentication required. Please login."));
-            }
-            
-            String identifier = authentication.getName();
-            System.out.println("[CATEGORY] Fetching categories for user: " + identifier);
-            
-            // Try to find by username first (JWT contains username), then by email as fallback
-            Optional<User> userOpt = userRepository.findByUsername(identifier);
-            if (userOpt.isEmpty()) {
-                userOpt = userRepository.findByEmail(identifier);
-            }
-            
-            if (userOpt.isEmpty()) {
-                System.err.println("[CATEGORY] User not found in database: " + identifier);
-                return ResponseEntity.status(HttpStatus.UNAUTHORIZED)
-                    .body(Map.of("message", "User not found. Please logout and login again."));
-            }
-            
-            User user = userOpt.get();
-            List<Category> categories = categoryRepository.findByUserOrderByCreatedAtAsc(user);
-            
-            // If user has no categories, initialize with defaults
-            if (categories.isEmpty()) {
-                categories = initializeDefaultCategories(user);
-            }
-            
-            List<CategoryResponse> response = categories.stream()
-                .map(cat -> new CategoryResponse(
-                    cat.getId(),
-                    cat.getName(),
-                    cat.isDefault(),
-                    cat.getCreatedAt()
-                ))
-                .collect(Collectors.toList());
-            
-            return ResponseEntity.ok(response);
+            // Users without categories get the defaults
+            return ResponseEntity.ok(categoryService.getCategories(currentUser.getId()));
             
         } catch (Exception e) {
-            System.err.println("Error fetching categories: " + e.getMessage());
-            e.printStackTrace();
+            log.error("Error fetching categories: {}", e.getMessage(), e);
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
                 .body(Map.of("message", "Error fetching categories: " + e.getMessage()));
         }
@@ -98,87 +47,131 @@ public class CategoryController {
      * Add a new category
      */
     @PostMapping
-    public ResponseEntity<?> addCategory(
-            @RequestBody CategoryRequest request,
-            Authentication authentication) {
+    public ResponseEntity<?> addCategory(@RequestBody CategoryRequest request) {
         try {
-            // Check if authentication is present
-            if (authentication == null || authentication.getName() == null) {
-                System.err.println("[CATEGORY] Authentication is null or has no name");
-                return ResponseEntity.status(HttpStatus.UNAUTHORIZED)
-                    .body(Map.of("message", "Authentication required. Please login again."));
+            // Validate category name
+            if (request.getName() == null || request.getName().trim().isEmpty()) {
+                return ResponseEntity.badRequest()
+                    .body(Map.of("message", "Category name cannot be empty"));
             }
             
-            String identifier = authentication.getName();
-            System.out.println("[CATEGORY] Adding category for user: " + identifier);
-            
-            // Try to find by username first (JWT contains username), then by email as fallback
-            Optional<User> userOpt = userRepository.findByUsername(identifier);
-            if (userOpt.isEmpty()) {
-                userOpt = userRepository.findByEmail(identifier);
-            }
+            String categoryName = request.getName().trim();
             
-            if (userOpt.isEmpty()) {
-                System.err.println("[CATEGORY] User not found in database: " + identifier);
-                return ResponseEntity.status(HttpStatus.UNAUTHORIZED)
-                    .body(Map.of("message", "User not found. Please logout and login again."));
+            // Empty if the category already exists for this user
+            Optional<CategoryResponse> response = categoryService.addCategory(currentUser.getId(), categoryName);
+            if (response.isEmpty()) {
+                return ResponseEntity.status(HttpStatus.CONFLICT)
+                    .body(Map.of("message", "Category already exists"));
             }
             
-            User user = userOpt.get();
+            return ResponseEntity.status(HttpStatus.CREATED).body(response.get());
             
-            // Validate category name
+        } catch (Exception e) {
+            log.error("Error adding category: {}", e.getMessage(), e);
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                .body(Map.of("message", "Error adding category: " + e.getMessage()));
+        }
+    }
+
+    /**
+     * Rename a category; transactions, budgets and goals using it are renamed too
+     */
+    @PutMapping("/{id}")
+    public ResponseEntity<?> renameCategory(@PathVariable Long id, @RequestBody CategoryRequest request) {
+        try {
             if (request.getName() == null || request.getName().trim().isEmpty()) {
                 return ResponseEntity.badRequest()
                     .body(Map.of("message", "Category name cannot be empty"));
             }
             
-            String categoryName = request.getName().trim();
+            String newName = request.getName().trim();
+            Long userId = currentUser.getId();
+            Optional<Category> categoryOpt = categoryService.findById(id);
             
-            // Check if category already exists for this user
-            if (categoryRepository.existsByUserAndName(user, categoryName)) {
-                return ResponseEntity.status(HttpStatus.CONFLICT)
-                    .body(Map.of("message", "Category already exists"));
+            if (categoryOpt.isEmpty() || !categoryOpt.get().getUser().getId().equals(userId)) {
+                return ResponseEntity.status(HttpStatus.NOT_FOUND)
+                    .body(Map.of("message", "Category not found"));
             }
             
-            // Create and save new category
-            Category category = new Category(user, categoryName, false);
-            category = categoryRepository.save(category);
+            Category category = categoryOpt.get();
+            if (category.getName().equals(newName)) {
+                return ResponseEntity.badRequest()
+                    .body(Map.of("message", "The category already has this name"));
+            }
             
-            CategoryResponse response = new CategoryResponse(
-                category.getId(),
-                category.getName(),
-                category.isDefault(),
-                category.getCreatedAt()
-            );
+            // Renaming onto an existing category is a merge
+            if (categoryService.hasCategory(userId, newName)) {
+                return ResponseEntity.status(HttpStatus.CONFLICT)
+                    .body(Map.of("message", "Category already exists. Merge the categories instead."));
+            }
             
-            return ResponseEntity.status(HttpStatus.CREATED).body(response);
+            return ResponseEntity.ok(categoryService.renameCategory(userId, category, newName));
             
+        } catch (DataIntegrityViolationException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT)
+                .body(Map.of("message", "Category already exists. Merge the categories instead."));
         } catch (Exception e) {
-            System.err.println("Error adding category: " + e.getMessage());
-            e.printStackTrace();
+            log.error("Error renaming category: {}", e.getMessage(), e);
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
-                .body(Map.of("message", "Error adding category: " + e.getMessage()));
+                .body(Map.of("message", "Error renaming category: " + e.getMessage()));
         }
     }
 
     /**
-     * Delete a category (only custom categories, not default ones)
+     * Merge categories into another one; the merged categories are deleted
      */
-    @DeleteMapping("/{id}")
-    public ResponseEntity<?> deleteCategory(
-            @PathVariable Long id,
-            Authentication authentication) {
+    @PostMapping("/merge")
+    public ResponseEntity<?> mergeCategories(@RequestBody CategoryMergeRequest request) {
         try {
-            String email = authentication.getName();
-            Optional<User> userOpt = userRepository.findByEmail(email);
+            if (request.getTargetId() == null || request.getSourceIds() == null || request.getSourceIds().isEmpty()) {
+                return ResponseEntity.badRequest()
+                    .body(Map.of("message", "Choose the categories to merge and the category to merge them into"));
+            }
+            if (request.getSourceIds().contains(request.getTargetId())) {
+                return ResponseEntity.badRequest()
+                    .body(Map.of("message", "A category cannot be merged into itself"));
+            }
             
-            if (userOpt.isEmpty()) {
-                return ResponseEntity.status(HttpStatus.UNAUTHORIZED)
-                    .body(Map.of("message", "User not found"));
+            Long userId = currentUser.getId();
+            Optional<Category> target = categoryService.findById(request.getTargetId());
+            if (target.isEmpty() || !target.get().getUser().getId().equals(userId)) {
+                return ResponseEntity.status(HttpStatus.NOT_FOUND)
+                    .body(Map.of("message", "Category not found"));
+            }
+            
+            List<Category> sources = new ArrayList<>();
+            for (Long sourceId : new LinkedHashSet<>(request.getSourceIds())) {
+                Optional<Category> source = categoryService.findById(sourceId);
+                if (source.isEmpty() || !source.get().getUser().getId().equals(userId)) {
+                    return ResponseEntity.status(HttpStatus.NOT_FOUND)
+                        .body(Map.of("message", "Category not found"));
+                }
+                // Merged categories are deleted, and default ones cannot be
+                if (source.get().isDefault()) {
+                    return ResponseEntity.status(HttpStatus.FORBIDDEN)
+                        .body(Map.of("message", "Cannot merge away default categories"));
+                }
+                sources.add(source.get());
             }
             
-            User user = userOpt.get();
-            Optional<Category> categoryOpt = categoryRepository.findById(id);
+            return ResponseEntity.ok(categoryService.mergeCategories(userId, sources, target.get()));
+            
+        } catch (Exception e) {
+            log.error("Error merging categories: {}", e.getMessage(), e);
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                .body(Map.of("message", "Error merging categories: " + e.getMessage()));
+        }
+    }
+
+    /**
+     * Delete a category (only custom categories, not default ones). A category still in
+     * use is only deleted with force=true; its rows then keep the name without a link.
+     */
+    @DeleteMapping("/{id}")
+    public ResponseEntity<?> deleteCategory(@PathVariable Long id,
+                                            @RequestParam(defaultValue = "false") boolean force) {
+        try {
+            Optional<Category> categoryOpt = categoryService.findById(id);
             
             if (categoryOpt.isEmpty()) {
                 return ResponseEntity.status(HttpStatus.NOT_FOUND)
@@ -188,7 +181,7 @@ public class CategoryController {
             Category category = categoryOpt.get();
             
             // Check if category belongs to the user
-            if (!category.getUser().getId().equals(user.getId())) {
+            if (!category.getUser().getId().equals(currentUser.getId())) {
                 return ResponseEntity.status(HttpStatus.FORBIDDEN)
                     .body(Map.of("message", "You don't have permission to delete this category"));
             }
@@ -199,7 +192,16 @@ public class CategoryController {
                     .body(Map.of("message", "Cannot delete default categories"));
             }
             
-            categoryRepository.delete(category);
+            Map<String, Integer> usage = categoryService.usage(currentUser.getId(), id);
+            if (!force && usage.values().stream().anyMatch(count -> count > 0)) {
+                return ResponseEntity.status(HttpStatus.CONFLICT)
+                    .body(Map.of(
+                        "message", "Category is still in use; merge it into another category or delete with force=true",
+                        "usage", usage
+                    ));
+            }
+
+            categoryService.deleteCategory(currentUser.getId(), category);
             
             return ResponseEntity.ok(Map.of(
                 "message", "Category deleted successfully",
@@ -207,59 +209,20 @@ public class CategoryController {
             ));
             
         } catch (Exception e) {
-            System.err.println("Error deleting category: " + e.getMessage());
-            e.printStackTrace();
+            log.error("Error deleting category: {}", e.getMessage(), e);
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
                 .body(Map.of("message", "Error deleting category: " + e.getMessage()));
         }
     }
 
-    /**
-     * Initialize default categories for a user
-     */
-    private List<Category> initializeDefaultCategories(User user) {
-        List<Category> categories = new ArrayList<>();
-        
-        for (String categoryName : DEFAULT_CATEGORIES) {
-            Category category = new Category(user, categoryName, true);
-            categories.add(categoryRepository.save(category));
-        }
-        
-        System.out.println("Initialized " + categories.size() + " default categories for user: " + user.getEmail());
-        return categories;
-    }
-
     /**
      * Reset categories to defaults (for debugging/testing)
      */
     @PostMapping("/reset")
-    public ResponseEntity<?> resetCategories(Authentication authentication) {
+    public ResponseEntity<?> resetCategories() {
         try {
-            String email = authentication.getName();
-            Optional<User> userOpt = userRepository.findByEmail(email);
-            
-            if (userOpt.isEmpty()) {
-                return ResponseEntity.status(HttpStatus.UNAUTHORIZED)
-                    .body(Map.of("message", "User not found"));
-            }
-            
-            User user = userOpt.get();
-            
-            // Delete all existing categories for this user
-            List<Category> existingCategories = categoryRepository.findByUserOrderByCreatedAtAsc(user);
-            categoryRepository.deleteAll(existingCategories);
-            
-            // Initialize defaults
-            List<Category> categories = initializeDefaultCategories(user);
-            
-            List<CategoryResponse> response = categories.stream()
-                .map(cat -> new CategoryResponse(
-                    cat.getId(),
-                    cat.getName(),
-                    cat.isDefault(),
-                    cat.getCreatedAt()
-                ))
-                .collect(Collectors.toList());
+            // Delete all existing categories for this user and initialize defaults
+            List<CategoryResponse> response = categoryService.resetCategories(currentUser.getId());
             
             return ResponseEntity.ok(Map.of(
                 "message", "Categories reset to defaults",
@@ -267,8 +230,7 @@ public class CategoryController {
             ));
             
         } catch (Exception e) {
-            System.err.println("Error resetting categories: " + e.getMessage());
-            e.printStackTrace();
+            log.error("Error resetting categories: {}", e.getMessage(), e);
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
                 .body(Map.of("message", "Error resetting categories: " + e.getMessage()));
         }
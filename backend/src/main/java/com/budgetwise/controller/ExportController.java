@@ -1,31 +1,37 @@
 package com.budgetwise.controller;
 
 import com.budgetwise.service.ExportImportService;
+import com.budgetwise.service.ImportSessionService;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.NoSuchElementException;
 
 @RestController
 @RequestMapping("/api/export")
 @RequiredArgsConstructor
 @CrossOrigin(origins = {"http://localhost:3000", "http://localhost:3001"})
+@Slf4j
 public class ExportController {
 
     private final ExportImportService exportImportService;
+    private final ImportSessionService importSessionService;
 
     @GetMapping("/pdf")
     public ResponseEntity<byte[]> exportToPdf(@RequestParam(defaultValue = "all") String sections) {
         try {
-            System.out.println("PDF export requested for sections: " + sections);
+            log.info("PDF export requested for sections: {}", sections);
             Map<String, Boolean> options = new HashMap<>();
             
             // Parse sections parameter
@@ -50,8 +56,7 @@ public class ExportController {
                     .contentType(MediaType.APPLICATION_PDF)
                     .body(pdfData);
         } catch (Exception e) {
-            System.err.println("PDF export error: " + e.getMessage());
-            e.printStackTrace();
+            log.error("PDF export error: {}", e.getMessage(), e);
             return ResponseEntity.status(500).body(null);
         }
     }
@@ -83,8 +88,7 @@ public class ExportController {
                     .contentType(MediaType.parseMediaType("text/csv"))
                     .body(csvData);
         } catch (Exception e) {
-            System.err.println("CSV export error: " + e.getMessage());
-            e.printStackTrace();
+            log.error("CSV export error: {}", e.getMessage(), e);
             return ResponseEntity.status(500).body(null);
         }
     }
@@ -116,21 +120,140 @@ public class ExportController {
                     .contentType(MediaType.APPLICATION_JSON)
                     .body(jsonData);
         } catch (Exception e) {
-            System.err.println("JSON export error: " + e.getMessage());
-            e.printStackTrace();
+            log.error("JSON export error: {}", e.getMessage(), e);
             return ResponseEntity.status(500).body(null);
         }
     }
 
+    /**
+     * Incremental export for sync clients: returns only rows changed since the cursor
+     * from the previous call, the ids deleted since then, and the next cursor.
+     */
+    @GetMapping("/changes")
+    public ResponseEntity<Map<String, Object>> exportChanges(
+            @RequestParam(required = false) String since,
+            @RequestParam(defaultValue = "all") String sections) {
+        try {
+            Map<String, Boolean> options = new HashMap<>();
+            
+            // Parse sections parameter
+            if ("all".equalsIgnoreCase(sections)) {
+                options.put("transactions", true);
+                options.put("budgets", true);
+                options.put("goals", true);
+            } else {
+                String[] sectionArray = sections.split(",");
+                for (String section : sectionArray) {
+                    options.put(section.trim(), true);
+                }
+            }
+            
+            return ResponseEntity.ok(exportImportService.exportChanges(since, options));
+        } catch (IllegalArgumentException e) {
+            Map<String, Object> errorResponse = new HashMap<>();
+            errorResponse.put("success", false);
+            errorResponse.put("message", e.getMessage());
+            return ResponseEntity.status(400).body(errorResponse);
+        }
+    }
+
+    /**
+     * Progress of the current user's most recent import (rows parsed/saved/failed and throughput).
+     */
+    @GetMapping("/import/progress")
+    public ResponseEntity<Map<String, Object>> getImportProgress() {
+        return ResponseEntity.ok(exportImportService.getImportProgress());
+    }
+
+    // ==================== RESUMABLE IMPORT SESSIONS ====================
+
+    /**
+     * Opens a chunked upload. Body: {"filename": "...", "options": {"transactions": true, ...}}.
+     */
+    @PostMapping("/import/sessions")
+    public ResponseEntity<Map<String, Object>> createImportSession(@RequestBody Map<String, Object> request) {
+        try {
+            Object filename = request.get("filename");
+            Map<String, Boolean> options = new HashMap<>();
+            if (request.get("options") instanceof Map<?, ?> requested) {
+                requested.forEach((key, value) -> options.put(String.valueOf(key), Boolean.TRUE.equals(value)));
+            } else {
+                options.put("transactions", true);
+                options.put("budgets", true);
+                options.put("goals", true);
+            }
+            return ResponseEntity.ok(importSessionService.createSession(
+                    filename != null ? filename.toString() : null, options));
+        } catch (Exception e) {
+            return sessionError(e);
+        }
+    }
+
+    /**
+     * Uploads chunk {@code index} as the raw request body. Re-sending an acknowledged
+     * chunk is a no-op; the response always carries the next expected chunk index.
+     */
+    @PutMapping(value = "/import/sessions/{sessionId}/chunks/{index}",
+            consumes = MediaType.APPLICATION_OCTET_STREAM_VALUE)
+    public ResponseEntity<Map<String, Object>> uploadImportChunk(@PathVariable String sessionId,
+                                                                 @PathVariable int index,
+                                                                 @RequestBody byte[] chunk) {
+        try {
+            return ResponseEntity.ok(importSessionService.appendChunk(sessionId, index, chunk));
+        } catch (Exception e) {
+            return sessionError(e);
+        }
+    }
+
+    @PostMapping("/import/sessions/{sessionId}/complete")
+    public ResponseEntity<Map<String, Object>> completeImportSession(@PathVariable String sessionId) {
+        try {
+            return ResponseEntity.accepted().body(importSessionService.completeSession(sessionId));
+        } catch (Exception e) {
+            return sessionError(e);
+        }
+    }
+
+    @GetMapping("/import/sessions/{sessionId}")
+    public ResponseEntity<Map<String, Object>> getImportSession(@PathVariable String sessionId) {
+        try {
+            return ResponseEntity.ok(importSessionService.getSession(sessionId));
+        } catch (Exception e) {
+            return sessionError(e);
+        }
+    }
+
+    @GetMapping(value = "/import/sessions/{sessionId}/events", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamImportSession(@PathVariable String sessionId) {
+        return importSessionService.subscribe(sessionId);
+    }
+
+    private ResponseEntity<Map<String, Object>> sessionError(Exception e) {
+        int status;
+        if (e instanceof NoSuchElementException) {
+            status = 404;
+        } else if (e instanceof IllegalStateException) {
+            status = 409;
+        } else if (e instanceof IllegalArgumentException) {
+            status = 400;
+        } else {
+            log.error("Import session error: {}", e.getMessage(), e);
+            status = 500;
+        }
+        Map<String, Object> errorResponse = new HashMap<>();
+        errorResponse.put("success", false);
+        errorResponse.put("message", e.getMessage());
+        return ResponseEntity.status(status).body(errorResponse);
+    }
+
     @PostMapping("/import")
     public ResponseEntity<Map<String, Object>> importData(
             @RequestParam("file") MultipartFile file,
             @RequestParam(value = "options", required = false) String optionsJson) {
         try {
-            System.out.println("Import requested for file: " + file.getOriginalFilename());
-            System.out.println("File size: " + file.getSize() + " bytes");
-            System.out.println("File content type: " + file.getContentType());
-            System.out.println("Options: " + optionsJson);
+            log.info("Import requested for file: {} ({} bytes, {})",
+                    file.getOriginalFilename(), file.getSize(), file.getContentType());
+            log.debug("Options: {}", optionsJson);
             
             // Validate file
             if (file.isEmpty()) {
@@ -157,9 +280,9 @@ public class ExportController {
                     @SuppressWarnings("unchecked")
                     Map<String, Boolean> parsedOptions = objectMapper.readValue(optionsJson, Map.class);
                     options = parsedOptions;
-                    System.out.println("Parsed options: " + options);
+                    log.debug("Parsed options: {}", options);
                 } catch (Exception parseEx) {
-                    System.out.println("Failed to parse options, using defaults: " + parseEx.getMessage());
+                    log.warn("Failed to parse options, using defaults: {}", parseEx.getMessage());
                     options.put("transactions", true);
                     options.put("budgets", true);
                     options.put("goals", true);
@@ -184,12 +307,20 @@ public class ExportController {
                 }
             }
             
-            System.out.println("Importing file as format: " + format);
+            log.debug("Importing file as format: {}", format);
+            
+            // PDF extraction is slow, so it runs in the background; the client follows the session
+            if ("pdf".equals(format)) {
+                Map<String, Object> session = importSessionService.startImport(filename, file.getInputStream(), options);
+                session.put("success", true);
+                session.put("message", "PDF import started. Follow progress at /api/export/import/sessions/" + session.get("sessionId"));
+                return ResponseEntity.accepted().body(session);
+            }
             
             // Call import service (no longer throws exceptions)
             Map<String, Object> result = exportImportService.importData(format, file.getInputStream(), options);
             
-            System.out.println("Import result: " + result);
+            log.info("Import result: {}", result);
             
             // Check if import was successful
             Boolean success = (Boolean) result.getOrDefault("success", true);
@@ -199,7 +330,7 @@ public class ExportController {
             
             return ResponseEntity.ok().body(result);
         } catch (IllegalArgumentException e) {
-            System.err.println("Validation error: " + e.getMessage());
+            log.warn("Validation error: {}", e.getMessage());
             
             Map<String, Object> errorResponse = new HashMap<>();
             errorResponse.put("success", false);
@@ -207,8 +338,7 @@ public class ExportController {
             
             return ResponseEntity.status(400).body(errorResponse);
         } catch (Exception e) {
-            System.err.println("Import error: " + e.getMessage());
-            e.printStackTrace();
+            log.error("Import error: {}", e.getMessage(), e);
             
             Map<String, Object> errorResponse = new HashMap<>();
             errorResponse.put("success", false);
@@ -1,6 +1,11 @@
 package com.budgetwise.controller;
 
+import com.budgetwise.security.IsolatedPasswordEncoder;
+import com.budgetwise.security.LoginRateLimiter;
+import com.budgetwise.security.UserIdentityCache;
+import com.budgetwise.service.CommunityEventBus;
 import com.budgetwise.service.DbHealthService;
+import com.budgetwise.service.TrendingService;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
@@ -15,6 +20,11 @@ import java.util.Map;
 @RequiredArgsConstructor
 public class HealthController {
     private final DbHealthService dbHealthService;
+    private final UserIdentityCache userIdentityCache;
+    private final IsolatedPasswordEncoder passwordEncoder;
+    private final LoginRateLimiter loginRateLimiter;
+    private final CommunityEventBus communityEventBus;
+    private final TrendingService trendingService;
 
     @GetMapping("/db")
     public ResponseEntity<Map<String, Object>> checkDb() {
@@ -26,4 +36,38 @@ public class HealthController {
                     .body(Map.of("status", "DOWN", "error", err));
         }
     }
+
+    /**
+     * Hit rate and saved user lookups of the identity cache.
+     */
+    @GetMapping("/identity-cache")
+    public ResponseEntity<Map<String, Object>> identityCacheStats() {
+        return ResponseEntity.ok(userIdentityCache.getStats());
+    }
+
+    /**
+     * Password hashing latency and saturation, and attempts turned away by the rate limiter.
+     */
+    @GetMapping("/auth")
+    public ResponseEntity<Map<String, Object>> authStats() {
+        return ResponseEntity.ok(Map.of(
+                "passwordHashing", passwordEncoder.getStats(),
+                "rateLimiter", loginRateLimiter.getStats()));
+    }
+
+    /**
+     * Open community streams and events sent or dropped.
+     */
+    @GetMapping("/community-stream")
+    public ResponseEntity<Map<String, Object>> communityStreamStats() {
+        return ResponseEntity.ok(communityEventBus.getStats());
+    }
+
+    /**
+     * Posts tracked by the trending ranking and score changes not snapshotted yet.
+     */
+    @GetMapping("/trending")
+    public ResponseEntity<Map<String, Object>> trendingStats() {
+        return ResponseEntity.ok(trendingService.getStats());
+    }
 }
@@ -4,10 +4,16 @@ import com.budgetwise.dto.PostRequest;
 import com.budgetwise.dto.PostResponse;
 import com.budgetwise.dto.CommentRequest;
 import com.budgetwise.dto.CommentResponse;
+import com.budgetwise.dto.CommentPage;
+import com.budgetwise.dto.FeedPage;
+import com.budgetwise.security.AuthenticatedUser;
+import com.budgetwise.service.CommunityEventBus;
 import com.budgetwise.service.PostService;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 import java.util.List;
 
 @RestController
@@ -16,6 +22,7 @@ import java.util.List;
 public class PostController {
 
     private final PostService postService;
+    private final CommunityEventBus communityEventBus;
 
     // Post Operations
     @PostMapping
@@ -28,6 +35,32 @@ public class PostController {
         return ResponseEntity.ok(postService.getAllPosts());
     }
 
+    @GetMapping("/feed")
+    public ResponseEntity<FeedPage> getFeed(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer size) {
+        return ResponseEntity.ok(postService.getFeed(cursor, size));
+    }
+
+    /**
+     * Posts with the most recent engagement, optionally within one category.
+     */
+    @GetMapping("/trending")
+    public ResponseEntity<List<PostResponse>> getTrending(
+            @RequestParam(required = false) String category,
+            @RequestParam(required = false) Integer size) {
+        return ResponseEntity.ok(postService.getTrending(category, size));
+    }
+
+    /**
+     * Live post, comment and like changes as server-sent events. Browsers cannot set
+     * headers on an EventSource, so the token may be passed as {@code access_token}.
+     */
+    @GetMapping(value = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter stream() {
+        return communityEventBus.subscribe(AuthenticatedUser.currentUserId());
+    }
+
     @GetMapping("/{id}")
     public ResponseEntity<PostResponse> getPost(@PathVariable Long id) {
         return ResponseEntity.ok(postService.getPostById(id));
@@ -47,6 +80,14 @@ public class PostController {
     }
 
     // Comment Operations
+    @GetMapping("/{postId}/comments")
+    public ResponseEntity<CommentPage> getComments(
+            @PathVariable Long postId,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer size) {
+        return ResponseEntity.ok(postService.getComments(postId, cursor, size));
+    }
+
     @PostMapping("/{postId}/comments")
     public ResponseEntity<CommentResponse> addComment(
             @PathVariable Long postId,
@@ -0,0 +1,37 @@
+package com.budgetwise.controller;
+
+import com.budgetwise.service.SearchService;
+import com.budgetwise.service.SuggestionIndex;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+import java.util.Map;
+
+@RestController
+@RequestMapping("/api/search")
+@RequiredArgsConstructor
+public class SearchController {
+
+    private final SearchService searchService;
+
+    @GetMapping
+    public ResponseEntity<Map<String, Object>> search(
+            @RequestParam("q") String query,
+            @RequestParam(defaultValue = "all") String type,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(required = false) Integer size) {
+        return ResponseEntity.ok(searchService.search(query, type, page, size));
+    }
+
+    @GetMapping("/suggest")
+    public ResponseEntity<List<SuggestionIndex.Suggestion>> suggest(
+            @RequestParam("q") String prefix,
+            @RequestParam(required = false) Integer limit) {
+        return ResponseEntity.ok(searchService.suggest(prefix, limit));
+    }
+}
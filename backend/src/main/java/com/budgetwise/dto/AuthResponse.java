@@ -14,4 +14,13 @@ public class AuthResponse {
     private String email;
     private String username;
     private String message; // ✅ Added this field for errors or info messages
+    private String refreshToken;
+    private Long expiresIn; // access token lifetime in seconds
+
+    public AuthResponse(String token, String email, String username, String message) {
+        this.token = token;
+        this.email = email;
+        this.username = username;
+        this.message = message;
+    }
 }
@@ -0,0 +1,32 @@
+package com.budgetwise.dto;
+
+import java.util.List;
+
+public class CategoryMergeRequest {
+    private List<Long> sourceIds;
+    private Long targetId;
+
+    public CategoryMergeRequest() {
+    }
+
+    public CategoryMergeRequest(List<Long> sourceIds, Long targetId) {
+        this.sourceIds = sourceIds;
+        this.targetId = targetId;
+    }
+
+    public List<Long> getSourceIds() {
+        return sourceIds;
+    }
+
+    public void setSourceIds(List<Long> sourceIds) {
+        this.sourceIds = sourceIds;
+    }
+
+    public Long getTargetId() {
+        return targetId;
+    }
+
+    public void setTargetId(Long targetId) {
+        this.targetId = targetId;
+    }
+}
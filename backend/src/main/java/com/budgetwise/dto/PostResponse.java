@@ -21,6 +21,7 @@ public class PostResponse {
     private LocalDateTime createdAt;
     private LocalDateTime updatedAt;
     private Integer likes;
-    private List<CommentResponse> comments;
+    private List<CommentResponse> comments; // all comments, or the latest few in the feed
+    private Integer commentCount;
     private Boolean isLikedByUser;
 }
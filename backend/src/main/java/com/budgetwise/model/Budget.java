@@ -8,6 +8,7 @@ import lombok.NoArgsConstructor;
 
 import java.math.BigDecimal;
 import java.time.LocalDate;
+import java.time.LocalDateTime;
 
 @Data
 @Builder
@@ -23,6 +24,10 @@ public class Budget {
     @Column(nullable = false)
     private String category;
 
+    // Same as Transaction.categoryId
+    @Column(name = "category_id")
+    private Long categoryId;
+
     @Column(nullable = false)
     private BigDecimal amount;
 
@@ -35,4 +40,13 @@ public class Budget {
     @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "user_id", nullable = false)
     private User user;
+
+    @Column(name = "updated_at")
+    private LocalDateTime updatedAt; // Change cursor for incremental export
+
+    @PrePersist
+    @PreUpdate
+    protected void onWrite() {
+        updatedAt = LocalDateTime.now();
+    }
 }
\ No newline at end of file
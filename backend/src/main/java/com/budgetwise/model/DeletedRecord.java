@@ -0,0 +1,52 @@
+package com.budgetwise.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Tombstone left behind when a transaction, budget or goal is deleted,
+ * so incremental exports can tell sync clients what to remove.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Entity
+@Table(name = "deleted_records")
+public class DeletedRecord {
+
+    public static final String TRANSACTIONS = "transactions";
+    public static final String BUDGETS = "budgets";
+    public static final String GOALS = "goals";
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    // Plain id rather than a relation so tombstones never block account deletion
+    @Column(name = "user_id", nullable = false)
+    private Long userId;
+
+    @Column(name = "entity_type", nullable = false, length = 50)
+    private String entityType; // transactions, budgets or goals (matches export sections)
+
+    @Column(name = "entity_id", nullable = false)
+    private Long entityId;
+
+    @Column(name = "deleted_at", nullable = false)
+    private LocalDateTime deletedAt;
+
+    public static DeletedRecord of(Long userId, String entityType, Long entityId) {
+        return DeletedRecord.builder()
+                .userId(userId)
+                .entityType(entityType)
+                .entityId(entityId)
+                .deletedAt(LocalDateTime.now())
+                .build();
+    }
+}
@@ -6,6 +6,7 @@ import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 import java.time.LocalDate;
+import java.time.LocalDateTime;
 
 @Data
 @Builder
@@ -25,6 +26,10 @@ public class Goal {
     @Column(name = "category", nullable = false)
     private String category;
     
+    // Same as Transaction.categoryId
+    @Column(name = "category_id")
+    private Long categoryId;
+    
     @Column(name = "target_amount", nullable = false)
     private Double targetAmount;
     
@@ -43,4 +48,13 @@ public class Goal {
     @ManyToOne
     @JoinColumn(name = "user_id", nullable = false)
     private User user;
+    
+    @Column(name = "updated_at")
+    private LocalDateTime updatedAt; // Change cursor for incremental export
+    
+    @PrePersist
+    @PreUpdate
+    protected void onWrite() {
+        updatedAt = LocalDateTime.now();
+    }
 }
@@ -39,8 +39,15 @@ public class Post {
     @JoinColumn(name = "user_id", nullable = false)
     private User user;
     
-    @Column(name = "likes", nullable = false)
+    // Only changed through relative updates (see LikeCounter), never by saving the entity
+    @Column(name = "likes", nullable = false, updatable = false)
+    @Builder.Default
     private Integer likes = 0;
+
+    // Kept in step by PostService.addComment/deleteComment through relative updates
+    @Column(name = "comment_count", nullable = false, updatable = false)
+    @Builder.Default
+    private Integer commentCount = 0;
     
     @OneToMany(mappedBy = "post", cascade = CascadeType.ALL)
     private List<Comment> comments;
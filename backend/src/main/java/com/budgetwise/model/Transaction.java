@@ -1,5 +1,6 @@
 package com.budgetwise.model;
 
+import com.budgetwise.util.TransactionFingerprint;
 import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
@@ -29,6 +30,10 @@ public class Transaction {
     @Column(nullable = false)
     private String category;
 
+    // The user's Category row; set alongside the name, which stays until the column is dropped
+    @Column(name = "category_id")
+    private Long categoryId;
+
     @Column(nullable = false)
     private LocalDateTime date;
 
@@ -44,4 +49,21 @@ public class Transaction {
     @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "user_id", nullable = false)
     private User user;
+
+    @Column(name = "updated_at")
+    private LocalDateTime updatedAt; // Change cursor for incremental export
+
+    @Column(length = 64)
+    private String fingerprint; // Duplicate detection key, see TransactionFingerprint
+
+    @PrePersist
+    @PreUpdate
+    protected void onWrite() {
+        updatedAt = LocalDateTime.now();
+        fingerprint = computeFingerprint(user != null ? user.getId() : null);
+    }
+
+    public String computeFingerprint(Long userId) {
+        return TransactionFingerprint.of(userId, date, amount, type, description);
+    }
 }
\ No newline at end of file
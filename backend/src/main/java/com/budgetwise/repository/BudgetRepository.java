@@ -3,8 +3,13 @@ package com.budgetwise.repository;
 import com.budgetwise.model.Budget;
 import com.budgetwise.model.User;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
 import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 
 public interface BudgetRepository extends JpaRepository<Budget, Long> {
@@ -12,5 +17,14 @@ public interface BudgetRepository extends JpaRepository<Budget, Long> {
     List<Budget> findByUserAndStartDateLessThanEqualAndEndDateGreaterThanEqual(
             User user, LocalDate currentDate, LocalDate currentDate2);
     List<Budget> findByUserAndCategory(User user, String category);
+    List<Budget> findByUserAndUpdatedAtAfter(User user, LocalDateTime since);
     void deleteByUser(User user);
+
+    // Category rename/merge: one statement whatever the row count; stamps the export change cursor
+    @Modifying
+    @Query("UPDATE Budget b SET b.categoryId = :toId, b.category = :to, b.updatedAt = :now " +
+            "WHERE b.user.id = :userId AND (b.categoryId IN :fromIds OR (b.categoryId IS NULL AND b.category IN :from))")
+    int renameCategory(@Param("userId") Long userId, @Param("fromIds") Collection<Long> fromIds,
+                       @Param("from") Collection<String> from, @Param("toId") Long toId,
+                       @Param("to") String to, @Param("now") LocalDateTime now);
 }
\ No newline at end of file
@@ -14,6 +14,9 @@ public interface CategoryRepository extends JpaRepository<Category, Long> {
     List<Category> findByUserOrderByNameAsc(User user);
     
     List<Category> findByUserOrderByCreatedAtAsc(User user);
+
+    // Defaults share one created_at, so the id keeps their order stable
+    List<Category> findByUserIdOrderByCreatedAtAscIdAsc(Long userId);
     
     Optional<Category> findByUserAndName(User user, String name);
     
@@ -1,11 +1,34 @@
 package com.budgetwise.repository;
 
 import com.budgetwise.model.Comment;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+import java.time.LocalDateTime;
 import java.util.List;
 
 @Repository
 public interface CommentRepository extends JpaRepository<Comment, Long> {
     List<Comment> findByPostIdOrderByCreatedAtDesc(Long postId);
+
+    // Comment pages of one post: keyset on (createdAt, id), authors fetched in the same query
+    @Query("SELECT c FROM Comment c JOIN FETCH c.user WHERE c.post.id = :postId " +
+            "ORDER BY c.createdAt DESC, c.id DESC")
+    List<Comment> findPage(@Param("postId") Long postId, Pageable pageable);
+
+    @Query("SELECT c FROM Comment c JOIN FETCH c.user WHERE c.post.id = :postId " +
+            "AND (c.createdAt < :createdAt OR (c.createdAt = :createdAt AND c.id < :id)) " +
+            "ORDER BY c.createdAt DESC, c.id DESC")
+    List<Comment> findPageAfter(@Param("postId") Long postId, @Param("createdAt") LocalDateTime createdAt,
+                                @Param("id") Long id, Pageable pageable);
+
+    // Returns the number of rows removed, so only the request that deleted the row adjusts the count
+    @Modifying
+    @Transactional
+    @Query("DELETE FROM Comment c WHERE c.id = :id")
+    int deleteCommentById(@Param("id") Long id);
 }
@@ -0,0 +1,42 @@
+package com.budgetwise.repository;
+
+import com.budgetwise.model.DeletedRecord;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface DeletedRecordRepository extends JpaRepository<DeletedRecord, Long> {
+
+    List<DeletedRecord> findByUserIdAndDeletedAtAfter(Long userId, LocalDateTime since);
+
+    void deleteByUserId(Long userId);
+
+    @Modifying
+    @Query("DELETE FROM DeletedRecord d WHERE d.deletedAt < :cutoff")
+    int deleteOlderThan(@Param("cutoff") LocalDateTime cutoff);
+
+    // Set-based tombstones for a full data reset (one statement per table)
+    @Modifying
+    @Query(value = "INSERT INTO deleted_records (user_id, entity_type, entity_id, deleted_at) " +
+            "SELECT user_id, 'transactions', id, :deletedAt FROM transactions WHERE user_id = :userId",
+            nativeQuery = true)
+    int recordAllTransactions(@Param("userId") Long userId, @Param("deletedAt") LocalDateTime deletedAt);
+
+    @Modifying
+    @Query(value = "INSERT INTO deleted_records (user_id, entity_type, entity_id, deleted_at) " +
+            "SELECT user_id, 'budgets', id, :deletedAt FROM budgets WHERE user_id = :userId",
+            nativeQuery = true)
+    int recordAllBudgets(@Param("userId") Long userId, @Param("deletedAt") LocalDateTime deletedAt);
+
+    @Modifying
+    @Query(value = "INSERT INTO deleted_records (user_id, entity_type, entity_id, deleted_at) " +
+            "SELECT user_id, 'goals', id, :deletedAt FROM goals WHERE user_id = :userId",
+            nativeQuery = true)
+    int recordAllGoals(@Param("userId") Long userId, @Param("deletedAt") LocalDateTime deletedAt);
+}
@@ -3,12 +3,26 @@ package com.budgetwise.repository;
 import com.budgetwise.model.Goal;
 import com.budgetwise.model.User;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 
 @Repository
 public interface GoalRepository extends JpaRepository<Goal, Long> {
     List<Goal> findByUserIdOrderByCreatedAtDesc(Long userId);
     List<Goal> findByUser(User user);
+    List<Goal> findByUserAndUpdatedAtAfter(User user, LocalDateTime since);
     void deleteByUser(User user);
+
+    // Category rename/merge: one statement whatever the row count; stamps the export change cursor
+    @Modifying
+    @Query("UPDATE Goal g SET g.categoryId = :toId, g.category = :to, g.updatedAt = :now " +
+            "WHERE g.user.id = :userId AND (g.categoryId IN :fromIds OR (g.categoryId IS NULL AND g.category IN :from))")
+    int renameCategory(@Param("userId") Long userId, @Param("fromIds") Collection<Long> fromIds,
+                       @Param("from") Collection<String> from, @Param("toId") Long toId,
+                       @Param("to") String to, @Param("now") LocalDateTime now);
 }
@@ -1,12 +1,40 @@
 package com.budgetwise.repository;
 
 import com.budgetwise.model.Post;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+import java.time.LocalDateTime;
 import java.util.List;
 
 @Repository
 public interface PostRepository extends JpaRepository<Post, Long> {
+    // Unpaginated list (GET /api/posts); authors fetched in the same query
+    @Query("SELECT p FROM Post p JOIN FETCH p.user ORDER BY p.createdAt DESC, p.id DESC")
     List<Post> findAllByOrderByCreatedAtDesc();
     List<Post> findByUserIdOrderByCreatedAtDesc(Long userId);
+
+    // Feed pages: keyset on (createdAt, id), authors fetched in the same query
+    @Query("SELECT p FROM Post p JOIN FETCH p.user ORDER BY p.createdAt DESC, p.id DESC")
+    List<Post> findFeedPage(Pageable pageable);
+
+    @Query("SELECT p FROM Post p JOIN FETCH p.user " +
+            "WHERE p.createdAt < :createdAt OR (p.createdAt = :createdAt AND p.id < :id) " +
+            "ORDER BY p.createdAt DESC, p.id DESC")
+    List<Post> findFeedPageAfter(@Param("createdAt") LocalDateTime createdAt, @Param("id") Long id,
+                                 Pageable pageable);
+
+    @Query("SELECT p FROM Post p JOIN FETCH p.user WHERE p.id IN :ids")
+    List<Post> findWithUserByIdIn(@Param("ids") List<Long> ids);
+
+    @Modifying
+    @Transactional
+    @Query("UPDATE Post p SET p.commentCount = " +
+            "CASE WHEN p.commentCount + :delta < 0 THEN 0 ELSE p.commentCount + :delta END " +
+            "WHERE p.id = :id")
+    int adjustCommentCount(@Param("id") Long id, @Param("delta") int delta);
 }
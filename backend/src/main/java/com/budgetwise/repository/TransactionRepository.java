@@ -3,13 +3,32 @@ package com.budgetwise.repository;
 import com.budgetwise.model.Transaction;
 import com.budgetwise.model.User;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 
 public interface TransactionRepository extends JpaRepository<Transaction, Long> {
     List<Transaction> findByUser(User user);
     List<Transaction> findByUserAndDateBetween(User user, LocalDateTime start, LocalDateTime end);
     List<Transaction> findByUserAndCategory(User user, String category);
+    List<Transaction> findByUserAndUpdatedAtAfter(User user, LocalDateTime since);
     void deleteByUser(User user);
+
+    @Query("SELECT t.fingerprint FROM Transaction t WHERE t.user.id = :userId AND t.fingerprint IS NOT NULL")
+    List<String> findFingerprintsByUserId(@Param("userId") Long userId);
+
+    @Query("SELECT DISTINCT t.fingerprint FROM Transaction t WHERE t.user.id = :userId AND t.fingerprint IN :fingerprints")
+    List<String> findExistingFingerprints(@Param("userId") Long userId, @Param("fingerprints") Collection<String> fingerprints);
+
+    // Category rename/merge: one statement whatever the row count; stamps the export change cursor
+    @Modifying
+    @Query("UPDATE Transaction t SET t.categoryId = :toId, t.category = :to, t.updatedAt = :now " +
+            "WHERE t.user.id = :userId AND (t.categoryId IN :fromIds OR (t.categoryId IS NULL AND t.category IN :from))")
+    int renameCategory(@Param("userId") Long userId, @Param("fromIds") Collection<Long> fromIds,
+                       @Param("from") Collection<String> from, @Param("toId") Long toId,
+                       @Param("to") String to, @Param("now") LocalDateTime now);
 }
\ No newline at end of file
@@ -0,0 +1,19 @@
+package com.budgetwise.security;
+
+/**
+ * Thrown when a login or registration is turned away before any password is checked,
+ * either by the rate limiter or because password hashing is saturated.
+ */
+public class AuthThrottledException extends RuntimeException {
+
+    private final long retryAfterSeconds;
+
+    public AuthThrottledException(String message, long retryAfterSeconds) {
+        super(message);
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+
+    public long getRetryAfterSeconds() {
+        return retryAfterSeconds;
+    }
+}
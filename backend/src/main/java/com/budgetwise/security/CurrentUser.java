@@ -0,0 +1,84 @@
+package com.budgetwise.security;
+
+import com.budgetwise.model.User;
+import com.budgetwise.repository.UserRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.annotation.RequestScope;
+
+/**
+ * The authenticated user of the current HTTP request, resolved at most once per request.
+ *
+ * <p>Prefer {@link #getId()} for ownership checks and {@link #reference()} for foreign
+ * keys and repository parameters: neither touches the database when the token carries
+ * the user id. Use {@link #get()} only when user fields are actually read.
+ *
+ * <p>Request scoped, so it is not available on background threads; pass the user or
+ * id explicitly there.
+ */
+@Component
+@RequestScope
+@RequiredArgsConstructor
+public class CurrentUser {
+
+    private final UserRepository userRepository;
+    private final UserIdentityCache userIdentityCache;
+
+    private Long id;
+    private User user;
+
+    public Long getId() {
+        if (id == null) {
+            id = AuthenticatedUser.currentUserId();
+            if (id == null) {
+                // Legacy token without an id claim
+                id = user != null ? user.getId() : identityOf(currentIdentifier()).id();
+            }
+        }
+        return id;
+    }
+
+    /**
+     * The full user entity, loaded on first use and reused for the rest of the request.
+     */
+    public User get() {
+        if (user == null) {
+            user = load();
+            id = user.getId();
+        }
+        return user;
+    }
+
+    /**
+     * A JPA reference for use as a foreign key or query parameter; the already loaded
+     * entity if there is one, otherwise an uninitialised proxy.
+     */
+    public User reference() {
+        return user != null ? user : userRepository.getReferenceById(getId());
+    }
+
+    private User load() {
+        Long userId = id != null ? id : AuthenticatedUser.currentUserId();
+        if (userId != null) {
+            return userRepository.findById(userId)
+                    .orElseThrow(() -> new RuntimeException("User not found"));
+        }
+        return userRepository.findById(identityOf(currentIdentifier()).id())
+                .orElseThrow(() -> new RuntimeException("User not found"));
+    }
+
+    private String currentIdentifier() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication == null) {
+            throw new RuntimeException("User not found");
+        }
+        return authentication.getName();
+    }
+
+    private UserIdentityCache.UserIdentity identityOf(String identifier) {
+        return userIdentityCache.lookup(identifier)
+                .orElseThrow(() -> new RuntimeException("User not found"));
+    }
+}
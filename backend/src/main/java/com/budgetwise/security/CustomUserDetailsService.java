@@ -1,7 +1,5 @@
 package com.budgetwise.security;
 
-import com.budgetwise.model.User;
-import com.budgetwise.repository.UserRepository;
 import lombok.RequiredArgsConstructor;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.core.userdetails.UserDetailsService;
@@ -10,26 +8,25 @@ import org.springframework.stereotype.Service;
 import org.springframework.security.core.userdetails.User.*;
 
 /**
- * Loads user details from the database using either username or email.
+ * Loads user details by username or email through the {@link UserIdentityCache}.
  * Required for Spring Security & JWT authentication pipeline.
  */
 @Service
 @RequiredArgsConstructor
 public class CustomUserDetailsService implements UserDetailsService {
 
-    private final UserRepository userRepository;
+    private final UserIdentityCache userIdentityCache;
 
     @Override
     public UserDetails loadUserByUsername(String identifier) throws UsernameNotFoundException {
-        User user = userRepository.findByUsername(identifier)
-                .or(() -> userRepository.findByEmail(identifier))
+        UserIdentityCache.UserIdentity user = userIdentityCache.lookup(identifier)
                 .orElseThrow(() -> new UsernameNotFoundException("User not found with username or email: " + identifier));
 
-        // Convert our User entity to Spring Security's UserDetails
+        // Convert the cached identity to Spring Security's UserDetails
         return org.springframework.security.core.userdetails.User
-                .withUsername(user.getUsername())
-                .password(user.getPassword())
-                .authorities(user.getRole().name()) // e.g., ROLE_USER
+                .withUsername(user.username())
+                .password(user.passwordHash())
+                .authorities(user.role()) // e.g., ROLE_USER
                 .accountExpired(false)
                 .accountLocked(false)
                 .credentialsExpired(false)
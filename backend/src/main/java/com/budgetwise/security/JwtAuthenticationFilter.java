@@ -1,10 +1,14 @@
 package com.budgetwise.security;
 
+import io.jsonwebtoken.Claims;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
+import com.budgetwise.config.AccessLogFilter;
 import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.slf4j.MDC;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.core.userdetails.UserDetails;
@@ -20,10 +24,14 @@ import java.io.IOException;
  */
 @Component
 @RequiredArgsConstructor
+@Slf4j
 public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
     private final JwtTokenProvider jwtTokenProvider;
     private final CustomUserDetailsService customUserDetailsService;
+    private final TokenRevocationService tokenRevocationService;
+
+    private static final String STREAM_PATH = "/api/posts/stream";
 
     @Override
     protected void doFilterInternal(HttpServletRequest request,
@@ -31,28 +39,30 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
                                     FilterChain filterChain)
             throws ServletException, IOException {
 
-        final String authHeader = request.getHeader("Authorization");
-
-        // Log every incoming request for debugging
-        System.out.println("Incoming request: " + request.getMethod() + " " + request.getRequestURI());
+        // Requests themselves are logged (sampled) by AccessLogFilter
+        final String jwt = resolveToken(request);
 
         // If no JWT header or malformed, move forward without authentication
-        if (authHeader == null || !authHeader.startsWith("Bearer ")) {
+        if (jwt == null) {
             filterChain.doFilter(request, response);
             return;
         }
 
-        final String jwt = authHeader.substring(7).trim();
-
         try {
-            // Extract username/email from token
-            final String identifier = jwtTokenProvider.extractUsername(jwt);
-
-            if (identifier != null && SecurityContextHolder.getContext().getAuthentication() == null) {
-                UserDetails userDetails = customUserDetailsService.loadUserByUsername(identifier);
+            // Verify signature and expiration once, then work from the parsed claims
+            final Claims claims = jwtTokenProvider.parseValidatedClaims(jwt);
+            final String identifier = claims.getSubject();
+
+            if (tokenRevocationService.isRevoked(claims)) {
+                log.info("Revoked JWT for: {}", identifier);
+            } else if (identifier != null && SecurityContextHolder.getContext().getAuthentication() == null) {
+                UserDetails userDetails = AuthenticatedUser.fromClaims(claims);
+                if (userDetails == null) {
+                    // Token issued before id/role claims were added: look the user up once
+                    userDetails = customUserDetailsService.loadUserByUsername(identifier);
+                }
 
-                // Validate JWT signature and expiration
-                if (jwtTokenProvider.validateToken(jwt, userDetails)) {
+                if (jwtTokenProvider.isValidFor(claims, userDetails)) {
                     UsernamePasswordAuthenticationToken authToken =
                             new UsernamePasswordAuthenticationToken(
                                     userDetails,
@@ -63,17 +73,33 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
                     authToken.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
                     SecurityContextHolder.getContext().setAuthentication(authToken);
 
-                    System.out.println("Authenticated user: " + identifier);
+                    if (userDetails instanceof AuthenticatedUser principal) {
+                        MDC.put(AccessLogFilter.MDC_USER_ID, String.valueOf(principal.getId()));
+                    }
+                    log.debug("Authenticated user: {}", identifier);
                 } else {
-                    System.out.println("Invalid or expired JWT for: " + identifier);
+                    log.debug("Invalid or expired JWT for: {}", identifier);
                 }
             }
 
         } catch (Exception ex) {
-            System.out.println("JWT processing error: " + ex.getMessage());
+            log.debug("JWT processing error: {}", ex.getMessage());
         }
 
         // Continue to next filter or controller
         filterChain.doFilter(request, response);
     }
+
+    private String resolveToken(HttpServletRequest request) {
+        final String authHeader = request.getHeader("Authorization");
+        if (authHeader != null && authHeader.startsWith("Bearer ")) {
+            return authHeader.substring(7).trim();
+        }
+        // EventSource cannot send headers, so the live stream alone accepts a query parameter
+        if (STREAM_PATH.equals(request.getRequestURI()) && "GET".equals(request.getMethod())) {
+            String token = request.getParameter("access_token");
+            return token != null && !token.isBlank() ? token.trim() : null;
+        }
+        return null;
+    }
 }
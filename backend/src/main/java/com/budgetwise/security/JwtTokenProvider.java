@@ -1,9 +1,13 @@
 package com.budgetwise.security;
 
+import com.budgetwise.model.User;
 import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.SignatureAlgorithm;
 import io.jsonwebtoken.security.Keys;
+import jakarta.annotation.PostConstruct;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.stereotype.Component;
@@ -12,10 +16,10 @@ import java.security.Key;
 import java.util.Date;
 import java.util.HashMap;
 import java.util.Map;
-import java.util.function.Function;
+import java.util.UUID;
 
 /**
- * Handles JWT token generation, extraction, and validation.
+ * Handles JWT token generation and validation.
  * Ensures consistent signing, expiration, and claim structure.
  */
 @Component
@@ -27,35 +31,34 @@ public class JwtTokenProvider {
     @Value("${jwt.expiration}")
     private Long expiration;
 
-    // ----------- Key -----------
-    private Key getSigningKey() {
-        return Keys.hmacShaKeyFor(secret.getBytes());
-    }
-
-    // ----------- Extractors -----------
-    public String extractUsername(String token) {
-        return extractClaim(token, Claims::getSubject);
-    }
+    // Built once: deriving the key and parser per call showed up in every request
+    private Key signingKey;
+    private JwtParser parser;
 
-    public Date extractExpiration(String token) {
-        return extractClaim(token, Claims::getExpiration);
+    @PostConstruct
+    void init() {
+        signingKey = Keys.hmacShaKeyFor(secret.getBytes());
+        parser = Jwts.parserBuilder()
+                .setSigningKey(signingKey)
+                .build();
     }
 
-    public <T> T extractClaim(String token, Function<Claims, T> claimsResolver) {
-        final Claims claims = extractAllClaims(token);
-        return claimsResolver.apply(claims);
+    public long getExpirationMillis() {
+        return expiration;
     }
 
-    private Claims extractAllClaims(String token) {
-        return Jwts.parserBuilder()
-                .setSigningKey(getSigningKey())
-                .build()
-                .parseClaimsJws(token)
-                .getBody();
+    // ----------- Key -----------
+    private Key getSigningKey() {
+        return signingKey;
     }
 
-    private Boolean isTokenExpired(String token) {
-        return extractExpiration(token).before(new Date());
+    /**
+     * Verifies signature and expiry once and returns the claims.
+     *
+     * @throws JwtException if the token is malformed, tampered with or expired
+     */
+    public Claims parseValidatedClaims(String token) {
+        return parser.parseClaimsJws(token).getBody();
     }
 
     // ----------- Token Creation -----------
@@ -68,7 +71,14 @@ public class JwtTokenProvider {
                 .map(Object::toString)
                 .orElse("ROLE_USER");
 
-        claims.put("role", role);
+        claims.put(AuthenticatedUser.CLAIM_ROLE, role);
+
+        // Lets the auth filter build the principal without a database lookup
+        if (userDetails instanceof User user && user.getId() != null) {
+            claims.put(AuthenticatedUser.CLAIM_USER_ID, user.getId());
+        } else if (userDetails instanceof AuthenticatedUser principal) {
+            claims.put(AuthenticatedUser.CLAIM_USER_ID, principal.getId());
+        }
 
         return createToken(claims, userDetails.getUsername());
     }
@@ -77,6 +87,8 @@ public class JwtTokenProvider {
         return Jwts.builder()
                 .setClaims(claims)
                 .setSubject(subject)
+                // jti, so a single token can be revoked on logout
+                .setId(UUID.randomUUID().toString())
                 .setIssuedAt(new Date(System.currentTimeMillis()))
                 .setExpiration(new Date(System.currentTimeMillis() + expiration))
                 .signWith(getSigningKey(), SignatureAlgorithm.HS256)
@@ -84,8 +96,14 @@ public class JwtTokenProvider {
     }
 
     // ----------- Validation -----------
-    public Boolean validateToken(String token, UserDetails userDetails) {
-        final String username = extractUsername(token);
-        return (username.equals(userDetails.getUsername()) && !isTokenExpired(token));
+    /**
+     * Checks that claims already verified by {@link #parseValidatedClaims(String)} belong
+     * to the given user and have not expired since, without parsing the token again.
+     */
+    public boolean isValidFor(Claims claims, UserDetails userDetails) {
+        return claims.getSubject() != null
+                && claims.getSubject().equals(userDetails.getUsername())
+                && claims.getExpiration() != null
+                && claims.getExpiration().after(new Date());
     }
 }
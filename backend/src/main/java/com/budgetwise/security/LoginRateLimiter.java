@@ -0,0 +1,130 @@
+package com.budgetwise.security;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Token buckets for login and registration attempts, one per client IP and one per
+ * account (login identifier or registration email). Checked before any password is
+ * hashed, so a credential-stuffing burst is rejected for the cost of a map lookup.
+ */
+@Component
+public class LoginRateLimiter {
+
+    enum Kind { LOGIN_IP, LOGIN_ACCOUNT, REGISTER_IP, REGISTER_ACCOUNT }
+
+    private record Limit(double capacity, double refillPerSecond) {}
+
+    private final Map<Kind, Limit> limits = new EnumMap<>(Kind.class);
+    private final Map<Kind, AtomicLong> rejected = new EnumMap<>(Kind.class);
+    private final Map<String, TokenBucket> buckets = new ConcurrentHashMap<>();
+
+    public LoginRateLimiter(@Value("${security.rate-limit.login.ip.capacity:20}") int loginIpCapacity,
+                            @Value("${security.rate-limit.login.ip.per-minute:10}") int loginIpPerMinute,
+                            @Value("${security.rate-limit.login.account.capacity:5}") int loginAccountCapacity,
+                            @Value("${security.rate-limit.login.account.per-minute:2}") int loginAccountPerMinute,
+                            @Value("${security.rate-limit.register.ip.capacity:5}") int registerIpCapacity,
+                            @Value("${security.rate-limit.register.ip.per-minute:1}") int registerIpPerMinute,
+                            @Value("${security.rate-limit.register.account.capacity:3}") int registerAccountCapacity,
+                            @Value("${security.rate-limit.register.account.per-minute:1}") int registerAccountPerMinute) {
+        limits.put(Kind.LOGIN_IP, new Limit(loginIpCapacity, loginIpPerMinute / 60.0));
+        limits.put(Kind.LOGIN_ACCOUNT, new Limit(loginAccountCapacity, loginAccountPerMinute / 60.0));
+        limits.put(Kind.REGISTER_IP, new Limit(registerIpCapacity, registerIpPerMinute / 60.0));
+        limits.put(Kind.REGISTER_ACCOUNT, new Limit(registerAccountCapacity, registerAccountPerMinute / 60.0));
+        for (Kind kind : Kind.values()) {
+            rejected.put(kind, new AtomicLong());
+        }
+    }
+
+    public void checkLogin(String clientIp, String identifier) {
+        acquire(Kind.LOGIN_IP, clientIp);
+        acquire(Kind.LOGIN_ACCOUNT, normalize(identifier));
+    }
+
+    public void checkRegister(String clientIp, String email) {
+        acquire(Kind.REGISTER_IP, clientIp);
+        acquire(Kind.REGISTER_ACCOUNT, normalize(email));
+    }
+
+    private void acquire(Kind kind, String key) {
+        if (key == null || key.isEmpty()) {
+            return;
+        }
+        Limit limit = limits.get(kind);
+        TokenBucket bucket = buckets.computeIfAbsent(kind + ":" + key,
+                k -> new TokenBucket(limit.capacity(), limit.refillPerSecond()));
+        long waitSeconds = bucket.tryAcquire();
+        if (waitSeconds > 0) {
+            rejected.get(kind).incrementAndGet();
+            throw new AuthThrottledException("Too many attempts. Please try again in " + waitSeconds + " seconds.",
+                    waitSeconds);
+        }
+    }
+
+    /**
+     * Forgets buckets that have refilled completely; they behave exactly like new ones.
+     */
+    @Scheduled(fixedDelay = 60000)
+    public void removeIdleBuckets() {
+        buckets.values().removeIf(TokenBucket::isFull);
+    }
+
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("trackedKeys", buckets.size());
+        Map<String, Long> rejectedByKind = new LinkedHashMap<>();
+        rejected.forEach((kind, count) -> rejectedByKind.put(kind.name().toLowerCase(Locale.ROOT), count.get()));
+        stats.put("rejected", rejectedByKind);
+        return stats;
+    }
+
+    private static String normalize(String value) {
+        return value == null ? null : value.trim().toLowerCase(Locale.ROOT);
+    }
+
+    private static final class TokenBucket {
+
+        private final double capacity;
+        private final double refillPerNano;
+        private double tokens;
+        private long lastRefill;
+
+        TokenBucket(double capacity, double refillPerSecond) {
+            this.capacity = capacity;
+            this.refillPerNano = refillPerSecond / 1_000_000_000.0;
+            this.tokens = capacity;
+            this.lastRefill = System.nanoTime();
+        }
+
+        /**
+         * Takes a token; returns 0 on success or the seconds until one is available.
+         */
+        synchronized long tryAcquire() {
+            refill();
+            if (tokens >= 1) {
+                tokens -= 1;
+                return 0;
+            }
+            return Math.max(1, (long) Math.ceil((1 - tokens) / refillPerNano / 1_000_000_000.0));
+        }
+
+        synchronized boolean isFull() {
+            refill();
+            return tokens >= capacity;
+        }
+
+        private void refill() {
+            long now = System.nanoTime();
+            tokens = Math.min(capacity, tokens + (now - lastRefill) * refillPerNano);
+            lastRefill = now;
+        }
+    }
+}
@@ -0,0 +1,126 @@
+package com.budgetwise.security;
+
+import com.budgetwise.model.RevokedToken;
+import com.budgetwise.repository.RevokedTokenRepository;
+import com.budgetwise.util.BloomFilter;
+import io.jsonwebtoken.Claims;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.Date;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Revoked JWTs, keyed by their {@code jti} claim. The table is the source of truth and
+ * is mirrored in memory at startup; a Bloom filter in front of the mirror answers the
+ * common "not revoked" case without touching the map or the database.
+ *
+ * <p>Tokens issued before the jti claim existed cannot be revoked and simply run out.
+ */
+@Service
+@Slf4j
+public class TokenRevocationService {
+
+    private final RevokedTokenRepository revokedTokenRepository;
+    private final long expectedEntries;
+    private final double falsePositiveRate;
+
+    // jti -> expiry in epoch millis
+    private final Map<String, Long> revoked = new ConcurrentHashMap<>();
+    private volatile BloomFilter filter;
+
+    public TokenRevocationService(RevokedTokenRepository revokedTokenRepository,
+                                  @Value("${security.revocation.expected-entries:100000}") long expectedEntries,
+                                  @Value("${security.revocation.false-positive-rate:0.001}") double falsePositiveRate) {
+        this.revokedTokenRepository = revokedTokenRepository;
+        this.expectedEntries = expectedEntries;
+        this.falsePositiveRate = falsePositiveRate;
+        this.filter = new BloomFilter(expectedEntries, falsePositiveRate);
+    }
+
+    @PostConstruct
+    void load() {
+        for (RevokedToken token : revokedTokenRepository.findByExpiresAtAfter(LocalDateTime.now())) {
+            revoked.put(token.getJti(), toMillis(token.getExpiresAt()));
+        }
+        rebuildFilter();
+        log.info("Loaded {} revoked tokens", revoked.size());
+    }
+
+    /**
+     * True if the token was revoked. Expects claims that already passed signature
+     * and expiry checks.
+     */
+    public boolean isRevoked(Claims claims) {
+        String jti = claims.getId();
+        if (jti == null || !filter.mightContain(jti)) {
+            return false;
+        }
+        // Filter said "maybe": the in-memory mirror gives the exact answer
+        return revoked.containsKey(jti);
+    }
+
+    /**
+     * Revokes the token until its natural expiry. Revoking twice is harmless.
+     */
+    public void revoke(Claims claims, Long userId) {
+        String jti = claims.getId();
+        Date expiration = claims.getExpiration();
+        if (jti == null || expiration == null || revoked.containsKey(jti)) {
+            return;
+        }
+
+        if (!revokedTokenRepository.existsByJti(jti)) {
+            try {
+                revokedTokenRepository.save(RevokedToken.builder()
+                        .jti(jti)
+                        .userId(userId)
+                        .expiresAt(LocalDateTime.ofInstant(expiration.toInstant(), ZoneId.systemDefault()))
+                        .revokedAt(LocalDateTime.now())
+                        .build());
+            } catch (DataIntegrityViolationException e) {
+                // Revoked concurrently by another request
+            }
+        }
+
+        synchronized (this) {
+            revoked.put(jti, expiration.getTime());
+            filter.put(jti);
+        }
+    }
+
+    /**
+     * Drops revocations whose tokens have expired, from the table and from memory.
+     * Bloom filters cannot forget, so the filter is rebuilt from what is left.
+     */
+    @Scheduled(fixedDelayString = "${security.revocation.cleanup-interval-ms:600000}")
+    public void removeExpired() {
+        long now = System.currentTimeMillis();
+        int deleted = revokedTokenRepository.deleteExpired(LocalDateTime.now());
+        boolean removed = revoked.values().removeIf(expiresAt -> expiresAt <= now);
+        if (removed || filter.isSaturated()) {
+            rebuildFilter();
+        }
+        if (deleted > 0) {
+            log.info("Removed {} expired token revocations", deleted);
+        }
+    }
+
+    // Synchronized with revoke() so a revocation cannot slip between the copy and the swap
+    private synchronized void rebuildFilter() {
+        BloomFilter rebuilt = new BloomFilter(Math.max(expectedEntries, revoked.size() * 2L), falsePositiveRate);
+        revoked.keySet().forEach(rebuilt::put);
+        filter = rebuilt;
+    }
+
+    private static long toMillis(LocalDateTime time) {
+        return time.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+    }
+}
@@ -0,0 +1,145 @@
+package com.budgetwise.security;
+
+import com.budgetwise.model.User;
+import com.budgetwise.repository.UserRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * In-process cache of identifier (username or email) to the few user fields that
+ * authentication needs. Size-bounded (least recently used entries go first) and
+ * time-bounded, and every code path that changes a username, email, password or
+ * deletes a user calls {@link #invalidate(Long)} after writing.
+ */
+@Component
+public class UserIdentityCache {
+
+    /**
+     * What login and legacy token checks need to know about a user.
+     */
+    public record UserIdentity(Long id, String username, String email, String role, String passwordHash) {}
+
+    private record Entry(UserIdentity identity, long expiresAt, int loadQueries) {}
+
+    private final UserRepository userRepository;
+    private final long ttlMillis;
+    private final Map<String, Entry> entries;
+
+    // Bumped on every invalidation so a lookup that raced with a write does not cache stale data
+    private final AtomicLong generation = new AtomicLong();
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong dbQueries = new AtomicLong();
+    private final AtomicLong queriesSaved = new AtomicLong();
+
+    public UserIdentityCache(UserRepository userRepository,
+                             @Value("${security.identity-cache.max-size:10000}") int maxSize,
+                             @Value("${security.identity-cache.ttl-seconds:300}") long ttlSeconds) {
+        this.userRepository = userRepository;
+        this.ttlMillis = Duration.ofSeconds(ttlSeconds).toMillis();
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Entry> eldest) {
+                return size() > maxSize;
+            }
+        };
+    }
+
+    /**
+     * Resolves a username or email, from the cache when possible.
+     */
+    public Optional<UserIdentity> lookup(String identifier) {
+        if (identifier == null) {
+            return Optional.empty();
+        }
+        long now = System.currentTimeMillis();
+        Entry entry;
+        synchronized (entries) {
+            entry = entries.get(identifier);
+            if (entry != null && entry.expiresAt() <= now) {
+                entries.remove(identifier);
+                entry = null;
+            }
+        }
+        if (entry != null) {
+            hits.incrementAndGet();
+            queriesSaved.addAndGet(entry.loadQueries());
+            return Optional.of(entry.identity());
+        }
+
+        misses.incrementAndGet();
+        long generationBefore = generation.get();
+        int queries = 1;
+        Optional<User> user = userRepository.findByUsername(identifier);
+        if (user.isEmpty()) {
+            queries++;
+            user = userRepository.findByEmail(identifier);
+        }
+        dbQueries.addAndGet(queries);
+        if (user.isEmpty()) {
+            return Optional.empty();
+        }
+
+        User found = user.get();
+        UserIdentity identity = new UserIdentity(found.getId(), found.getUsername(), found.getEmail(),
+                found.getRole().name(), found.getPassword());
+        synchronized (entries) {
+            if (generation.get() == generationBefore) {
+                entries.put(identifier, new Entry(identity, now + ttlMillis, queries));
+            }
+        }
+        return Optional.of(identity);
+    }
+
+    /**
+     * Drops every cached identifier of the user. Call after the write is saved; inside a
+     * transaction the entries are dropped again after commit, so a lookup that ran in
+     * between cannot leave the old values behind.
+     */
+    public void invalidate(Long userId) {
+        if (userId == null) {
+            return;
+        }
+        evict(userId);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    evict(userId);
+                }
+            });
+        }
+    }
+
+    private void evict(Long userId) {
+        synchronized (entries) {
+            generation.incrementAndGet();
+            entries.values().removeIf(entry -> userId.equals(entry.identity().id()));
+        }
+    }
+
+    public Map<String, Object> getStats() {
+        long hitCount = hits.get();
+        long lookups = hitCount + misses.get();
+        int size;
+        synchronized (entries) {
+            size = entries.size();
+        }
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("size", size);
+        stats.put("hits", hitCount);
+        stats.put("misses", misses.get());
+        stats.put("hitRate", lookups == 0 ? 0.0 : Math.round(hitCount * 1000.0 / lookups) / 1000.0);
+        stats.put("dbQueries", dbQueries.get());
+        stats.put("dbQueriesSaved", queriesSaved.get());
+        return stats;
+    }
+}
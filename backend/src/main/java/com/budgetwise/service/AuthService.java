@@ -6,8 +6,15 @@ import com.budgetwise.dto.RegisterRequest;
 import com.budgetwise.model.Role;
 import com.budgetwise.model.User;
 import com.budgetwise.repository.UserRepository;
+import com.budgetwise.security.AuthenticatedUser;
 import com.budgetwise.security.JwtTokenProvider;
+import com.budgetwise.security.TokenRevocationService;
+import com.budgetwise.security.UserIdentityCache;
+import com.budgetwise.service.RefreshTokenService.Issued;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtException;
 import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.crypto.password.PasswordEncoder;
@@ -15,12 +22,19 @@ import org.springframework.stereotype.Service;
 
 @Service
 @RequiredArgsConstructor
+@Slf4j
 public class AuthService {
 
     private final UserRepository userRepository;
     private final PasswordEncoder passwordEncoder;
     private final JwtTokenProvider jwtTokenProvider;
     private final AuthenticationManager authenticationManager;
+    private final UserIdentityCache userIdentityCache;
+    private final TokenRevocationService tokenRevocationService;
+    private final RefreshTokenService refreshTokenService;
+    private final CategoryService categoryService;
+    private final CommunityEventBus communityEventBus;
+    private final ImportSessionService importSessionService;
 
     // ---------------- REGISTER ----------------
     public AuthResponse register(RegisterRequest request) {
@@ -49,11 +63,19 @@ public class AuthService {
         user.setRole(Role.ROLE_USER);
 
         userRepository.save(user);
+        try {
+            categoryService.initializeDefaultCategories(user.getId());
+        } catch (RuntimeException e) {
+            // Not fatal: the first category read initializes them instead
+            log.warn("Could not initialize default categories for user {}: {}", user.getId(), e.getMessage());
+        }
 
         var token = jwtTokenProvider.generateToken(user);
 
         return AuthResponse.builder()
                 .token(token)
+                .refreshToken(refreshTokenService.issue(user))
+                .expiresIn(jwtTokenProvider.getExpirationMillis() / 1000)
                 .email(user.getEmail())
                 .username(user.getUsername())
                 .message("Registration successful")
@@ -62,27 +84,62 @@ public class AuthService {
 
     // ---------------- LOGIN ----------------
     public AuthResponse authenticate(AuthRequest request) {
-        var userOpt = userRepository.findByEmail(request.getEmailOrUsername())
-                .or(() -> userRepository.findByUsername(request.getEmailOrUsername()));
-
-        var user = userOpt.orElseThrow(() -> new RuntimeException("No account found with this email or username."));
+        var user = userIdentityCache.lookup(request.getEmailOrUsername())
+                .orElseThrow(() -> new RuntimeException("No account found with this email or username."));
 
+        // Same identifier as the lookup above, so CustomUserDetailsService gets a cache hit
+        // whether the user signed in with their email or username; the BCrypt check itself
+        // runs on the password hashing pool
         authenticationManager.authenticate(
-                new UsernamePasswordAuthenticationToken(user.getEmail(), request.getPassword())
+                new UsernamePasswordAuthenticationToken(request.getEmailOrUsername(), request.getPassword())
         );
 
-        var token = jwtTokenProvider.generateToken(user);
+        var token = jwtTokenProvider.generateToken(new AuthenticatedUser(user.id(), user.username(), user.role()));
 
         return AuthResponse.builder()
                 .token(token)
+                .refreshToken(refreshTokenService.issue(userRepository.getReferenceById(user.id())))
+                .expiresIn(jwtTokenProvider.getExpirationMillis() / 1000)
+                .email(user.email())
+                .username(user.username())
+                .message("Login successful")
+                .build();
+    }
+
+    // ---------------- REFRESH ----------------
+    public AuthResponse refresh(String refreshToken) {
+        Issued issued = refreshTokenService.rotate(refreshToken);
+        User user = issued.user();
+
+        return AuthResponse.builder()
+                .token(jwtTokenProvider.generateToken(user))
+                .refreshToken(issued.token())
+                .expiresIn(jwtTokenProvider.getExpirationMillis() / 1000)
                 .email(user.getEmail())
                 .username(user.getUsername())
-                .message("Login successful")
+                .message("Token refreshed")
                 .build();
     }
 
     // ---------------- LOGOUT ----------------
-    public void logout(String token) {
-        System.out.println("User logged out successfully with token: " + token);
+    public void logout(String token, String refreshToken) {
+        if (refreshToken != null && !refreshToken.isBlank()) {
+            refreshTokenService.revoke(refreshToken);
+        }
+
+        Claims claims;
+        try {
+            claims = jwtTokenProvider.parseValidatedClaims(token);
+        } catch (JwtException | IllegalArgumentException e) {
+            // Expired or invalid tokens are already unusable
+            return;
+        }
+        Object uid = claims.get(AuthenticatedUser.CLAIM_USER_ID);
+        Long userId = uid instanceof Number n ? n.longValue() : null;
+        tokenRevocationService.revoke(claims, userId);
+        // Open event streams were authorized by the token that was just revoked
+        communityEventBus.disconnect(userId);
+        importSessionService.disconnect(userId);
+        log.info("User logged out successfully: {}", claims.getSubject());
     }
 }
@@ -3,12 +3,14 @@ package com.budgetwise.service;
 import com.budgetwise.dto.BudgetRequest;
 import com.budgetwise.dto.BudgetResponse;
 import com.budgetwise.model.Budget;
+import com.budgetwise.model.DeletedRecord;
 import com.budgetwise.model.User;
 import com.budgetwise.repository.BudgetRepository;
-import com.budgetwise.repository.UserRepository;
+import com.budgetwise.repository.DeletedRecordRepository;
+import com.budgetwise.security.CurrentUser;
 import lombok.RequiredArgsConstructor;
-import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDate;
 import java.util.List;
@@ -18,20 +20,16 @@ import java.util.stream.Collectors;
 @RequiredArgsConstructor
 public class BudgetService {
     private final BudgetRepository budgetRepository;
-    private final UserRepository userRepository;
-
-    private User getCurrentUser() {
-        String identifier = SecurityContextHolder.getContext().getAuthentication().getName();
-        return userRepository.findByUsername(identifier)
-                .or(() -> userRepository.findByEmail(identifier))
-                .orElseThrow(() -> new RuntimeException("User not found"));
-    }
+    private final DeletedRecordRepository deletedRecordRepository;
+    private final CurrentUser currentUser;
+    private final CategoryService categoryService;
 
     public BudgetResponse createBudget(BudgetRequest request) {
-        User user = getCurrentUser();
+        User user = currentUser.reference();
 
         Budget budget = Budget.builder()
                 .category(request.getCategory())
+                .categoryId(categoryService.categoryId(user.getId(), request.getCategory()))
                 .amount(request.getAmount())
                 .startDate(request.getStartDate())
                 .endDate(request.getEndDate())
@@ -43,7 +41,7 @@ public class BudgetService {
     }
 
     public List<BudgetResponse> getAllBudgets() {
-        User user = getCurrentUser();
+        User user = currentUser.reference();
         return budgetRepository.findByUser(user)
                 .stream()
                 .map(this::mapToResponse)
@@ -51,7 +49,7 @@ public class BudgetService {
     }
 
     public List<BudgetResponse> getCurrentBudgets() {
-        User user = getCurrentUser();
+        User user = currentUser.reference();
         LocalDate now = LocalDate.now();
         return budgetRepository.findByUserAndStartDateLessThanEqualAndEndDateGreaterThanEqual(user, now, now)
                 .stream()
@@ -60,15 +58,16 @@ public class BudgetService {
     }
 
     public BudgetResponse updateBudget(Long budgetId, BudgetRequest request) {
-        User user = getCurrentUser();
+        Long userId = currentUser.getId();
         Budget budget = budgetRepository.findById(budgetId)
                 .orElseThrow(() -> new RuntimeException("Budget not found. It may have been deleted."));
 
-        if (!budget.getUser().getId().equals(user.getId())) {
+        if (!budget.getUser().getId().equals(userId)) {
             throw new RuntimeException("You don't have permission to edit this budget.");
         }
 
         budget.setCategory(request.getCategory());
+        budget.setCategoryId(categoryService.categoryId(userId, request.getCategory()));
         budget.setAmount(request.getAmount());
         budget.setStartDate(request.getStartDate());
         budget.setEndDate(request.getEndDate());
@@ -77,16 +76,18 @@ public class BudgetService {
         return mapToResponse(budget);
     }
 
+    @Transactional
     public void deleteBudget(Long budgetId) {
-        User user = getCurrentUser();
+        Long userId = currentUser.getId();
         Budget budget = budgetRepository.findById(budgetId)
                 .orElseThrow(() -> new RuntimeException("Budget not found. It may have been deleted."));
 
-        if (!budget.getUser().getId().equals(user.getId())) {
+        if (!budget.getUser().getId().equals(userId)) {
             throw new RuntimeException("You don't have permission to delete this budget.");
         }
 
         budgetRepository.delete(budget);
+        deletedRecordRepository.save(DeletedRecord.of(userId, DeletedRecord.BUDGETS, budget.getId()));
     }
 
     private BudgetResponse mapToResponse(Budget budget) {
@@ -0,0 +1,370 @@
+package com.budgetwise.service;
+
+import com.budgetwise.dto.CategoryResponse;
+import com.budgetwise.model.Category;
+import com.budgetwise.repository.BudgetRepository;
+import com.budgetwise.repository.CategoryRepository;
+import com.budgetwise.repository.GoalRepository;
+import com.budgetwise.repository.TransactionRepository;
+import com.budgetwise.repository.UserRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+
+/**
+ * A user's categories, cached per user after the first read. Every write in here drops
+ * the user's entry, so the list served and the name checks ({@link #hasCategory}) never
+ * need a query while the entry is fresh. Entries also expire, and the least recently
+ * used users are dropped first.
+ *
+ * <p>The entry doubles as the user's id/name dictionary. Transactions, budgets and
+ * goals store a {@code category_id} next to the name; writers resolve it with
+ * {@link #categoryId} or {@link #categoryIds}, and analytics group by id and look the
+ * names up once. Writes never create categories: a name that is not one of the user's
+ * categories is stored with a null id, like rows whose category was deleted, and is
+ * linked if the user adds a category of that name later.
+ */
+@Service
+@Slf4j
+public class CategoryService {
+
+    // Default categories to initialize for new users
+    public static final List<String> DEFAULT_CATEGORIES = Arrays.asList(
+        "Salary",
+        "Housing",
+        "Food",
+        "Transport",
+        "Shopping",
+        "Entertainment",
+        "Healthcare",
+        "Education",
+        "Other"
+    );
+
+    // All defaults in one statement; a row the user already has is left alone
+    private static final String INSERT_DEFAULTS_SQL =
+            "INSERT INTO categories (user_id, name, is_default, created_at) VALUES " +
+            String.join(", ", Collections.nCopies(DEFAULT_CATEGORIES.size(), "(?, ?, TRUE, ?)")) +
+            " ON CONFLICT DO NOTHING";
+
+    // Rows without an id (unknown name, or their category was deleted) pick up a category of the same name
+    private static final List<String> LINK_SQL = List.of(
+            "UPDATE transactions t SET category_id = c.id FROM categories c " +
+            "WHERE t.user_id = ? AND t.category_id IS NULL AND c.user_id = t.user_id AND lower(c.name) = lower(trim(t.category))",
+            "UPDATE budgets b SET category_id = c.id FROM categories c " +
+            "WHERE b.user_id = ? AND b.category_id IS NULL AND c.user_id = b.user_id AND lower(c.name) = lower(trim(b.category))",
+            "UPDATE goals g SET category_id = c.id FROM categories c " +
+            "WHERE g.user_id = ? AND g.category_id IS NULL AND c.user_id = g.user_id AND lower(c.name) = lower(trim(g.category))");
+
+    private static final String USAGE_SQL =
+            "SELECT (SELECT count(*) FROM transactions WHERE user_id = ? AND category_id = ?) AS transactions, " +
+            "(SELECT count(*) FROM budgets WHERE user_id = ? AND category_id = ?) AS budgets, " +
+            "(SELECT count(*) FROM goals WHERE user_id = ? AND category_id = ?) AS goals";
+
+    private record Entry(List<CategoryResponse> categories, Set<String> names,
+                         Map<String, Long> idsByKey, Map<Long, String> namesById, long expiresAt) {}
+
+    private final CategoryRepository categoryRepository;
+    private final UserRepository userRepository;
+    private final TransactionRepository transactionRepository;
+    private final BudgetRepository budgetRepository;
+    private final GoalRepository goalRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final SuggestionIndex suggestionIndex;
+    private final long ttlMillis;
+    private final Map<Long, Entry> entries;
+
+    // Bumped on every invalidation so a load that raced with a write does not cache stale data
+    private final AtomicLong generation = new AtomicLong();
+
+    public CategoryService(CategoryRepository categoryRepository, UserRepository userRepository,
+                           TransactionRepository transactionRepository, BudgetRepository budgetRepository,
+                           GoalRepository goalRepository, JdbcTemplate jdbcTemplate, SuggestionIndex suggestionIndex,
+                           @Value("${categories.cache.ttl-seconds:600}") long ttlSeconds,
+                           @Value("${categories.cache.max-users:10000}") int maxUsers) {
+        this.categoryRepository = categoryRepository;
+        this.userRepository = userRepository;
+        this.transactionRepository = transactionRepository;
+        this.budgetRepository = budgetRepository;
+        this.goalRepository = goalRepository;
+        this.jdbcTemplate = jdbcTemplate;
+        this.suggestionIndex = suggestionIndex;
+        this.ttlMillis = Duration.ofSeconds(ttlSeconds).toMillis();
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Long, Entry> eldest) {
+                return size() > maxUsers;
+            }
+        };
+    }
+
+    /**
+     * The user's categories, oldest first. A user without any gets the defaults.
+     */
+    public List<CategoryResponse> getCategories(Long userId) {
+        return entryFor(userId).categories();
+    }
+
+    /**
+     * True if the user has a category with exactly this name; answered from the cache.
+     */
+    public boolean hasCategory(Long userId, String name) {
+        return name != null && entryFor(userId).names().contains(name);
+    }
+
+    /**
+     * Adds a custom category; empty if the user already has one with that name.
+     */
+    public Optional<CategoryResponse> addCategory(Long userId, String name) {
+        if (hasCategory(userId, name)) {
+            return Optional.empty();
+        }
+        Category category;
+        try {
+            category = categoryRepository.save(new Category(userRepository.getReferenceById(userId), name, false));
+        } catch (DataIntegrityViolationException e) {
+            // Added concurrently by another request
+            invalidate(userId);
+            return Optional.empty();
+        }
+        invalidate(userId);
+        LINK_SQL.forEach(sql -> jdbcTemplate.update(sql, userId));
+        return Optional.of(toResponse(category));
+    }
+
+    /**
+     * The id of the user's category with this name (ignoring case and surrounding
+     * spaces). Null for a blank name or one that is not a category of the user.
+     */
+    public Long categoryId(Long userId, String name) {
+        if (name == null || name.isBlank()) {
+            return null;
+        }
+        return categoryIds(userId, List.of(name)).get(name);
+    }
+
+    /**
+     * Ids for many names at once, keyed by the names as given; names that are not
+     * categories of the user map to null. Answered from the cached dictionary, so an
+     * import chunk costs no round trip however many rows it has.
+     */
+    public Map<String, Long> categoryIds(Long userId, Collection<String> names) {
+        Entry entry = entryFor(userId);
+        Map<String, Long> ids = new HashMap<>();
+        for (String name : names) {
+            if (name != null && !name.isBlank()) {
+                ids.put(name, entry.idsByKey().get(key(name)));
+            }
+        }
+        return ids;
+    }
+
+    /**
+     * The user's dictionary from category id to name, for labelling id-keyed groupings.
+     */
+    public Map<Long, String> categoryNames(Long userId) {
+        return entryFor(userId).namesById();
+    }
+
+    public static String key(String name) {
+        return name.trim().toLowerCase(Locale.ROOT);
+    }
+
+    public Optional<Category> findById(Long id) {
+        return categoryRepository.findById(id);
+    }
+
+    /**
+     * How many transactions, budgets and goals of the user are linked to the category.
+     */
+    public Map<String, Integer> usage(Long userId, Long categoryId) {
+        return jdbcTemplate.queryForObject(USAGE_SQL, (rs, rowNum) -> {
+            Map<String, Integer> usage = new LinkedHashMap<>();
+            usage.put("transactions", rs.getInt("transactions"));
+            usage.put("budgets", rs.getInt("budgets"));
+            usage.put("goals", rs.getInt("goals"));
+            return usage;
+        }, userId, categoryId, userId, categoryId, userId, categoryId);
+    }
+
+    /**
+     * Deletes the category. Rows filed under it keep their category name but lose the
+     * link; callers check {@link #usage} first.
+     */
+    public void deleteCategory(Long userId, Category category) {
+        categoryRepository.delete(category);
+        invalidate(userId);
+    }
+
+    /**
+     * Renames the category and, in the same transaction, every transaction, budget and
+     * goal of the user that uses the old name. Each table is one set-based UPDATE, so
+     * the cost does not grow in round trips with the number of rows.
+     *
+     * @return the renamed category and the number of rows moved per table
+     */
+    @Transactional
+    public Map<String, Object> renameCategory(Long userId, Category category, String newName) {
+        String oldName = category.getName();
+        category.setName(newName);
+        categoryRepository.saveAndFlush(category);
+        Map<String, Object> result = moveRows(userId, List.of(category.getId()), List.of(oldName), category);
+        log.info("Renamed category {} for user {}, rows moved: {}", category.getId(), userId, result);
+        result.put("category", toResponse(category));
+        invalidate(userId);
+        return result;
+    }
+
+    /**
+     * Moves everything filed under the source categories to the target, then deletes
+     * the sources; one transaction, one UPDATE per table.
+     *
+     * @return the target category and the number of rows moved per table
+     */
+    @Transactional
+    public Map<String, Object> mergeCategories(Long userId, List<Category> sources, Category target) {
+        List<String> names = sources.stream().map(Category::getName).collect(Collectors.toList());
+        List<Long> ids = sources.stream().map(Category::getId).collect(Collectors.toList());
+        Map<String, Object> result = moveRows(userId, ids, names, target);
+        log.info("Merged categories {} into {} for user {}, rows moved: {}", names, target.getId(), userId, result);
+        categoryRepository.deleteAll(sources);
+        result.put("category", toResponse(target));
+        result.put("merged", names);
+        invalidate(userId);
+        return result;
+    }
+
+    // Matches on id, and on the stored name for rows not linked to a category
+    private Map<String, Object> moveRows(Long userId, List<Long> fromIds, List<String> fromNames, Category to) {
+        LocalDateTime now = LocalDateTime.now();
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("transactions", transactionRepository.renameCategory(userId, fromIds, fromNames, to.getId(), to.getName(), now));
+        result.put("budgets", budgetRepository.renameCategory(userId, fromIds, fromNames, to.getId(), to.getName(), now));
+        result.put("goals", goalRepository.renameCategory(userId, fromIds, fromNames, to.getId(), to.getName(), now));
+        return result;
+    }
+
+    /**
+     * Replaces all of the user's categories with the defaults. Rows filed under a
+     * default name are linked to the new default; the others keep only their name.
+     */
+    public List<CategoryResponse> resetCategories(Long userId) {
+        categoryRepository.deleteAll(categoryRepository.findByUserIdOrderByCreatedAtAscIdAsc(userId));
+        initializeDefaultCategories(userId);
+        LINK_SQL.forEach(sql -> jdbcTemplate.update(sql, userId));
+        return getCategories(userId);
+    }
+
+    /**
+     * Inserts the default categories with a single statement. Called on registration;
+     * safe to call again, existing names are skipped.
+     */
+    public void initializeDefaultCategories(Long userId) {
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        List<Object> params = new ArrayList<>(DEFAULT_CATEGORIES.size() * 3);
+        for (String name : DEFAULT_CATEGORIES) {
+            params.add(userId);
+            params.add(name);
+            params.add(now);
+        }
+        int inserted = jdbcTemplate.update(INSERT_DEFAULTS_SQL, params.toArray());
+        invalidate(userId);
+        log.info("Initialized {} default categories for user: {}", inserted, userId);
+    }
+
+    /**
+     * Drops the cached categories of the user. Call after any write to their categories;
+     * inside a transaction the entry is dropped again when it ends, so neither a read
+     * that ran in between nor ids of rolled back inserts stay behind.
+     */
+    public void invalidate(Long userId) {
+        evict(userId);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    evict(userId);
+                }
+            });
+        }
+    }
+
+    private void evict(Long userId) {
+        synchronized (entries) {
+            generation.incrementAndGet();
+            entries.remove(userId);
+        }
+        suggestionIndex.invalidate(userId);
+    }
+
+    private Entry entryFor(Long userId) {
+        long now = System.currentTimeMillis();
+        synchronized (entries) {
+            Entry entry = entries.get(userId);
+            if (entry != null && entry.expiresAt() > now) {
+                return entry;
+            }
+        }
+
+        long generationBefore = generation.get();
+        List<Category> categories = categoryRepository.findByUserIdOrderByCreatedAtAscIdAsc(userId);
+        if (categories.isEmpty()) {
+            initializeDefaultCategories(userId);
+            generationBefore = generation.get();
+            categories = categoryRepository.findByUserIdOrderByCreatedAtAscIdAsc(userId);
+        }
+
+        List<CategoryResponse> responses = categories.stream()
+                .map(CategoryService::toResponse)
+                .collect(Collectors.toUnmodifiableList());
+        Set<String> names = new HashSet<>();
+        Map<String, Long> idsByKey = new HashMap<>();
+        Map<Long, String> namesById = new HashMap<>();
+        for (CategoryResponse category : responses) {
+            names.add(category.getName());
+            // Oldest first, so of names differing only in case the oldest wins
+            idsByKey.putIfAbsent(key(category.getName()), category.getId());
+            namesById.put(category.getId(), category.getName());
+        }
+        Entry entry = new Entry(responses, Collections.unmodifiableSet(names), Collections.unmodifiableMap(idsByKey),
+                Collections.unmodifiableMap(namesById), now + ttlMillis);
+        synchronized (entries) {
+            if (generation.get() == generationBefore) {
+                entries.put(userId, entry);
+            }
+        }
+        return entry;
+    }
+
+    private static CategoryResponse toResponse(Category category) {
+        return new CategoryResponse(
+            category.getId(),
+            category.getName(),
+            category.isDefault(),
+            category.getCreatedAt()
+        );
+    }
+}
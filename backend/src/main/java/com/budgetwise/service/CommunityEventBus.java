@@ -0,0 +1,242 @@
+package com.budgetwise.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter.DataWithMediaType;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * In-process fan-out of community changes to server-sent event streams.
+ *
+ * <p>Idle subscribers cost no thread: an {@link SseEmitter} is just a parked async
+ * response. Each event is serialized and framed once, then appended to every
+ * subscriber's own bounded buffer; publishing never writes to a socket. A subscriber
+ * with pending events gets one drain task on the dispatch pool, so a client that stops
+ * reading only holds up itself. Once its buffer is full it is disconnected, and its
+ * EventSource reconnects when it can keep up again.
+ *
+ * <p>Like counts change far more often than anything else, so they are coalesced and
+ * sent at most once a second per post with the latest count.
+ *
+ * <p>Streams are closed when their user logs out, so a revoked token does not keep
+ * receiving events until the stream times out.
+ */
+@Component
+@Slf4j
+public class CommunityEventBus {
+
+    public static final String POST_CREATED = "post-created";
+    public static final String POST_UPDATED = "post-updated";
+    public static final String POST_DELETED = "post-deleted";
+    public static final String COMMENT_ADDED = "comment-added";
+    public static final String COMMENT_DELETED = "comment-deleted";
+    public static final String LIKES = "likes";
+
+    // Clients reconnect on their own (EventSource does) once a stream times out
+    private static final long STREAM_TIMEOUT_MS = Duration.ofMinutes(30).toMillis();
+
+    private final ObjectMapper objectMapper;
+    private final ThreadPoolTaskExecutor dispatchExecutor;
+    private final int bufferSize;
+    private final Set<Subscriber> subscribers = ConcurrentHashMap.newKeySet();
+    private final Map<Long, Integer> pendingLikes = new ConcurrentHashMap<>();
+    private final AtomicLong eventIds = new AtomicLong();
+    private final AtomicLong slowSubscribersDropped = new AtomicLong();
+
+    public CommunityEventBus(ObjectMapper objectMapper,
+                             @Qualifier("communityStreamExecutor") ThreadPoolTaskExecutor dispatchExecutor,
+                             @Value("${community.stream.buffer-size:100}") int bufferSize) {
+        this.objectMapper = objectMapper;
+        this.dispatchExecutor = dispatchExecutor;
+        this.bufferSize = Math.max(1, bufferSize);
+    }
+
+    public SseEmitter subscribe(Long userId) {
+        Subscriber subscriber = new Subscriber(userId, new SseEmitter(STREAM_TIMEOUT_MS));
+        subscriber.emitter.onCompletion(subscriber::close);
+        subscriber.emitter.onTimeout(subscriber::close);
+        subscriber.emitter.onError(e -> subscriber.close());
+        subscribers.add(subscriber);
+        // Flushes the response headers so the client sees the stream open right away
+        subscriber.offer(SseEmitter.event().comment("connected").build());
+        return subscriber.emitter;
+    }
+
+    public void publish(String type, Object payload) {
+        if (subscribers.isEmpty()) {
+            return;
+        }
+        String json;
+        try {
+            json = objectMapper.writeValueAsString(payload);
+        } catch (JsonProcessingException e) {
+            log.warn("Could not serialize {} event: {}", type, e.getMessage());
+            return;
+        }
+        long id = eventIds.incrementAndGet();
+        broadcast(SseEmitter.event().id(String.valueOf(id)).name(type)
+                .data(json, MediaType.APPLICATION_JSON).build());
+    }
+
+    /**
+     * Records the latest like count of a post; sent with the next coalesced batch.
+     */
+    public void likesChanged(Long postId, int likes) {
+        if (!subscribers.isEmpty()) {
+            pendingLikes.put(postId, likes);
+        }
+    }
+
+    @Scheduled(fixedDelay = 1000)
+    public void publishLikes() {
+        for (Long postId : pendingLikes.keySet()) {
+            Integer likes = pendingLikes.remove(postId);
+            if (likes != null) {
+                Map<String, Object> payload = new LinkedHashMap<>();
+                payload.put("postId", postId);
+                payload.put("likes", likes);
+                publish(LIKES, payload);
+            }
+        }
+    }
+
+    /**
+     * Keeps idle connections open through proxies and finds streams whose client left.
+     */
+    @Scheduled(fixedDelay = 25000)
+    public void heartbeat() {
+        if (!subscribers.isEmpty()) {
+            broadcast(SseEmitter.event().comment("keepalive").build());
+        }
+    }
+
+    /**
+     * Ends every stream opened by the user (logout). Clients that reconnect need a
+     * token that is still valid.
+     */
+    public void disconnect(Long userId) {
+        if (userId == null) {
+            return;
+        }
+        for (Subscriber subscriber : subscribers) {
+            if (userId.equals(subscriber.userId)) {
+                subscriber.close();
+                subscriber.scheduleDrain();
+            }
+        }
+    }
+
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("subscribers", subscribers.size());
+        stats.put("events", eventIds.get());
+        stats.put("slowSubscribersDropped", slowSubscribersDropped.get());
+        stats.put("dispatchThreadsBusy", dispatchExecutor.getActiveCount());
+        return stats;
+    }
+
+    // The framed event is immutable, so every subscriber shares the same instance
+    private void broadcast(Set<DataWithMediaType> event) {
+        for (Subscriber subscriber : subscribers) {
+            subscriber.offer(event);
+        }
+    }
+
+    /**
+     * One stream with its pending events. At most one drain task per subscriber is
+     * queued or running, which keeps its events in order.
+     */
+    private final class Subscriber {
+
+        final Long userId;
+        final SseEmitter emitter;
+        final Queue<Set<DataWithMediaType>> buffer = new ConcurrentLinkedQueue<>();
+        final AtomicInteger buffered = new AtomicInteger();
+        final AtomicBoolean draining = new AtomicBoolean();
+        volatile boolean closed;
+        // Written only by the drain task
+        volatile boolean completed;
+
+        Subscriber(Long userId, SseEmitter emitter) {
+            this.userId = userId;
+            this.emitter = emitter;
+        }
+
+        void offer(Set<DataWithMediaType> event) {
+            if (closed) {
+                return;
+            }
+            if (buffered.incrementAndGet() > bufferSize) {
+                // Too slow to keep up; the drain task completes the stream
+                slowSubscribersDropped.incrementAndGet();
+                close();
+            } else {
+                buffer.add(event);
+            }
+            scheduleDrain();
+        }
+
+        void scheduleDrain() {
+            if (!draining.compareAndSet(false, true)) {
+                return;
+            }
+            try {
+                dispatchExecutor.execute(this::drain);
+            } catch (TaskRejectedException e) {
+                // Only during shutdown: the pool queue holds at most one task per subscriber
+                draining.set(false);
+                close();
+            }
+        }
+
+        // Only ever runs on one thread at a time, so emitter calls never wait on each other
+        void drain() {
+            try {
+                Set<DataWithMediaType> event;
+                while (!closed && (event = buffer.poll()) != null) {
+                    buffered.decrementAndGet();
+                    emitter.send(event);
+                }
+            } catch (IOException | IllegalStateException e) {
+                // Client went away
+                close();
+            } finally {
+                if (closed && !completed) {
+                    completed = true;
+                    buffer.clear();
+                    emitter.complete();
+                }
+                draining.set(false);
+            }
+            // Events added after the last poll, or a close that raced with it
+            if ((!closed && !buffer.isEmpty()) || (closed && !completed)) {
+                scheduleDrain();
+            }
+        }
+
+        void close() {
+            closed = true;
+            subscribers.remove(this);
+        }
+    }
+}
@@ -0,0 +1,376 @@
+package com.budgetwise.service;
+
+import com.budgetwise.model.Budget;
+import com.budgetwise.model.Goal;
+import com.budgetwise.model.Transaction;
+import com.budgetwise.model.User;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Component;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Pipelined CSV import: a reader thread splits the file into sections and lines,
+ * parser workers turn lines into entities, and the calling thread is the single
+ * writer that feeds them into the {@link ImportBatch}. Queues are bounded, so a
+ * slow database applies back-pressure all the way to the reader.
+ *
+ * <p>Reader and workers never block indefinitely: queue operations wait in short
+ * slices and give up once the run is aborted, and the writer does not return until
+ * every task it started has ended, so a failed import always hands its pool threads
+ * back before the next one can take its slot.
+ */
+@Component
+@Slf4j
+public class CsvImportPipeline {
+
+    private static final int QUEUE_CAPACITY = 1024;
+    private static final long QUEUE_WAIT_MS = 100;
+    private static final long DRAIN_TIMEOUT_SECONDS = 30;
+    private static final CsvLine END_OF_INPUT = new CsvLine(null, null, null, 0);
+    private static final ParsedRow WORKER_DONE = new ParsedRow(null, null, null);
+
+    private record CsvLine(String section, String[] headers, String text, int lineNumber) {}
+
+    private record ParsedRow(Object entity, String label, String error) {}
+
+    private final ThreadPoolTaskExecutor executor;
+    private final int parserThreads;
+    private final Semaphore pipelineSlots;
+
+    public CsvImportPipeline(@Qualifier("csvImportExecutor") ThreadPoolTaskExecutor executor,
+                             @Value("${import.parser-threads:4}") int parserThreads,
+                             @Value("${import.max-concurrent-pipelines:2}") int maxPipelines) {
+        this.executor = executor;
+        this.parserThreads = Math.max(1, parserThreads);
+        this.pipelineSlots = new Semaphore(Math.max(1, maxPipelines));
+    }
+
+    /**
+     * Runs the pipeline to completion on the calling thread and returns the parse errors.
+     * Write failures are collected by the batch itself.
+     */
+    public List<String> run(ImportBatch batch, User user, InputStream inputStream, Map<String, Boolean> options)
+            throws IOException, InterruptedException {
+        if (!pipelineSlots.tryAcquire(30, TimeUnit.SECONDS)) {
+            throw new IllegalStateException("Too many imports are running right now. Please try again in a moment.");
+        }
+        try {
+            return runPipeline(batch, user, inputStream, options);
+        } finally {
+            pipelineSlots.release();
+        }
+    }
+
+    private List<String> runPipeline(ImportBatch batch, User user, InputStream inputStream, Map<String, Boolean> options)
+            throws IOException, InterruptedException {
+        BlockingQueue<CsvLine> lines = new ArrayBlockingQueue<>(QUEUE_CAPACITY);
+        BlockingQueue<ParsedRow> parsed = new ArrayBlockingQueue<>(QUEUE_CAPACITY);
+        ImportProgress progress = batch.getProgress();
+        List<String> errors = new ArrayList<>();
+        AtomicBoolean aborted = new AtomicBoolean();
+        Semaphore finished = new Semaphore(0);
+        int started = 0;
+
+        try {
+            Future<?> reader = executor.submit(task(finished, () -> readLines(inputStream, options, lines, aborted)));
+            started++;
+            for (int i = 0; i < parserThreads; i++) {
+                executor.submit(task(finished, () -> parseLines(user, lines, parsed, progress, aborted)));
+                started++;
+            }
+
+            int finishedWorkers = 0;
+            while (finishedWorkers < parserThreads) {
+                ParsedRow row = parsed.take();
+                if (row == WORKER_DONE) {
+                    finishedWorkers++;
+                } else if (row.error() != null) {
+                    errors.add(row.error());
+                    progress.rowFailed();
+                } else if (row.entity() instanceof Transaction transaction) {
+                    batch.addTransaction(transaction, row.label());
+                } else if (row.entity() instanceof Budget budget) {
+                    batch.addBudget(budget, row.label());
+                } else if (row.entity() instanceof Goal goal) {
+                    batch.addGoal(goal, row.label());
+                }
+            }
+            batch.flush();
+
+            try {
+                reader.get();
+            } catch (ExecutionException e) {
+                if (e.getCause() instanceof IOException io) {
+                    throw io;
+                }
+                throw new IOException(e.getCause().getMessage(), e.getCause());
+            }
+            return errors;
+        } finally {
+            // No-op on success; on failure the reader and workers see it within one queue wait
+            aborted.set(true);
+            drain(finished, started);
+        }
+    }
+
+    // Releases one permit when the task ends, whether it completed, failed or was aborted
+    private static Callable<Void> task(Semaphore finished, Callable<Void> body) {
+        return () -> {
+            try {
+                return body.call();
+            } finally {
+                finished.release();
+            }
+        };
+    }
+
+    private void drain(Semaphore finished, int started) {
+        boolean interrupted = false;
+        try {
+            while (true) {
+                try {
+                    if (!finished.tryAcquire(started, DRAIN_TIMEOUT_SECONDS, TimeUnit.SECONDS)) {
+                        log.warn("CSV import tasks still running {}s after the import ended", DRAIN_TIMEOUT_SECONDS);
+                    }
+                    return;
+                } catch (InterruptedException e) {
+                    interrupted = true;
+                }
+            }
+        } finally {
+            if (interrupted) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    // Waits for room in slices; false if the run was aborted first
+    private static <T> boolean put(BlockingQueue<T> queue, T item, AtomicBoolean aborted) throws InterruptedException {
+        while (!aborted.get()) {
+            if (queue.offer(item, QUEUE_WAIT_MS, TimeUnit.MILLISECONDS)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    // Null if the run was aborted before an item arrived
+    private static <T> T take(BlockingQueue<T> queue, AtomicBoolean aborted) throws InterruptedException {
+        while (!aborted.get()) {
+            T item = queue.poll(QUEUE_WAIT_MS, TimeUnit.MILLISECONDS);
+            if (item != null) {
+                return item;
+            }
+        }
+        return null;
+    }
+
+    // ---------- Reader ----------
+
+    private Void readLines(InputStream inputStream, Map<String, Boolean> options, BlockingQueue<CsvLine> lines,
+                           AtomicBoolean aborted) throws IOException, InterruptedException {
+        try {
+            BufferedReader reader = new BufferedReader(new InputStreamReader(inputStream, StandardCharsets.UTF_8));
+            String line;
+            String currentSection = null;
+            String[] headers = null;
+            int lineNumber = 0;
+
+            while (!aborted.get() && (line = reader.readLine()) != null) {
+                lineNumber++;
+                line = line.trim();
+
+                if (line.isEmpty()) {
+                    continue;
+                }
+
+                // Detect section
+                if (line.startsWith("# TRANSACTIONS")) {
+                    currentSection = "transactions";
+                    headers = null;
+                    continue;
+                } else if (line.startsWith("# BUDGETS")) {
+                    currentSection = "budgets";
+                    headers = null;
+                    continue;
+                } else if (line.startsWith("# GOALS")) {
+                    currentSection = "goals";
+                    headers = null;
+                    continue;
+                }
+
+                // Skip comment lines
+                if (line.startsWith("#")) {
+                    continue;
+                }
+
+                // Parse header line, auto-detecting the section for files without markers
+                if (headers == null) {
+                    headers = parseCsvLine(line);
+                    if (currentSection == null) {
+                        currentSection = detectSection(headers);
+                    }
+                    continue;
+                }
+
+                if (currentSection != null && options.getOrDefault(currentSection, false)) {
+                    if (!put(lines, new CsvLine(currentSection, headers, line, lineNumber), aborted)) {
+                        return null;
+                    }
+                }
+            }
+        } finally {
+            for (int i = 0; i < parserThreads; i++) {
+                if (!put(lines, END_OF_INPUT, aborted)) {
+                    break;
+                }
+            }
+        }
+        return null;
+    }
+
+    private String detectSection(String[] headers) {
+        if (containsHeader(headers, "description") && containsHeader(headers, "type")) {
+            return "transactions";
+        } else if (containsHeader(headers, "startDate") && containsHeader(headers, "endDate")) {
+            return "budgets";
+        } else if (containsHeader(headers, "goalName") || containsHeader(headers, "targetAmount")) {
+            return "goals";
+        }
+        return null;
+    }
+
+    // ---------- Parser workers ----------
+
+    private Void parseLines(User user, BlockingQueue<CsvLine> lines, BlockingQueue<ParsedRow> parsed,
+                            ImportProgress progress, AtomicBoolean aborted) throws InterruptedException {
+        try {
+            while (true) {
+                CsvLine line = take(lines, aborted);
+                if (line == null || line == END_OF_INPUT
+                        || !put(parsed, parseLine(line, user, progress), aborted)) {
+                    return null;
+                }
+            }
+        } finally {
+            put(parsed, WORKER_DONE, aborted);
+        }
+    }
+
+    private ParsedRow parseLine(CsvLine line, User user, ImportProgress progress) {
+        String label = "CSV line " + line.lineNumber();
+        try {
+            Map<String, String> row = toRow(line.headers(), parseCsvLine(line.text()));
+            Object entity;
+            if ("transactions".equals(line.section())) {
+                entity = parseTransaction(row, user);
+            } else if ("budgets".equals(line.section())) {
+                entity = parseBudget(row, user);
+            } else {
+                entity = parseGoal(row, user);
+            }
+            progress.rowParsed();
+            return new ParsedRow(entity, label, null);
+        } catch (Exception e) {
+            return new ParsedRow(null, label, label + " parse error: " + e.getMessage());
+        }
+    }
+
+    private Map<String, String> toRow(String[] headers, String[] values) {
+        Map<String, String> row = new HashMap<>();
+        for (int i = 0; i < headers.length && i < values.length; i++) {
+            row.put(headers[i].toLowerCase().trim(), values[i]);
+        }
+        return row;
+    }
+
+    private Transaction parseTransaction(Map<String, String> row, User user) {
+        LocalDateTime date = ImportDateParser.parseDateTime(row.get("date"));
+        return Transaction.builder()
+                .description(row.getOrDefault("description", "Imported"))
+                .amount(new BigDecimal(row.getOrDefault("amount", "0")))
+                .category(row.getOrDefault("category", "Other"))
+                .date(date != null ? date : LocalDateTime.now())
+                .type(row.getOrDefault("type", "EXPENSE").toUpperCase())
+                .paymentMethod(row.get("paymentmethod"))
+                .currency(row.getOrDefault("currency", "USD"))
+                .user(user)
+                .build();
+    }
+
+    private Budget parseBudget(Map<String, String> row, User user) {
+        return Budget.builder()
+                .category(row.getOrDefault("category", "Other"))
+                .amount(new BigDecimal(row.getOrDefault("amount", "0")))
+                .startDate(ImportDateParser.parseDate(row.get("startdate")))
+                .endDate(ImportDateParser.parseDate(row.get("enddate")))
+                .user(user)
+                .build();
+    }
+
+    private Goal parseGoal(Map<String, String> row, User user) {
+        LocalDate createdAt = ImportDateParser.parseDate(row.get("createdat"));
+        return Goal.builder()
+                .goalName(row.getOrDefault("goalname", "Imported Goal"))
+                .category(row.getOrDefault("category", "Other"))
+                .targetAmount(Double.parseDouble(row.getOrDefault("targetamount", "0")))
+                .currentAmount(Double.parseDouble(row.getOrDefault("currentamount", "0")))
+                .deadline(ImportDateParser.parseDate(row.get("deadline")))
+                .priority(row.getOrDefault("priority", "Medium"))
+                .createdAt(createdAt != null ? createdAt : LocalDate.now())
+                .user(user)
+                .build();
+    }
+
+    // ---------- CSV helpers ----------
+
+    private boolean containsHeader(String[] headers, String headerName) {
+        for (String h : headers) {
+            if (h.equalsIgnoreCase(headerName)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private String[] parseCsvLine(String line) {
+        List<String> result = new ArrayList<>();
+        StringBuilder current = new StringBuilder();
+        boolean inQuotes = false;
+
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+
+            if (c == '"') {
+                if (inQuotes && i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                    current.append('"');
+                    i++;
+                } else {
+                    inQuotes = !inQuotes;
+                }
+            } else if (c == ',' && !inQuotes) {
+                result.add(current.toString().trim());
+                current.setLength(0);
+            } else {
+                current.append(c);
+            }
+        }
+        result.add(current.toString().trim());
+
+        return result.toArray(new String[0]);
+    }
+}
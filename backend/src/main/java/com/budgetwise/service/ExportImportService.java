@@ -1,13 +1,17 @@
 package com.budgetwise.service;
 
 import com.budgetwise.model.Budget;
+import com.budgetwise.model.DeletedRecord;
 import com.budgetwise.model.Goal;
 import com.budgetwise.model.Transaction;
 import com.budgetwise.model.User;
 import com.budgetwise.repository.BudgetRepository;
+import com.budgetwise.repository.DeletedRecordRepository;
 import com.budgetwise.repository.GoalRepository;
 import com.budgetwise.repository.TransactionRepository;
-import com.budgetwise.repository.UserRepository;
+import com.budgetwise.security.CurrentUser;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.SerializationFeature;
@@ -15,42 +19,69 @@ import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
 import com.itextpdf.text.*;
 import com.itextpdf.text.pdf.*;
 import lombok.RequiredArgsConstructor;
-import org.springframework.security.core.context.SecurityContextHolder;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
-import java.io.BufferedReader;
 import java.io.ByteArrayOutputStream;
 import java.io.InputStream;
-import java.io.InputStreamReader;
 import java.math.BigDecimal;
 import java.math.RoundingMode;
 import java.nio.charset.StandardCharsets;
+import java.sql.Timestamp;
+import java.time.Duration;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
 import java.time.format.DateTimeParseException;
 import java.util.*;
 import java.util.List;
-import java.util.regex.Pattern;
-import java.util.regex.Matcher;
-import com.itextpdf.text.pdf.parser.PdfTextExtractor;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
+@Slf4j
 public class ExportImportService {
 
     private final TransactionRepository transactionRepository;
     private final BudgetRepository budgetRepository;
     private final GoalRepository goalRepository;
-    private final UserRepository userRepository;
+    private final DeletedRecordRepository deletedRecordRepository;
+    private final ImportBatchWriter importBatchWriter;
+    private final CsvImportPipeline csvImportPipeline;
+    private final PdfImportPipeline pdfImportPipeline;
+    private final CurrentUser currentUser;
+    private final SuggestionIndex suggestionIndex;
+    private final CategoryService categoryService;
+    private final JdbcTemplate jdbcTemplate;
+
+    // Deletions older than this are forgotten; older sync cursors need a full export
+    @Value("${export.tombstone-retention-days:90}")
+    private long tombstoneRetentionDays;
+
+    // Most recent import per user id, kept so the client can poll progress
+    private final Map<Long, ImportProgress> latestImports = new ConcurrentHashMap<>();
 
     private final ObjectMapper objectMapper = new ObjectMapper()
             .registerModule(new JavaTimeModule())
             .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
 
+    // Covers rows stamped just before their transaction's first statement, and clock skew
+    // between the application and the database
+    private static final Duration SYNC_CURSOR_OVERLAP = Duration.ofSeconds(5);
+
+    // Start of the oldest transaction still open in this database (or now), read before
+    // any data: rows it writes are not visible yet and may be stamped with any time after it
+    private static final String SYNC_HORIZON_SQL =
+            "SELECT LEAST(clock_timestamp(), COALESCE(min(xact_start), clock_timestamp())) " +
+            "FROM pg_stat_activity " +
+            "WHERE datname = current_database() AND backend_type = 'client backend' " +
+            "AND pid <> pg_backend_pid() AND xact_start IS NOT NULL";
+
     // Color palette for pie charts and styling
     private static final BaseColor PRIMARY_COLOR = new BaseColor(79, 70, 229); // Indigo
     private static final BaseColor SECONDARY_COLOR = new BaseColor(16, 185, 129); // Green
@@ -72,17 +103,10 @@ public class ExportImportService {
         new BaseColor(132, 204, 22),  // Lime
     };
 
-    private User getCurrentUser() {
-        String identifier = SecurityContextHolder.getContext().getAuthentication().getName();
-        return userRepository.findByUsername(identifier)
-                .or(() -> userRepository.findByEmail(identifier))
-                .orElseThrow(() -> new RuntimeException("User not found"));
-    }
-
     // ==================== EXPORT METHODS ====================
 
     public byte[] exportData(String format, Map<String, Boolean> options) throws Exception {
-        User user = getCurrentUser();
+        User user = currentUser.get();
         
         switch (format.toLowerCase()) {
             case "pdf":
@@ -119,12 +143,16 @@ public class ExportImportService {
         List<Budget> budgets = budgetRepository.findByUser(user);
         List<Goal> goals = goalRepository.findByUser(user);
         
+        // Expenses per category in one pass, shared by the pie chart and the budget table
+        ExpenseTotals expenses = ExpenseTotals.of(transactions);
+        
         // === FINANCIAL SUMMARY SECTION ===
         addFinancialSummary(document, transactions, sectionFont, normalFont, boldFont);
         
         // === EXPENSE PIE CHART ===
         if (options.getOrDefault("transactions", false) && !transactions.isEmpty()) {
-            addExpensePieChart(document, writer, transactions, sectionFont, normalFont, smallFont);
+            addExpensePieChart(document, writer, expenses, categoryService.categoryNames(user.getId()),
+                    sectionFont, normalFont, smallFont);
         }
         
         // === INCOME VS EXPENSE COMPARISON ===
@@ -139,7 +167,7 @@ public class ExportImportService {
         
         // === BUDGETS SECTION ===
         if (options.getOrDefault("budgets", false)) {
-            addBudgetsSection(document, budgets, transactions, sectionFont, headerFont, normalFont, boldFont);
+            addBudgetsSection(document, budgets, transactions, expenses, sectionFont, headerFont, normalFont, boldFont);
         }
         
         // === GOALS SECTION ===
@@ -268,20 +296,54 @@ public class ExportImportService {
         table.addCell(cell);
     }
     
-    private void addExpensePieChart(Document document, PdfWriter writer, List<Transaction> transactions,
-            Font sectionFont, Font normalFont, Font smallFont) throws DocumentException {
-        
-        // Calculate expenses by category
-        Map<String, BigDecimal> expensesByCategory = new LinkedHashMap<>();
-        BigDecimal totalExpenses = BigDecimal.ZERO;
-        
-        for (Transaction t : transactions) {
-            if ("EXPENSE".equalsIgnoreCase(t.getType())) {
-                String category = t.getCategory() != null ? t.getCategory() : "Other";
-                expensesByCategory.merge(category, t.getAmount(), BigDecimal::add);
-                totalExpenses = totalExpenses.add(t.getAmount());
+    /**
+     * Expense totals keyed by category id, so grouping hashes a Long instead of the name.
+     * Rows without an id (their category was deleted) are grouped by their stored name,
+     * ignoring case, under the first spelling seen.
+     */
+    private record ExpenseTotals(Map<Long, BigDecimal> byId, Map<String, BigDecimal> byName,
+                                 Map<String, String> labels, BigDecimal total) {
+
+        static ExpenseTotals of(List<Transaction> transactions) {
+            Map<Long, BigDecimal> byId = new HashMap<>();
+            Map<String, BigDecimal> byName = new HashMap<>();
+            Map<String, String> labels = new HashMap<>();
+            BigDecimal total = BigDecimal.ZERO;
+            for (Transaction t : transactions) {
+                if (!"EXPENSE".equalsIgnoreCase(t.getType())) {
+                    continue;
+                }
+                if (t.getCategoryId() != null) {
+                    byId.merge(t.getCategoryId(), t.getAmount(), BigDecimal::add);
+                } else {
+                    String name = t.getCategory() != null && !t.getCategory().isBlank() ? t.getCategory().trim() : "Other";
+                    String key = CategoryService.key(name);
+                    byName.merge(key, t.getAmount(), BigDecimal::add);
+                    labels.putIfAbsent(key, name);
+                }
+                total = total.add(t.getAmount());
             }
+            return new ExpenseTotals(byId, byName, labels, total);
         }
+
+        BigDecimal spent(Long categoryId, String category) {
+            if (categoryId != null) {
+                return byId.getOrDefault(categoryId, BigDecimal.ZERO);
+            }
+            return category != null ? byName.getOrDefault(CategoryService.key(category), BigDecimal.ZERO) : BigDecimal.ZERO;
+        }
+    }
+
+    private void addExpensePieChart(Document document, PdfWriter writer, ExpenseTotals expenses,
+            Map<Long, String> categoryNames, Font sectionFont, Font normalFont, Font smallFont) throws DocumentException {
+        
+        // Label the per-id totals with the user's category names
+        Map<String, BigDecimal> expensesByCategory = new LinkedHashMap<>();
+        BigDecimal totalExpenses = expenses.total();
+        expenses.byId().forEach((id, amount) ->
+                expensesByCategory.merge(categoryNames.getOrDefault(id, "Other"), amount, BigDecimal::add));
+        expenses.byName().forEach((key, amount) ->
+                expensesByCategory.merge(expenses.labels().get(key), amount, BigDecimal::add));
         
         if (expensesByCategory.isEmpty() || totalExpenses.compareTo(BigDecimal.ZERO) == 0) {
             return;
@@ -645,7 +707,7 @@ public class ExportImportService {
     }
     
     private void addBudgetsSection(Document document, List<Budget> budgets, List<Transaction> transactions,
-            Font sectionFont, Font headerFont, Font normalFont, Font boldFont) throws DocumentException {
+            ExpenseTotals expenses, Font sectionFont, Font headerFont, Font normalFont, Font boldFont) throws DocumentException {
         
         if (budgets.isEmpty()) {
             return;
@@ -681,12 +743,7 @@ public class ExportImportService {
         
         boolean alternate = false;
         for (Budget b : budgets) {
-            BigDecimal spent = transactions.stream()
-                .filter(t -> "EXPENSE".equalsIgnoreCase(t.getType()))
-                .filter(t -> t.getCategory() != null && b.getCategory() != null
-                    && t.getCategory().trim().equalsIgnoreCase(b.getCategory().trim()))
-                .map(Transaction::getAmount)
-                .reduce(BigDecimal.ZERO, BigDecimal::add);
+            BigDecimal spent = expenses.spent(b.getCategoryId(), b.getCategory());
             BigDecimal remaining = b.getAmount().subtract(spent);
             double percentUsed = b.getAmount().compareTo(BigDecimal.ZERO) > 0 
                 ? spent.multiply(BigDecimal.valueOf(100)).divide(b.getAmount(), 0, RoundingMode.HALF_UP).doubleValue()
@@ -984,221 +1041,229 @@ public class ExportImportService {
         
         if (options.getOrDefault("transactions", false)) {
             List<Transaction> transactions = transactionRepository.findByUser(user);
-            List<Map<String, Object>> transactionList = transactions.stream().map(t -> {
-                Map<String, Object> map = new LinkedHashMap<>();
-                map.put("id", t.getId());
-                map.put("description", t.getDescription());
-                map.put("amount", t.getAmount());
-                map.put("category", t.getCategory());
-                map.put("date", t.getDate() != null ? t.getDate().toString() : null);
-                map.put("type", t.getType());
-                map.put("paymentMethod", t.getPaymentMethod());
-                map.put("currency", t.getCurrency());
-                return map;
-            }).collect(Collectors.toList());
-            data.put("transactions", transactionList);
+            data.put("transactions", transactions.stream().map(this::toJsonMap).collect(Collectors.toList()));
         }
         
         if (options.getOrDefault("budgets", false)) {
             List<Budget> budgets = budgetRepository.findByUser(user);
-            List<Map<String, Object>> budgetList = budgets.stream().map(b -> {
-                Map<String, Object> map = new LinkedHashMap<>();
-                map.put("id", b.getId());
-                map.put("category", b.getCategory());
-                map.put("amount", b.getAmount());
-                map.put("startDate", b.getStartDate() != null ? b.getStartDate().toString() : null);
-                map.put("endDate", b.getEndDate() != null ? b.getEndDate().toString() : null);
-                return map;
-            }).collect(Collectors.toList());
-            data.put("budgets", budgetList);
+            data.put("budgets", budgets.stream().map(this::toJsonMap).collect(Collectors.toList()));
         }
         
         if (options.getOrDefault("goals", false)) {
             List<Goal> goals = goalRepository.findByUser(user);
-            List<Map<String, Object>> goalList = goals.stream().map(g -> {
-                Map<String, Object> map = new LinkedHashMap<>();
-                map.put("id", g.getId());
-                map.put("goalName", g.getGoalName());
-                map.put("category", g.getCategory());
-                map.put("targetAmount", g.getTargetAmount());
-                map.put("currentAmount", g.getCurrentAmount());
-                map.put("deadline", g.getDeadline() != null ? g.getDeadline().toString() : null);
-                map.put("priority", g.getPriority());
-                map.put("createdAt", g.getCreatedAt() != null ? g.getCreatedAt().toString() : null);
-                return map;
-            }).collect(Collectors.toList());
-            data.put("goals", goalList);
+            data.put("goals", goals.stream().map(this::toJsonMap).collect(Collectors.toList()));
         }
         
         return objectMapper.writerWithDefaultPrettyPrinter().writeValueAsBytes(data);
     }
 
+    private Map<String, Object> toJsonMap(Transaction t) {
+        Map<String, Object> map = new LinkedHashMap<>();
+        map.put("id", t.getId());
+        map.put("description", t.getDescription());
+        map.put("amount", t.getAmount());
+        map.put("category", t.getCategory());
+        map.put("date", t.getDate() != null ? t.getDate().toString() : null);
+        map.put("type", t.getType());
+        map.put("paymentMethod", t.getPaymentMethod());
+        map.put("currency", t.getCurrency());
+        return map;
+    }
+
+    private Map<String, Object> toJsonMap(Budget b) {
+        Map<String, Object> map = new LinkedHashMap<>();
+        map.put("id", b.getId());
+        map.put("category", b.getCategory());
+        map.put("amount", b.getAmount());
+        map.put("startDate", b.getStartDate() != null ? b.getStartDate().toString() : null);
+        map.put("endDate", b.getEndDate() != null ? b.getEndDate().toString() : null);
+        return map;
+    }
+
+    private Map<String, Object> toJsonMap(Goal g) {
+        Map<String, Object> map = new LinkedHashMap<>();
+        map.put("id", g.getId());
+        map.put("goalName", g.getGoalName());
+        map.put("category", g.getCategory());
+        map.put("targetAmount", g.getTargetAmount());
+        map.put("currentAmount", g.getCurrentAmount());
+        map.put("deadline", g.getDeadline() != null ? g.getDeadline().toString() : null);
+        map.put("priority", g.getPriority());
+        map.put("createdAt", g.getCreatedAt() != null ? g.getCreatedAt().toString() : null);
+        return map;
+    }
+
+    // ==================== INCREMENTAL EXPORT ====================
+
+    /**
+     * Returns only the rows created, updated or deleted after the given cursor,
+     * plus the cursor to send next time. A null or blank cursor means a full export.
+     * The returned cursor is the start of the oldest open database transaction minus
+     * {@link #SYNC_CURSOR_OVERLAP}, so a row committed after this export, however long
+     * its transaction ran, is picked up next time; clients upsert by id. Cursors older
+     * than the tombstone retention are rejected, since deletions before it are gone.
+     */
+    public Map<String, Object> exportChanges(String cursor, Map<String, Boolean> options) {
+        User user = currentUser.get();
+        LocalDateTime since = parseSyncCursor(cursor);
+        if (since != null && since.isBefore(LocalDateTime.now().minusDays(tombstoneRetentionDays))) {
+            throw new IllegalArgumentException("Sync cursor expired; start again with a full export");
+        }
+        LocalDateTime nextCursor = jdbcTemplate.queryForObject(SYNC_HORIZON_SQL, Timestamp.class)
+                .toLocalDateTime().minus(SYNC_CURSOR_OVERLAP);
+
+        Map<String, Object> data = new LinkedHashMap<>();
+        data.put("since", since != null ? since.toString() : null);
+        data.put("cursor", nextCursor.toString());
+
+        Map<String, List<Long>> deleted = new LinkedHashMap<>();
+        if (since != null) {
+            for (DeletedRecord record : deletedRecordRepository.findByUserIdAndDeletedAtAfter(user.getId(), since)) {
+                if (options.getOrDefault(record.getEntityType(), false)) {
+                    deleted.computeIfAbsent(record.getEntityType(), k -> new ArrayList<>()).add(record.getEntityId());
+                }
+            }
+        }
+
+        if (options.getOrDefault("transactions", false)) {
+            List<Transaction> transactions = since == null
+                    ? transactionRepository.findByUser(user)
+                    : transactionRepository.findByUserAndUpdatedAtAfter(user, since);
+            data.put("transactions", transactions.stream().map(this::toJsonMap).collect(Collectors.toList()));
+        }
+
+        if (options.getOrDefault("budgets", false)) {
+            List<Budget> budgets = since == null
+                    ? budgetRepository.findByUser(user)
+                    : budgetRepository.findByUserAndUpdatedAtAfter(user, since);
+            data.put("budgets", budgets.stream().map(this::toJsonMap).collect(Collectors.toList()));
+        }
+
+        if (options.getOrDefault("goals", false)) {
+            List<Goal> goals = since == null
+                    ? goalRepository.findByUser(user)
+                    : goalRepository.findByUserAndUpdatedAtAfter(user, since);
+            data.put("goals", goals.stream().map(this::toJsonMap).collect(Collectors.toList()));
+        }
+
+        data.put("deleted", deleted);
+        return data;
+    }
+
+    @Scheduled(cron = "0 30 3 * * *")
+    @Transactional
+    public void purgeTombstones() {
+        int purged = deletedRecordRepository.deleteOlderThan(LocalDateTime.now().minusDays(tombstoneRetentionDays));
+        if (purged > 0) {
+            log.info("Purged {} deletion tombstones older than {} days", purged, tombstoneRetentionDays);
+        }
+    }
+
+    private LocalDateTime parseSyncCursor(String cursor) {
+        if (cursor == null || cursor.isBlank()) {
+            return null;
+        }
+        try {
+            return LocalDateTime.parse(cursor.trim());
+        } catch (DateTimeParseException e) {
+            throw new IllegalArgumentException("Invalid sync cursor: " + cursor);
+        }
+    }
+
     // ==================== IMPORT METHODS ====================
 
     public Map<String, Object> importData(String format, InputStream inputStream, Map<String, Boolean> options) {
+        return importData(currentUser.get(), format, inputStream, options, new ImportProgress(format.toLowerCase()));
+    }
+
+    /**
+     * Runs an import for the given user. Does not touch the security context, so it can
+     * also run on a background thread (see {@link ImportSessionService}).
+     */
+    public Map<String, Object> importData(User user, String format, InputStream inputStream,
+                                          Map<String, Boolean> options, ImportProgress progress) {
         Map<String, Object> result = new HashMap<>();
         
         try {
-            User user = getCurrentUser();
-            System.out.println("[PDF IMPORT] Starting import for user: " + user.getUsername());
+            log.info("[IMPORT] Starting {} import for user: {}", format, user.getUsername());
+            latestImports.put(user.getId(), progress);
             
             switch (format.toLowerCase()) {
                 case "csv":
-                    return importFromCsv(user, inputStream, options);
+                    result = importFromCsv(user, inputStream, options, progress);
+                    break;
                 case "json":
-                    return importFromJson(user, inputStream, options);
+                    result = importFromJson(user, inputStream, options, progress);
+                    break;
                 case "pdf":
-                    return importFromPdf(user, inputStream, options);
+                    result = importFromPdf(user, inputStream, options, progress);
+                    break;
                 default:
                     result.put("success", false);
                     result.put("message", "Unsupported import format: " + format);
-                    return result;
+                    break;
             }
         } catch (Exception e) {
-            System.err.println("Import error: " + e.getMessage());
-            e.printStackTrace();
+            log.error("Import error: {}", e.getMessage(), e);
             
             result.put("success", false);
             result.put("message", "Import failed: " + e.getMessage());
             result.put("transactionsImported", 0);
             result.put("budgetsImported", 0);
             result.put("goalsImported", 0);
-            
-            return result;
         }
+        
+        suggestionIndex.invalidate(user.getId());
+
+        String message = String.valueOf(result.get("message"));
+        if (Boolean.FALSE.equals(result.get("success"))) {
+            progress.fail(message);
+        } else {
+            progress.complete(message);
+        }
+        result.put("rowsPerSecond", progress.getRowsPerSecond());
+        result.put("duplicatesSkipped", progress.getDuplicatesSkipped());
+        return result;
+    }
+
+    /**
+     * Idempotent mode: re-importing a file only adds the transactions that are not stored yet.
+     */
+    private boolean skipDuplicates(Map<String, Boolean> options) {
+        return Boolean.TRUE.equals(options.get("skipDuplicates"));
+    }
+
+    /**
+     * Progress of the current user's most recent import (live while it is running).
+     */
+    public Map<String, Object> getImportProgress() {
+        ImportProgress progress = latestImports.get(currentUser.getId());
+        if (progress == null) {
+            Map<String, Object> none = new HashMap<>();
+            none.put("status", "NONE");
+            return none;
+        }
+        return progress.toMap();
     }
 
-    private Map<String, Object> importFromPdf(User user, InputStream inputStream, Map<String, Boolean> options) {
+    private Map<String, Object> importFromPdf(User user, InputStream inputStream, Map<String, Boolean> options,
+                                              ImportProgress progress) {
         Map<String, Object> result = new HashMap<>();
         int transactionsImported = 0;
         int budgetsImported = 0;
         int goalsImported = 0;
+        ImportBatch batch = importBatchWriter.open(user.getId(), progress, skipDuplicates(options));
 
         try {
-            // Use iText PdfReader for structured extraction
-            PdfReader reader = new PdfReader(inputStream);
-            StringBuilder fullText = new StringBuilder();
+            pdfImportPipeline.run(batch, user, inputStream, options);
             
-            for (int page = 1; page <= reader.getNumberOfPages(); page++) {
-                String pageText = PdfTextExtractor.getTextFromPage(reader, page);
-                fullText.append(pageText).append("\n\n");
-            }
-            reader.close();
-            
-            String content = fullText.toString();
-            System.out.println("[PDF IMPORT] PDF content length: " + content.length());
-            System.out.println("[PDF IMPORT] First 500 chars:\n" + content.substring(0, Math.min(500, content.length())));
+            batch.flush();
+            transactionsImported = batch.getTransactionsSaved();
+            budgetsImported = batch.getBudgetsSaved();
+            goalsImported = batch.getGoalsSaved();
             
-            String[] lines = content.split("\n");
-            boolean inTransactionTable = false;
-            boolean inBudgetTable = false;
-            boolean inGoalTable = false;
-            
-            for (int lineIdx = 0; lineIdx < lines.length; lineIdx++) {
-                String line = lines[lineIdx].trim();
-                if (line.isEmpty() || line.length() < 2) continue;
-                
-                // Detect sections
-                if (line.toUpperCase().contains("TRANSACTION HISTORY") ||
-                    (line.toUpperCase().contains("TRANSACTION") && line.toUpperCase().contains("HISTORY"))) {
-                    inTransactionTable = true;
-                    inBudgetTable = false;
-                    inGoalTable = false;
-                    System.out.println("[PDF IMPORT] Entered TRANSACTION section");
-                    continue;
-                }
-                if ((line.toUpperCase().contains("BUDGET OVERVIEW") || line.toUpperCase().contains("BUDGET"))
-                        && !line.toUpperCase().contains("TRANSACTION")) {
-                    inBudgetTable = true;
-                    inTransactionTable = false;
-                    inGoalTable = false;
-                    System.out.println("[PDF IMPORT] Entered BUDGET section");
-                    continue;
-                }
-                if (line.toUpperCase().contains("SAVINGS GOALS") ||
-                    (line.toUpperCase().contains("GOALS") && !line.toUpperCase().contains("TRANSACTION")) ||
-                    (line.toUpperCase().contains("GOAL") && !line.toUpperCase().contains("TRANSACTION"))) {
-                    inGoalTable = true;
-                    inTransactionTable = false;
-                    inBudgetTable = false;
-                    System.out.println("[PDF IMPORT] Entered GOAL section");
-                    continue;
-                }
-                
-                // Skip headers and metadata
-                if (isHeaderLine(line)) {
-                    continue;
-                }
-                
-                // Parse transactions - Format: Date | Description | Category | Type | Amount | Method
-                if (inTransactionTable && options.getOrDefault("transactions", false)) {
-                    if (isTransactionDataLine(line)) {
-                        try {
-                            System.out.println("[PDF IMPORT] Attempting transaction: " + line);
-                            Transaction tx = parseTransactionLine(line, user);
-                            if (tx != null) {
-                                saveTransaction(tx);
-                                System.out.println("[PDF IMPORT] ✓ Saved transaction: " + tx.getDescription() + " - " + tx.getAmount());
-                                transactionsImported++;
-                            }
-                        } catch (Exception e) {
-                            System.err.println("[PDF IMPORT] Transaction error: " + e.getMessage());
-                        }
-                    }
-                }
-                
-                // Parse budgets - Format: Category | Budget | Spent | Remaining | Status
-                if (inBudgetTable && options.getOrDefault("budgets", false)) {
-                    if (isBudgetDataLine(line)) {
-                        try {
-                            System.out.println("[PDF IMPORT] Attempting budget: " + line);
-                            Budget bdg = parseBudgetLine(line, user);
-                            if (bdg != null) {
-                                saveBudget(bdg);
-                                System.out.println("[PDF IMPORT] ✓ Saved budget: " + bdg.getCategory() + " - " + bdg.getAmount());
-                                budgetsImported++;
-                            }
-                        } catch (Exception e) {
-                            System.err.println("[PDF IMPORT] Budget error: " + e.getMessage());
-                        }
-                    }
-                }
-                
-                // Parse goals - These are multi-line blocks
-                if (inGoalTable && options.getOrDefault("goals", false)) {
-                    if (isGoalStartLine(line)) {
-                        try {
-                            System.out.println("[PDF IMPORT] Attempting goal block starting with: " + line);
-                            // Collect the goal block lines
-                            List<String> goalLines = new ArrayList<>();
-                            goalLines.add(line);
-                            
-                            // Collect next few lines that might belong to this goal
-                            for (int i = lineIdx + 1; i < Math.min(lineIdx + 10, lines.length); i++) {
-                                String nextLine = lines[i].trim();
-                                if (nextLine.isEmpty()) break;
-                                if (isGoalStartLine(nextLine)) break; // Next goal
-                                if (isHeaderLine(nextLine)) break;
-                                goalLines.add(nextLine);
-                            }
-                            
-                            Goal gl = parseGoalBlock(goalLines, user);
-                            if (gl != null) {
-                                saveGoal(gl);
-                                System.out.println("[PDF IMPORT] ✓ Saved goal: " + gl.getGoalName() + " - " + gl.getTargetAmount());
-                                goalsImported++;
-                            }
-                        } catch (Exception e) {
-                            System.err.println("[PDF IMPORT] Goal error: " + e.getMessage());
-                        }
-                    }
-                }
-            }
-            
-            System.out.println("[PDF IMPORT] ===== IMPORT COMPLETE =====");
-            System.out.println("[PDF IMPORT] Transactions: " + transactionsImported);
-            System.out.println("[PDF IMPORT] Budgets: " + budgetsImported);
-            System.out.println("[PDF IMPORT] Goals: " + goalsImported);
+            log.info("[PDF IMPORT] Complete: {} transactions, {} budgets, {} goals",
+                    transactionsImported, budgetsImported, goalsImported);
             
             if (transactionsImported > 0 || budgetsImported > 0 || goalsImported > 0) {
                 result.put("success", true);
@@ -1213,9 +1278,12 @@ public class ExportImportService {
             result.put("budgetsImported", budgetsImported);
             result.put("goalsImported", goalsImported);
             
+            if (!batch.getFailures().isEmpty()) {
+                result.put("warnings", batch.getFailures());
+            }
+            
         } catch (Exception e) {
-            System.err.println("[PDF IMPORT] CRITICAL ERROR: " + e.getMessage());
-            e.printStackTrace();
+            log.error("[PDF IMPORT] CRITICAL ERROR: {}", e.getMessage(), e);
             result.put("success", false);
             result.put("message", "PDF import failed. Please try JSON or CSV format.");
             result.put("error", e.getMessage());
@@ -1224,374 +1292,69 @@ public class ExportImportService {
         return result;
     }
     
-    private boolean isHeaderLine(String line) {
-        String upper = line.toUpperCase();
-        return upper.contains("DATE") || upper.contains("DESCRIPTION") ||
-               upper.contains("CATEGORY") || upper.contains("TYPE") ||
-               upper.contains("AMOUNT") || upper.contains("BUDGETWISE") ||
-               upper.contains("FINANCIAL") || upper.contains("REPORT") ||
-               upper.contains("GENERATED") || line.contains("---") ||
-               line.contains("===") || upper.contains("USER:") ||
-               upper.contains("EMAIL") || upper.contains("METHOD") ||
-               upper.contains("BUDGET") || upper.contains("SPENT") ||
-               upper.contains("REMAINING") || upper.contains("STATUS") ||
-               upper.contains("HISTORY") || upper.contains("OVERVIEW") ||
-               upper.contains("GOALS");
-    }
-    
-    private boolean isTransactionDataLine(String line) {
-        // Detect lines that look like table rows: contain a date and an amount
-        String u = line.toUpperCase();
-        boolean looksLikeRow = !line.matches("^[A-Za-z\\s]*$");
-        boolean hasAmount = line.matches(".*[+-]?\\$?\\d+[.,]\\d{2}.*");
-        boolean hasDateLike = line.matches(".*\\d{1,2}[/-]\\d{1,2}[/-]\\d{2,4}.*") ||
-                u.matches(".*(JAN|FEB|MAR|APR|MAY|JUN|JUL|AUG|SEP|OCT|NOV|DEC).*\\d{1,2}.*");
-        return looksLikeRow && hasAmount && hasDateLike;
-    }
-    
-    private Transaction parseTransactionLine(String line, User user) {
-        // Target layout from exported PDF table:
-        // Date | Description | Category | Type | Amount | Method
-        try {
-            // Primary regex parse for the exact table order
-            Pattern p = Pattern.compile(
-                    "^(?<date>[A-Za-z]{3}\\s+\\d{1,2},\\s*\\d{4})\\s+" +
-                    "(?<desc>.+?)\\s+" +
-                    "(?<cat>\\S+)\\s+" +
-                    "(?<type>(?i)income|expense)\\s+" +
-                    "(?<amt>[+-]?\\$?[\\d,]*\\.\\d{2})\\s+" +
-                    "(?<method>\\S+)$");
-            Matcher m = p.matcher(line);
-            if (m.find()) {
-                String datePart = m.group("date");
-                String descriptionPart = m.group("desc");
-                String categoryPart = m.group("cat");
-                String typePart = m.group("type");
-                String amountPart = m.group("amt");
-                String methodPart = m.group("method");
-
-                LocalDateTime transactionDate = parseFlexibleDate(datePart);
-
-                BigDecimal amount = BigDecimal.ZERO;
-                if (!amountPart.isEmpty()) {
-                    String cleanAmount = amountPart.replaceAll("[^0-9.,+-]", "").replace(",", "");
-                    if (!cleanAmount.isEmpty()) {
-                        amount = new BigDecimal(cleanAmount);
-                    }
-                }
-                if (amount.compareTo(BigDecimal.ZERO) == 0) return null;
-
-                String desc = descriptionPart.trim();
-                if (desc.isEmpty()) desc = "Transaction";
-                if (desc.length() > 100) desc = desc.substring(0, 100);
-
-                return Transaction.builder()
-                        .description(desc)
-                        .amount(amount.abs())
-                        .category(categoryPart == null || categoryPart.isEmpty() ? "Other" : categoryPart)
-                        .date(transactionDate)
-                        .type(typePart.toUpperCase().contains("INCOME") ? "INCOME" : "EXPENSE")
-                        .currency("INR")
-                        .paymentMethod(methodPart == null || methodPart.isEmpty() ? null : methodPart)
-                        .user(user)
-                        .build();
-            }
-
-            // Fallback: split by 2+ spaces or pipes and map positionally when 6+ columns
-            String[] parts = line.split("\\s*\\|\\s*|\\s{2,}");
-            if (parts.length >= 6) {
-                String datePart = (parts[0] + " " + parts[1] + " " + parts[2]).trim(); // handles Jan 24, 2026 split
-                String desc = parts[3].trim();
-                String cat = parts[4].trim();
-                String typePart = parts[5].trim();
-                String amountPart = parts.length > 6 ? parts[6].trim() : parts[5].trim();
-                String methodPart = parts.length > 7 ? parts[7].trim() : (parts.length > 6 ? parts[6].trim() : "");
-
-                LocalDateTime transactionDate = parseFlexibleDate(datePart);
-                BigDecimal amount = BigDecimal.ZERO;
-                String cleanAmount = amountPart.replaceAll("[^0-9.,+-]", "").replace(",", "");
-                if (!cleanAmount.isEmpty()) {
-                    amount = new BigDecimal(cleanAmount);
-                }
-                if (amount.compareTo(BigDecimal.ZERO) == 0) return null;
-
-                if (desc.isEmpty()) desc = "Transaction";
-                if (desc.length() > 100) desc = desc.substring(0, 100);
-
-                return Transaction.builder()
-                        .description(desc)
-                        .amount(amount.abs())
-                        .category(cat.isEmpty() ? "Other" : cat)
-                        .date(transactionDate)
-                        .type(typePart.toUpperCase().contains("INCOME") ? "INCOME" : "EXPENSE")
-                        .currency("INR")
-                        .paymentMethod(methodPart.isEmpty() ? null : methodPart)
-                        .user(user)
-                        .build();
-            }
-        } catch (Exception e) {
-            System.err.println("[PDF IMPORT] Failed to parse transaction: " + e.getMessage());
-            e.printStackTrace();
-        }
-        return null;
-    }
-    
-    private boolean isBudgetDataLine(String line) {
-        // Must have a dollar amount
-        return line.matches(".*\\$?\\d+.*") && !line.matches("^[A-Za-z\\s]*$") && !line.matches(".*[%].*");
-    }
-    
-    private Budget parseBudgetLine(String line, User user) {
-        // Expected layout: Category | Budget | Spent | Remaining | Status
-        try {
-            Pattern p = Pattern.compile(
-                    "^(?<cat>.+?)\\s+\\$?(?<budget>[\\d,]*\\.\\d{2})\\s+\\$?(?<spent>[\\d,]*\\.\\d{2})\\s+\\$?(?<rem>[\\d,]*\\.\\d{2})\\s+(?<status>.+)$");
-            Matcher m = p.matcher(line);
-            if (m.find()) {
-                String category = m.group("cat").trim();
-                BigDecimal amount = new BigDecimal(m.group("budget").replace(",", ""));
-                if (category.length() > 50) category = category.substring(0, 50);
-                if (amount.compareTo(BigDecimal.ZERO) > 0) {
-                    return Budget.builder()
-                            .category(category.isEmpty() ? "Other" : category)
-                            .amount(amount)
-                            .startDate(LocalDate.now().withDayOfMonth(1))
-                            .endDate(LocalDate.now().withDayOfMonth(1).plusMonths(1).minusDays(1))
-                            .user(user)
-                            .build();
-                }
-            }
-
-            // Fallback: previous heuristic
-            String[] parts = line.split("\\s*\\|\\s*|\\s{2,}");
-            if (parts.length >= 2) {
-                String category = parts[0].trim();
-                String amountStr = "";
-                for (String part : parts) {
-                    if (part.matches(".*\\$?\\d+[.,]\\d{2}.*")) {
-                        amountStr = part.replaceAll("[^0-9.,+-]", "").trim();
-                        break;
-                    }
-                }
-                if (!amountStr.isEmpty() && !category.isEmpty()) {
-                    amountStr = amountStr.replace(",", "");
-                    BigDecimal amount = new BigDecimal(amountStr);
-                    if (amount.compareTo(BigDecimal.ZERO) > 0) {
-                        if (category.length() > 50) category = category.substring(0, 50);
-                        return Budget.builder()
-                                .category(category)
-                                .amount(amount)
-                                .startDate(LocalDate.now().withDayOfMonth(1))
-                                .endDate(LocalDate.now().withDayOfMonth(1).plusMonths(1).minusDays(1))
-                                .user(user)
-                                .build();
-                    }
-                }
-            }
-        } catch (Exception e) {
-            System.err.println("[PDF IMPORT] Failed to parse budget: " + e.getMessage());
-        }
-        return null;
-    }
-    
-    private boolean isGoalStartLine(String line) {
-        // Goals start with name (contains letters) and may have numbers but not pure headers
-        return line.matches("^[A-Za-z][A-Za-z0-9\\s]*$") && !isHeaderLine(line) && line.length() > 2;
-    }
-    
-    private Goal parseGoalBlock(List<String> lines, User user) {
-        if (lines.isEmpty()) return null;
-        
-        try {
-            String goalName = lines.get(0).trim();
-            if (goalName.isEmpty()) return null;
-            
-            if (goalName.length() > 100) {
-                goalName = goalName.substring(0, 100);
-            }
-            
-            double targetAmount = 0;
-            double currentAmount = 0;
-            
-            // Parse amounts from all lines in block
-            for (String line : lines) {
-                java.util.regex.Pattern amountPattern = java.util.regex.Pattern.compile("\\$(\\d+[.,]\\d{2})");
-                java.util.regex.Matcher matcher = amountPattern.matcher(line);
-                
-                while (matcher.find()) {
-                    String amount = matcher.group(1).replace(",", "");
-                    double val = Double.parseDouble(amount);
-                    if (targetAmount == 0) {
-                        targetAmount = val;
-                    } else if (currentAmount == 0) {
-                        currentAmount = val;
-                    }
-                }
-            }
-            
-            if (targetAmount <= 0) {
-                targetAmount = 1000; // Default if not found
-            }
-            
-            return Goal.builder()
-                    .goalName(goalName)
-                    .category("Savings")
-                    .targetAmount(targetAmount)
-                    .currentAmount(currentAmount)
-                    .deadline(LocalDate.now().plusMonths(6))
-                    .priority("Medium")
-                    .createdAt(LocalDate.now())
-                    .user(user)
-                    .build();
-        } catch (Exception e) {
-            System.err.println("[PDF IMPORT] Failed to parse goal: " + e.getMessage());
-        }
-        return null;
-    }
-
-    private LocalDateTime parseFlexibleDate(String dateStr) {
-        String[] formats = {
-            "yyyy-MM-dd HH:mm:ss",
-            "yyyy-MM-dd HH:mm",
-            "yyyy-MM-dd",
-            "dd/MM/yyyy",
-            "MM/dd/yyyy",
-            "dd-MM-yyyy",
-            "MMM dd, yyyy"
-        };
-        
-        for (String format : formats) {
-            try {
-                if (format.contains("HH")) {
-                    return LocalDateTime.parse(dateStr, DateTimeFormatter.ofPattern(format));
-                } else {
-                    return LocalDate.parse(dateStr, DateTimeFormatter.ofPattern(format)).atStartOfDay();
-                }
-            } catch (Exception e) {
-                // Try next format
-            }
-        }
-        return LocalDateTime.now();
-    }
-
-    /**
-     * Save a transaction with its own transaction boundary to prevent rollback-only issues
-     */
-    @Transactional(propagation = Propagation.REQUIRES_NEW)
-    private void saveTransaction(Transaction transaction) {
-        transactionRepository.saveAndFlush(transaction);
-        System.out.println("[IMPORT] ✓ Successfully saved transaction: " + transaction.getId() + " (" + transaction.getDescription() + ")");
-    }
-
-    /**
-     * Save a budget with its own transaction boundary to prevent rollback-only issues
-     */
-    @Transactional(propagation = Propagation.REQUIRES_NEW)
-    private void saveBudget(Budget budget) {
-        budgetRepository.saveAndFlush(budget);
-        System.out.println("[IMPORT] ✓ Successfully saved budget: " + budget.getId() + " (" + budget.getCategory() + ")");
-    }
-
     /**
-     * Save a goal with its own transaction boundary to prevent rollback-only issues
+     * Streams the upload token by token: only one record is materialised at a time
+     * and each one goes straight into the batch writer, so memory stays flat
+     * regardless of file size and saving overlaps with parsing.
      */
-    @Transactional(propagation = Propagation.REQUIRES_NEW)
-    private void saveGoal(Goal goal) {
-        goalRepository.saveAndFlush(goal);
-        System.out.println("[IMPORT] ✓ Successfully saved goal: " + goal.getId() + " (" + goal.getGoalName() + ")");
-    }
-
-    private Map<String, Object> importFromJson(User user, InputStream inputStream, Map<String, Boolean> options) {
+    private Map<String, Object> importFromJson(User user, InputStream inputStream, Map<String, Boolean> options,
+                                               ImportProgress progress) {
         Map<String, Object> result = new HashMap<>();
-        int transactionsImported = 0;
-        int budgetsImported = 0;
-        int goalsImported = 0;
         List<String> errors = new ArrayList<>();
+        ImportBatch batch = importBatchWriter.open(user.getId(), progress, skipDuplicates(options));
         
-        try {
-            String jsonContent = new BufferedReader(new InputStreamReader(inputStream, StandardCharsets.UTF_8))
-                    .lines().collect(Collectors.joining("\n"));
-            
-            JsonNode rootNode = objectMapper.readTree(jsonContent);
-            
-            // Import transactions
-            if (options.getOrDefault("transactions", false) && rootNode.has("transactions")) {
-                JsonNode transactionsNode = rootNode.get("transactions");
-                if (transactionsNode.isArray()) {
-                    for (JsonNode tNode : transactionsNode) {
-                        try {
-                            Transaction transaction = Transaction.builder()
-                                    .description(getTextValue(tNode, "description", "Imported transaction"))
-                                    .amount(getBigDecimalValue(tNode, "amount"))
-                                    .category(getTextValue(tNode, "category", "Other"))
-                                    .date(parseDateTimeValue(tNode, "date"))
-                                    .type(getTextValue(tNode, "type", "EXPENSE"))
-                                    .paymentMethod(getTextValue(tNode, "paymentMethod", null))
-                                    .currency(getTextValue(tNode, "currency", "USD"))
-                                    .user(user)
-                                    .build();
-                            saveTransaction(transaction);
-                            transactionsImported++;
-                        } catch (Exception e) {
-                            errors.add("Transaction import error: " + e.getMessage());
-                        }
-                    }
-                }
+        try (JsonParser parser = objectMapper.createParser(inputStream)) {
+            if (parser.nextToken() != JsonToken.START_OBJECT) {
+                throw new IllegalArgumentException("Expected a JSON object with transactions, budgets or goals");
             }
             
-            // Import budgets
-            if (options.getOrDefault("budgets", false) && rootNode.has("budgets")) {
-                JsonNode budgetsNode = rootNode.get("budgets");
-                if (budgetsNode.isArray()) {
-                    for (JsonNode bNode : budgetsNode) {
-                        try {
-                            Budget budget = Budget.builder()
-                                    .category(getTextValue(bNode, "category", "Other"))
-                                    .amount(getBigDecimalValue(bNode, "amount"))
-                                    .startDate(parseDateValue(bNode, "startDate"))
-                                    .endDate(parseDateValue(bNode, "endDate"))
-                                    .user(user)
-                                    .build();
-                            saveBudget(budget);
-                            budgetsImported++;
-                        } catch (Exception e) {
-                            errors.add("Budget import error: " + e.getMessage());
-                        }
-                    }
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String section = parser.getCurrentName();
+                JsonToken valueToken = parser.nextToken();
+                
+                boolean knownSection = "transactions".equals(section) || "budgets".equals(section) || "goals".equals(section);
+                if (!knownSection || !options.getOrDefault(section, false) || valueToken != JsonToken.START_ARRAY) {
+                    parser.skipChildren();
+                    continue;
                 }
-            }
-            
-            // Import goals
-            if (options.getOrDefault("goals", false) && rootNode.has("goals")) {
-                JsonNode goalsNode = rootNode.get("goals");
-                if (goalsNode.isArray()) {
-                    for (JsonNode gNode : goalsNode) {
-                        try {
-                            Goal goal = Goal.builder()
-                                    .goalName(getTextValue(gNode, "goalName", "Imported Goal"))
-                                    .category(getTextValue(gNode, "category", "Other"))
-                                    .targetAmount(getDoubleValue(gNode, "targetAmount"))
-                                    .currentAmount(getDoubleValue(gNode, "currentAmount"))
-                                    .deadline(parseDateValue(gNode, "deadline"))
-                                    .priority(getTextValue(gNode, "priority", "Medium"))
-                                    .createdAt(parseDateValue(gNode, "createdAt") != null ? parseDateValue(gNode, "createdAt") : LocalDate.now())
-                                    .user(user)
-                                    .build();
-                            saveGoal(goal);
-                            goalsImported++;
-                        } catch (Exception e) {
-                            errors.add("Goal import error: " + e.getMessage());
+                
+                int index = 0;
+                while (parser.nextToken() != JsonToken.END_ARRAY) {
+                    index++;
+                    JsonNode node = parser.readValueAsTree();
+                    try {
+                        if ("transactions".equals(section)) {
+                            batch.addTransaction(parseTransactionFromJson(node, user), "Transaction #" + index);
+                        } else if ("budgets".equals(section)) {
+                            batch.addBudget(parseBudgetFromJson(node, user), "Budget #" + index);
+                        } else {
+                            batch.addGoal(parseGoalFromJson(node, user), "Goal #" + index);
                         }
+                        progress.rowParsed();
+                    } catch (Exception e) {
+                        progress.rowFailed();
+                        errors.add(sectionLabel(section) + " import error: " + e.getMessage());
                     }
                 }
             }
             
+            batch.flush();
+            errors.addAll(batch.getFailures());
+            
         } catch (Exception e) {
             result.put("success", false);
             result.put("message", "Failed to parse JSON file: " + e.getMessage());
+            // Chunks flushed before the failure stay committed
+            result.put("transactionsImported", batch.getTransactionsSaved());
+            result.put("budgetsImported", batch.getBudgetsSaved());
+            result.put("goalsImported", batch.getGoalsSaved());
             return result;
         }
         
+        int transactionsImported = batch.getTransactionsSaved();
+        int budgetsImported = batch.getBudgetsSaved();
+        int goalsImported = batch.getGoalsSaved();
+        
         result.put("success", true);
         result.put("message", String.format("Import completed. Transactions: %d, Budgets: %d, Goals: %d",
                 transactionsImported, budgetsImported, goalsImported));
@@ -1605,102 +1368,86 @@ public class ExportImportService {
         
         return result;
     }
+    
+    private String sectionLabel(String section) {
+        switch (section) {
+            case "transactions":
+                return "Transaction";
+            case "budgets":
+                return "Budget";
+            default:
+                return "Goal";
+        }
+    }
+    
+    private Transaction parseTransactionFromJson(JsonNode node, User user) {
+        return Transaction.builder()
+                .description(getTextValue(node, "description", "Imported transaction"))
+                .amount(getBigDecimalValue(node, "amount"))
+                .category(getTextValue(node, "category", "Other"))
+                .date(parseDateTimeValue(node, "date"))
+                .type(getTextValue(node, "type", "EXPENSE"))
+                .paymentMethod(getTextValue(node, "paymentMethod", null))
+                .currency(getTextValue(node, "currency", "USD"))
+                .user(user)
+                .build();
+    }
+    
+    private Budget parseBudgetFromJson(JsonNode node, User user) {
+        return Budget.builder()
+                .category(getTextValue(node, "category", "Other"))
+                .amount(getBigDecimalValue(node, "amount"))
+                .startDate(parseDateValue(node, "startDate"))
+                .endDate(parseDateValue(node, "endDate"))
+                .user(user)
+                .build();
+    }
+    
+    private Goal parseGoalFromJson(JsonNode node, User user) {
+        LocalDate createdAt = parseDateValue(node, "createdAt");
+        return Goal.builder()
+                .goalName(getTextValue(node, "goalName", "Imported Goal"))
+                .category(getTextValue(node, "category", "Other"))
+                .targetAmount(getDoubleValue(node, "targetAmount"))
+                .currentAmount(getDoubleValue(node, "currentAmount"))
+                .deadline(parseDateValue(node, "deadline"))
+                .priority(getTextValue(node, "priority", "Medium"))
+                .createdAt(createdAt != null ? createdAt : LocalDate.now())
+                .user(user)
+                .build();
+    }
 
-    private Map<String, Object> importFromCsv(User user, InputStream inputStream, Map<String, Boolean> options) {
+    private Map<String, Object> importFromCsv(User user, InputStream inputStream, Map<String, Boolean> options,
+                                              ImportProgress progress) {
         Map<String, Object> result = new HashMap<>();
-        int transactionsImported = 0;
-        int budgetsImported = 0;
-        int goalsImported = 0;
         List<String> errors = new ArrayList<>();
+        ImportBatch batch = importBatchWriter.open(user.getId(), progress, skipDuplicates(options));
         
         try {
-            BufferedReader reader = new BufferedReader(new InputStreamReader(inputStream, StandardCharsets.UTF_8));
-            String line;
-            String currentSection = null;
-            String[] headers = null;
-            
-            while ((line = reader.readLine()) != null) {
-                line = line.trim();
-                
-                if (line.isEmpty()) {
-                    continue;
-                }
-                
-                // Detect section
-                if (line.startsWith("# TRANSACTIONS")) {
-                    currentSection = "transactions";
-                    headers = null;
-                    continue;
-                } else if (line.startsWith("# BUDGETS")) {
-                    currentSection = "budgets";
-                    headers = null;
-                    continue;
-                } else if (line.startsWith("# GOALS")) {
-                    currentSection = "goals";
-                    headers = null;
-                    continue;
-                }
-                
-                // Skip comment lines
-                if (line.startsWith("#")) {
-                    continue;
-                }
-                
-                // Parse header line
-                if (headers == null) {
-                    headers = parseCsvLine(line);
-                    continue;
-                }
-                
-                // Parse data line
-                String[] values = parseCsvLine(line);
-                
-                if (currentSection == null) {
-                    // Try to auto-detect based on headers
-                    if (headers.length > 0) {
-                        if (containsHeader(headers, "description") && containsHeader(headers, "type")) {
-                            currentSection = "transactions";
-                        } else if (containsHeader(headers, "startDate") && containsHeader(headers, "endDate")) {
-                            currentSection = "budgets";
-                        } else if (containsHeader(headers, "goalName") || containsHeader(headers, "targetAmount")) {
-                            currentSection = "goals";
-                        }
-                    }
-                }
-                
-                try {
-                    if ("transactions".equals(currentSection) && options.getOrDefault("transactions", false)) {
-                        Transaction transaction = parseTransactionFromCsv(headers, values, user);
-                        if (transaction != null) {
-                            saveTransaction(transaction);
-                            transactionsImported++;
-                        }
-                    } else if ("budgets".equals(currentSection) && options.getOrDefault("budgets", false)) {
-                        Budget budget = parseBudgetFromCsv(headers, values, user);
-                        if (budget != null) {
-                            saveBudget(budget);
-                            budgetsImported++;
-                        }
-                    } else if ("goals".equals(currentSection) && options.getOrDefault("goals", false)) {
-                        Goal goal = parseGoalFromCsv(headers, values, user);
-                        if (goal != null) {
-                            saveGoal(goal);
-                            goalsImported++;
-                        }
-                    }
-                } catch (Exception e) {
-                    errors.add("CSV line parse error: " + e.getMessage());
-                }
-            }
+            errors.addAll(csvImportPipeline.run(batch, user, inputStream, options));
+            errors.addAll(batch.getFailures());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            result.put("success", false);
+            result.put("message", "CSV import was interrupted");
+            result.put("transactionsImported", batch.getTransactionsSaved());
+            result.put("budgetsImported", batch.getBudgetsSaved());
+            result.put("goalsImported", batch.getGoalsSaved());
+            return result;
         } catch (Exception e) {
             result.put("success", false);
             result.put("message", "Failed to parse CSV file: " + e.getMessage());
-            result.put("transactionsImported", transactionsImported);
-            result.put("budgetsImported", budgetsImported);
-            result.put("goalsImported", goalsImported);
+            // Chunks flushed before the failure stay committed
+            result.put("transactionsImported", batch.getTransactionsSaved());
+            result.put("budgetsImported", batch.getBudgetsSaved());
+            result.put("goalsImported", batch.getGoalsSaved());
             return result;
         }
         
+        int transactionsImported = batch.getTransactionsSaved();
+        int budgetsImported = batch.getBudgetsSaved();
+        int goalsImported = batch.getGoalsSaved();
+        
         result.put("success", true);
         result.put("message", String.format("Import completed. Transactions: %d, Budgets: %d, Goals: %d",
                 transactionsImported, budgetsImported, goalsImported));
@@ -1714,93 +1461,6 @@ public class ExportImportService {
         
         return result;
     }
-    
-    private boolean containsHeader(String[] headers, String headerName) {
-        for (String h : headers) {
-            if (h.equalsIgnoreCase(headerName)) {
-                return true;
-            }
-        }
-        return false;
-    }
-
-    private String[] parseCsvLine(String line) {
-        List<String> result = new ArrayList<>();
-        StringBuilder current = new StringBuilder();
-        boolean inQuotes = false;
-        
-        for (int i = 0; i < line.length(); i++) {
-            char c = line.charAt(i);
-            
-            if (c == '"') {
-                if (inQuotes && i + 1 < line.length() && line.charAt(i + 1) == '"') {
-                    current.append('"');
-                    i++;
-                } else {
-                    inQuotes = !inQuotes;
-                }
-            } else if (c == ',' && !inQuotes) {
-                result.add(current.toString().trim());
-                current = new StringBuilder();
-            } else {
-                current.append(c);
-            }
-        }
-        result.add(current.toString().trim());
-        
-        return result.toArray(new String[0]);
-    }
-
-    private Transaction parseTransactionFromCsv(String[] headers, String[] values, User user) {
-        Map<String, String> row = new HashMap<>();
-        for (int i = 0; i < headers.length && i < values.length; i++) {
-            row.put(headers[i].toLowerCase().trim(), values[i]);
-        }
-        
-        return Transaction.builder()
-                .description(row.getOrDefault("description", "Imported"))
-                .amount(new BigDecimal(row.getOrDefault("amount", "0")))
-                .category(row.getOrDefault("category", "Other"))
-                .date(parseDateTime(row.get("date")))
-                .type(row.getOrDefault("type", "EXPENSE").toUpperCase())
-                .paymentMethod(row.get("paymentmethod"))
-                .currency(row.getOrDefault("currency", "USD"))
-                .user(user)
-                .build();
-    }
-
-    private Budget parseBudgetFromCsv(String[] headers, String[] values, User user) {
-        Map<String, String> row = new HashMap<>();
-        for (int i = 0; i < headers.length && i < values.length; i++) {
-            row.put(headers[i].toLowerCase().trim(), values[i]);
-        }
-        
-        return Budget.builder()
-                .category(row.getOrDefault("category", "Other"))
-                .amount(new BigDecimal(row.getOrDefault("amount", "0")))
-                .startDate(parseDate(row.get("startdate")))
-                .endDate(parseDate(row.get("enddate")))
-                .user(user)
-                .build();
-    }
-
-    private Goal parseGoalFromCsv(String[] headers, String[] values, User user) {
-        Map<String, String> row = new HashMap<>();
-        for (int i = 0; i < headers.length && i < values.length; i++) {
-            row.put(headers[i].toLowerCase().trim(), values[i]);
-        }
-        
-        return Goal.builder()
-                .goalName(row.getOrDefault("goalname", "Imported Goal"))
-                .category(row.getOrDefault("category", "Other"))
-                .targetAmount(Double.parseDouble(row.getOrDefault("targetamount", "0")))
-                .currentAmount(Double.parseDouble(row.getOrDefault("currentamount", "0")))
-                .deadline(parseDate(row.get("deadline")))
-                .priority(row.getOrDefault("priority", "Medium"))
-                .createdAt(parseDate(row.get("createdat")) != null ? parseDate(row.get("createdat")) : LocalDate.now())
-                .user(user)
-                .build();
-    }
 
     // Helper methods for JSON parsing
     private String getTextValue(JsonNode node, String field, String defaultValue) {
@@ -1839,56 +1499,11 @@ public class ExportImportService {
     }
 
     private LocalDateTime parseDateTime(String dateStr) {
-        if (dateStr == null || dateStr.isEmpty()) {
-            return LocalDateTime.now();
-        }
-        
-        // Try multiple formats
-        List<DateTimeFormatter> formatters = Arrays.asList(
-                DateTimeFormatter.ISO_LOCAL_DATE_TIME,
-                DateTimeFormatter.ofPattern("yyyy-MM-dd'T'HH:mm:ss"),
-                DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss"),
-                DateTimeFormatter.ofPattern("yyyy-MM-dd'T'HH:mm"),
-                DateTimeFormatter.ofPattern("dd-MM-yyyy HH:mm:ss"),
-                DateTimeFormatter.ofPattern("MM/dd/yyyy HH:mm:ss")
-        );
-        
-        for (DateTimeFormatter formatter : formatters) {
-            try {
-                return LocalDateTime.parse(dateStr, formatter);
-            } catch (DateTimeParseException ignored) {
-            }
-        }
-        
-        // Try parsing as date only
-        LocalDate date = parseDate(dateStr);
-        if (date != null) {
-            return date.atStartOfDay();
-        }
-        
-        return LocalDateTime.now();
+        LocalDateTime parsed = ImportDateParser.parseDateTime(dateStr);
+        return parsed != null ? parsed : LocalDateTime.now();
     }
 
     private LocalDate parseDate(String dateStr) {
-        if (dateStr == null || dateStr.isEmpty()) {
-            return null;
-        }
-        
-        List<DateTimeFormatter> formatters = Arrays.asList(
-                DateTimeFormatter.ISO_LOCAL_DATE,
-                DateTimeFormatter.ofPattern("yyyy-MM-dd"),
-                DateTimeFormatter.ofPattern("dd-MM-yyyy"),
-                DateTimeFormatter.ofPattern("MM/dd/yyyy"),
-                DateTimeFormatter.ofPattern("dd/MM/yyyy")
-        );
-        
-        for (DateTimeFormatter formatter : formatters) {
-            try {
-                return LocalDate.parse(dateStr, formatter);
-            } catch (DateTimeParseException ignored) {
-            }
-        }
-        
-        return null;
+        return ImportDateParser.parseDate(dateStr);
     }
 }
@@ -0,0 +1,315 @@
+package com.budgetwise.service;
+
+import com.budgetwise.dto.CommentResponse;
+import com.budgetwise.dto.FeedPage;
+import com.budgetwise.dto.PostResponse;
+import com.budgetwise.repository.LikeRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.UnaryOperator;
+
+/**
+ * The first few pages of the community feed, ready to serve. Pages hold the rendered
+ * posts without anything user specific; whether the caller liked a post comes from a
+ * separate per-user liked set, and like counts are brought up to date from
+ * {@link LikeCounter} on every read.
+ *
+ * <p>New and deleted posts shift every page, so they drop the whole cache. Edits and
+ * comments patch the affected post in place. Pages also expire after a short TTL, which
+ * bounds staleness from writes that bypass {@link PostService}.
+ *
+ * <p>{@link LikeCounter} keeps running like totals only for the posts on cached pages
+ * and on pages being built; every change to the set of pages updates which posts those
+ * are. A page being built starts tracking before its counts are rendered, so a like that
+ * lands before the page is stored still shows up as a catch-up delta.
+ */
+@Component
+public class FeedCache {
+
+    private record CachedPost(PostResponse fragment, long likeDeltaAtBuild) {}
+
+    private record CachedPage(int index, List<CachedPost> posts, String nextCursor, boolean hasMore, long expiresAt) {}
+
+    private static final class LikedSet {
+        final Set<Long> covered = new HashSet<>();
+        final Set<Long> liked = new HashSet<>();
+    }
+
+    private final LikeRepository likeRepository;
+    private final LikeCounter likeCounter;
+    private final int maxPages;
+    private final long ttlMillis;
+
+    // Page key is the cursor it was requested with ("" for the first page)
+    private final Map<String, CachedPage> pages = new ConcurrentHashMap<>();
+    private final Map<Long, LikedSet> likedSets;
+    // Bumped by every invalidation or patch so a page built meanwhile is not stored
+    private final AtomicLong generation = new AtomicLong();
+    // Posts on pages being built, with how many builds include them; guarded by generation
+    private final Map<Long, Integer> building = new HashMap<>();
+
+    public FeedCache(LikeRepository likeRepository, LikeCounter likeCounter,
+                     @Value("${feed.cache.pages:5}") int maxPages,
+                     @Value("${feed.cache.ttl-seconds:60}") long ttlSeconds,
+                     @Value("${feed.cache.max-users:10000}") int maxUsers) {
+        this.likeRepository = likeRepository;
+        this.likeCounter = likeCounter;
+        this.maxPages = maxPages;
+        this.ttlMillis = Duration.ofSeconds(ttlSeconds).toMillis();
+        this.likedSets = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Long, LikedSet> eldest) {
+                return size() > maxUsers;
+            }
+        };
+    }
+
+    public long generation() {
+        return generation.get();
+    }
+
+    /**
+     * Index of the page a cursor leads to, or -1 if that page is not one the cache keeps.
+     */
+    public int pageIndex(String cursor) {
+        if (key(cursor).isEmpty()) {
+            return 0;
+        }
+        for (CachedPage page : pages.values()) {
+            if (cursor.equals(page.nextCursor())) {
+                return page.index() + 1 < maxPages ? page.index() + 1 : -1;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * The cached page rendered for the user, or null on a miss.
+     */
+    public FeedPage get(String cursor, Long userId) {
+        CachedPage page = pages.get(key(cursor));
+        if (page == null) {
+            return null;
+        }
+        if (page.expiresAt() <= System.currentTimeMillis()) {
+            synchronized (generation) {
+                if (pages.remove(key(cursor), page)) {
+                    retainTrackedLikes();
+                }
+            }
+            return null;
+        }
+
+        List<Long> postIds = page.posts().stream().map(p -> p.fragment().getId()).toList();
+        Set<Long> liked = likedAmong(userId, postIds);
+        List<PostResponse> posts = new ArrayList<>(page.posts().size());
+        for (CachedPost cached : page.posts()) {
+            PostResponse response = copy(cached.fragment());
+            long likeDelta = likeCounter.totalDelta(response.getId()) - cached.likeDeltaAtBuild();
+            response.setLikes((int) Math.max(0, response.getLikes() + likeDelta));
+            response.setIsLikedByUser(liked.contains(response.getId()));
+            posts.add(response);
+        }
+        return FeedPage.builder()
+                .posts(posts)
+                .nextCursor(page.nextCursor())
+                .hasMore(page.hasMore())
+                .build();
+    }
+
+    /**
+     * Starts keeping running like totals for the posts of a page about to be rendered.
+     * Read each baseline with {@link LikeCounter#totalDelta} right before rendering that
+     * post's count, and call {@link #endBuild} once the page was offered to {@link #put}.
+     */
+    public void startBuild(Collection<Long> postIds) {
+        synchronized (generation) {
+            for (Long postId : postIds) {
+                building.merge(postId, 1, Integer::sum);
+                likeCounter.track(postId);
+            }
+        }
+    }
+
+    public void endBuild(Collection<Long> postIds) {
+        synchronized (generation) {
+            for (Long postId : postIds) {
+                building.computeIfPresent(postId, (id, builds) -> builds > 1 ? builds - 1 : null);
+            }
+            retainTrackedLikes();
+        }
+    }
+
+    /**
+     * Stores a freshly built page unless the cache changed since {@code generationBefore}.
+     * {@code likeBaselines} holds each post's {@link LikeCounter#totalDelta} from when its
+     * count was rendered.
+     */
+    public void put(String cursor, int index, FeedPage page, long generationBefore, Map<Long, Long> likeBaselines) {
+        if (index < 0 || index >= maxPages) {
+            return;
+        }
+        synchronized (generation) {
+            if (generation.get() != generationBefore) {
+                return;
+            }
+            List<CachedPost> posts = new ArrayList<>(page.getPosts().size());
+            for (PostResponse response : page.getPosts()) {
+                PostResponse fragment = copy(response);
+                fragment.setIsLikedByUser(null);
+                Long baseline = likeBaselines.get(response.getId());
+                posts.add(new CachedPost(fragment, baseline != null ? baseline : likeCounter.track(response.getId())));
+            }
+            pages.put(key(cursor), new CachedPage(index, List.copyOf(posts), page.getNextCursor(),
+                    Boolean.TRUE.equals(page.getHasMore()), System.currentTimeMillis() + ttlMillis));
+            // The page may have replaced an older one for the same cursor
+            retainTrackedLikes();
+        }
+    }
+
+    /**
+     * Drops every page, e.g. after a post was created or deleted.
+     */
+    public void invalidateAll() {
+        synchronized (generation) {
+            generation.incrementAndGet();
+            pages.clear();
+            retainTrackedLikes();
+        }
+    }
+
+    /**
+     * Rewrites one post wherever it is cached.
+     */
+    public void patch(Long postId, UnaryOperator<PostResponse> change) {
+        synchronized (generation) {
+            generation.incrementAndGet();
+            pages.replaceAll((key, page) -> {
+                if (page.posts().stream().noneMatch(p -> p.fragment().getId().equals(postId))) {
+                    return page;
+                }
+                List<CachedPost> posts = page.posts().stream()
+                        .map(p -> p.fragment().getId().equals(postId)
+                                ? new CachedPost(change.apply(copy(p.fragment())), p.likeDeltaAtBuild())
+                                : p)
+                        .toList();
+                return new CachedPage(page.index(), posts, page.nextCursor(), page.hasMore(), page.expiresAt());
+            });
+        }
+    }
+
+    /**
+     * Drops the pages that contain the post, when patching would need a database read.
+     */
+    public void invalidatePost(Long postId) {
+        synchronized (generation) {
+            generation.incrementAndGet();
+            pages.values().removeIf(page -> page.posts().stream()
+                    .anyMatch(p -> p.fragment().getId().equals(postId)));
+            retainTrackedLikes();
+        }
+    }
+
+    // Caller holds the generation lock, so no page is stored while this runs
+    private void retainTrackedLikes() {
+        Set<Long> postIds = new HashSet<>(building.keySet());
+        for (CachedPage page : pages.values()) {
+            page.posts().forEach(p -> postIds.add(p.fragment().getId()));
+        }
+        likeCounter.retainTracked(postIds);
+    }
+
+    /**
+     * Keeps the user's liked set in step with a like toggle.
+     */
+    public void likeChanged(Long userId, Long postId, boolean liked) {
+        synchronized (likedSets) {
+            LikedSet set = likedSets.get(userId);
+            if (set != null) {
+                set.covered.add(postId);
+                if (liked) {
+                    set.liked.add(postId);
+                } else {
+                    set.liked.remove(postId);
+                }
+            }
+        }
+    }
+
+    // Only posts the set has never seen are looked up, so repeat visits need no query
+    private Set<Long> likedAmong(Long userId, Collection<Long> postIds) {
+        List<Long> missing;
+        synchronized (likedSets) {
+            LikedSet set = likedSets.computeIfAbsent(userId, id -> new LikedSet());
+            missing = postIds.stream().filter(id -> !set.covered.contains(id)).toList();
+            if (missing.isEmpty()) {
+                return copyLiked(set, postIds);
+            }
+        }
+        List<Long> found = likeRepository.findLikedPostIds(userId, missing);
+        synchronized (likedSets) {
+            LikedSet set = likedSets.computeIfAbsent(userId, id -> new LikedSet());
+            for (Long id : missing) {
+                // A toggle that happened during the query already recorded the newer state
+                if (set.covered.add(id) && found.contains(id)) {
+                    set.liked.add(id);
+                }
+            }
+            return copyLiked(set, postIds);
+        }
+    }
+
+    private static Set<Long> copyLiked(LikedSet set, Collection<Long> postIds) {
+        Set<Long> liked = new HashSet<>();
+        for (Long id : postIds) {
+            if (set.liked.contains(id)) {
+                liked.add(id);
+            }
+        }
+        return liked;
+    }
+
+    public static PostResponse withComment(PostResponse post, CommentResponse comment, int previews) {
+        List<CommentResponse> comments = new ArrayList<>();
+        comments.add(comment);
+        if (post.getComments() != null) {
+            comments.addAll(post.getComments());
+        }
+        post.setComments(List.copyOf(comments.subList(0, Math.min(previews, comments.size()))));
+        post.setCommentCount((post.getCommentCount() != null ? post.getCommentCount() : 0) + 1);
+        return post;
+    }
+
+    private static PostResponse copy(PostResponse source) {
+        return PostResponse.builder()
+                .id(source.getId())
+                .title(source.getTitle())
+                .category(source.getCategory())
+                .content(source.getContent())
+                .author(source.getAuthor())
+                .authorAvatar(source.getAuthorAvatar())
+                .createdAt(source.getCreatedAt())
+                .updatedAt(source.getUpdatedAt())
+                .likes(source.getLikes())
+                .comments(source.getComments())
+                .commentCount(source.getCommentCount())
+                .isLikedByUser(source.getIsLikedByUser())
+                .build();
+    }
+
+    private static String key(String cursor) {
+        return cursor == null ? "" : cursor.trim();
+    }
+}
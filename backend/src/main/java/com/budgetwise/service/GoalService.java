@@ -3,12 +3,14 @@ package com.budgetwise.service;
 import com.budgetwise.dto.GoalRequest;
 import com.budgetwise.dto.GoalResponse;
 import com.budgetwise.model.Goal;
+import com.budgetwise.model.DeletedRecord;
 import com.budgetwise.model.User;
 import com.budgetwise.repository.GoalRepository;
-import com.budgetwise.repository.UserRepository;
+import com.budgetwise.repository.DeletedRecordRepository;
+import com.budgetwise.security.CurrentUser;
 import lombok.RequiredArgsConstructor;
-import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 import java.time.LocalDate;
 import java.util.List;
 import java.util.stream.Collectors;
@@ -18,21 +20,17 @@ import java.util.stream.Collectors;
 public class GoalService {
 
     private final GoalRepository goalRepository;
-    private final UserRepository userRepository;
-
-    private User getCurrentUser() {
-        String identifier = SecurityContextHolder.getContext().getAuthentication().getName();
-        return userRepository.findByUsername(identifier)
-                .or(() -> userRepository.findByEmail(identifier))
-                .orElseThrow(() -> new RuntimeException("User not found"));
-    }
+    private final DeletedRecordRepository deletedRecordRepository;
+    private final CurrentUser currentUser;
+    private final CategoryService categoryService;
 
     public GoalResponse createGoal(GoalRequest request) {
-        User user = getCurrentUser();
+        User user = currentUser.reference();
 
         Goal goal = Goal.builder()
                 .goalName(request.getGoalName())
                 .category(request.getCategory())
+                .categoryId(categoryService.categoryId(user.getId(), request.getCategory()))
                 .targetAmount(request.getTargetAmount())
                 .currentAmount(request.getCurrentAmount() != null ? request.getCurrentAmount() : 0.0)
                 .deadline(request.getDeadline())
@@ -46,8 +44,7 @@ public class GoalService {
     }
 
     public List<GoalResponse> getUserGoals() {
-        User user = getCurrentUser();
-        List<Goal> goals = goalRepository.findByUserIdOrderByCreatedAtDesc(user.getId());
+        List<Goal> goals = goalRepository.findByUserIdOrderByCreatedAtDesc(currentUser.getId());
         return goals.stream()
                 .map(this::mapToResponse)
                 .collect(Collectors.toList());
@@ -57,7 +54,6 @@ public class GoalService {
         Goal goal = goalRepository.findById(id)
                 .orElseThrow(() -> new RuntimeException("Goal not found. It may have been deleted."));
 
-        User currentUser = getCurrentUser();
         if (!goal.getUser().getId().equals(currentUser.getId())) {
             throw new RuntimeException("You don't have permission to view this goal.");
         }
@@ -66,16 +62,17 @@ public class GoalService {
     }
 
     public GoalResponse updateGoal(Long id, GoalRequest request) {
-        User user = getCurrentUser();
+        Long userId = currentUser.getId();
         Goal goal = goalRepository.findById(id)
                 .orElseThrow(() -> new RuntimeException("Goal not found. It may have been deleted."));
 
-        if (!goal.getUser().getId().equals(user.getId())) {
+        if (!goal.getUser().getId().equals(userId)) {
             throw new RuntimeException("You don't have permission to edit this goal.");
         }
 
         goal.setGoalName(request.getGoalName());
         goal.setCategory(request.getCategory());
+        goal.setCategoryId(categoryService.categoryId(userId, request.getCategory()));
         goal.setTargetAmount(request.getTargetAmount());
         goal.setCurrentAmount(request.getCurrentAmount());
         goal.setDeadline(request.getDeadline());
@@ -85,16 +82,18 @@ public class GoalService {
         return mapToResponse(goal);
     }
 
+    @Transactional
     public void deleteGoal(Long id) {
-        User user = getCurrentUser();
+        Long userId = currentUser.getId();
         Goal goal = goalRepository.findById(id)
                 .orElseThrow(() -> new RuntimeException("Goal not found. It may have been deleted."));
 
-        if (!goal.getUser().getId().equals(user.getId())) {
+        if (!goal.getUser().getId().equals(userId)) {
             throw new RuntimeException("You don't have permission to delete this goal.");
         }
 
         goalRepository.delete(goal);
+        deletedRecordRepository.save(DeletedRecord.of(userId, DeletedRecord.GOALS, goal.getId()));
     }
 
     private GoalResponse mapToResponse(Goal goal) {
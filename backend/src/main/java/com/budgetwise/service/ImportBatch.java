@@ -0,0 +1,152 @@
+package com.budgetwise.service;
+
+import com.budgetwise.model.Budget;
+import com.budgetwise.model.Goal;
+import com.budgetwise.model.Transaction;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Buffers parsed import rows and hands them to {@link ImportBatchWriter} in chunks.
+ * Each row carries a label (e.g. "CSV line 42") so per-row failures can be reported.
+ *
+ * <p>With {@code skipDuplicates}, only transactions that were already stored before
+ * this import are skipped; identical rows within the file are legitimate purchases
+ * and are all imported.
+ */
+public class ImportBatch {
+
+    record PendingRow<T>(T value, String label) {}
+
+    private final ImportBatchWriter writer;
+    private final TransactionDuplicateIndex duplicateIndex;
+    private final Long userId;
+    private final int chunkSize;
+    private final ImportProgress progress;
+    private final boolean skipDuplicates;
+    // Written by this import, so not duplicates of earlier data when seen again
+    private final Set<String> importedFingerprints = new HashSet<>();
+
+    private final List<PendingRow<Transaction>> transactions = new ArrayList<>();
+    private final List<PendingRow<Budget>> budgets = new ArrayList<>();
+    private final List<PendingRow<Goal>> goals = new ArrayList<>();
+    private final List<String> failures = new ArrayList<>();
+
+    private int transactionsSaved;
+    private int budgetsSaved;
+    private int goalsSaved;
+
+    ImportBatch(ImportBatchWriter writer, TransactionDuplicateIndex duplicateIndex, Long userId, int chunkSize,
+                ImportProgress progress, boolean skipDuplicates) {
+        this.writer = writer;
+        this.duplicateIndex = duplicateIndex;
+        this.userId = userId;
+        this.chunkSize = chunkSize;
+        this.progress = progress;
+        this.skipDuplicates = skipDuplicates;
+    }
+
+    public void addTransaction(Transaction transaction, String label) {
+        // JDBC inserts bypass the entity callbacks, so the fingerprint is set here
+        transaction.setFingerprint(transaction.computeFingerprint(userId));
+        transactions.add(new PendingRow<>(transaction, label));
+        if (transactions.size() >= chunkSize) {
+            flushTransactions();
+        }
+    }
+
+    public void addBudget(Budget budget, String label) {
+        budgets.add(new PendingRow<>(budget, label));
+        if (budgets.size() >= chunkSize) {
+            flushBudgets();
+        }
+    }
+
+    public void addGoal(Goal goal, String label) {
+        goals.add(new PendingRow<>(goal, label));
+        if (goals.size() >= chunkSize) {
+            flushGoals();
+        }
+    }
+
+    /**
+     * Writes whatever is still buffered. Call once after the last row.
+     */
+    public void flush() {
+        flushTransactions();
+        flushBudgets();
+        flushGoals();
+    }
+
+    private void flushTransactions() {
+        if (skipDuplicates && !transactions.isEmpty()) {
+            List<String> fingerprints = new ArrayList<>(transactions.size());
+            for (PendingRow<Transaction> row : transactions) {
+                fingerprints.add(row.value().getFingerprint());
+            }
+            Set<String> existing = duplicateIndex.findExisting(userId, fingerprints);
+            if (!existing.isEmpty()) {
+                int before = transactions.size();
+                transactions.removeIf(row -> existing.contains(row.value().getFingerprint())
+                        && !importedFingerprints.contains(row.value().getFingerprint()));
+                progress.duplicateSkipped(before - transactions.size());
+            }
+        }
+        int failuresBefore = failures.size();
+        int saved = writer.writeTransactions(transactions, userId, LocalDateTime.now(), failures);
+        transactionsSaved += saved;
+        report(saved, failuresBefore);
+        for (PendingRow<Transaction> row : transactions) {
+            duplicateIndex.record(userId, row.value().getFingerprint());
+            if (skipDuplicates && row.value().getFingerprint() != null) {
+                importedFingerprints.add(row.value().getFingerprint());
+            }
+        }
+        transactions.clear();
+    }
+
+    private void flushBudgets() {
+        int failuresBefore = failures.size();
+        int saved = writer.writeBudgets(budgets, userId, LocalDateTime.now(), failures);
+        budgetsSaved += saved;
+        report(saved, failuresBefore);
+        budgets.clear();
+    }
+
+    private void flushGoals() {
+        int failuresBefore = failures.size();
+        int saved = writer.writeGoals(goals, userId, LocalDateTime.now(), failures);
+        goalsSaved += saved;
+        report(saved, failuresBefore);
+        goals.clear();
+    }
+
+    private void report(int saved, int failuresBefore) {
+        progress.rowsSaved(saved);
+        progress.rowsFailed(failures.size() - failuresBefore);
+    }
+
+    public int getTransactionsSaved() {
+        return transactionsSaved;
+    }
+
+    public int getBudgetsSaved() {
+        return budgetsSaved;
+    }
+
+    public int getGoalsSaved() {
+        return goalsSaved;
+    }
+
+    public List<String> getFailures() {
+        return failures;
+    }
+
+    public ImportProgress getProgress() {
+        return progress;
+    }
+}
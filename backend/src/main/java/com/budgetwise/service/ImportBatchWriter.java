@@ -0,0 +1,165 @@
+package com.budgetwise.service;
+
+import com.budgetwise.model.Budget;
+import com.budgetwise.model.Goal;
+import com.budgetwise.model.Transaction;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.NestedExceptionUtils;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.ParameterizedPreparedStatementSetter;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Types;
+import java.time.LocalDateTime;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+
+/**
+ * Bulk insert path for imports. Rows are written with plain JDBC batches
+ * (Hibernate cannot batch IDENTITY inserts), one database transaction per chunk.
+ * If a chunk fails, only that chunk is replayed row by row so the offending rows
+ * can be reported while the rest of the chunk is still saved.
+ */
+@Component
+@Slf4j
+public class ImportBatchWriter {
+
+    private static final String INSERT_TRANSACTION =
+            "INSERT INTO transactions (description, amount, category, date, type, payment_method, currency, user_id, updated_at, fingerprint, category_id) " +
+            "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+
+    private static final String INSERT_BUDGET =
+            "INSERT INTO budgets (category, amount, start_date, end_date, user_id, updated_at, category_id) " +
+            "VALUES (?, ?, ?, ?, ?, ?, ?)";
+
+    private static final String INSERT_GOAL =
+            "INSERT INTO goals (goal_name, category, target_amount, current_amount, deadline, priority, created_at, user_id, updated_at, category_id) " +
+            "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate chunkTransaction;
+    private final TransactionDuplicateIndex duplicateIndex;
+    private final CategoryService categoryService;
+
+    @Value("${import.batch-size:500}")
+    private int batchSize;
+
+    public ImportBatchWriter(JdbcTemplate jdbcTemplate, PlatformTransactionManager transactionManager,
+                             TransactionDuplicateIndex duplicateIndex, CategoryService categoryService) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.duplicateIndex = duplicateIndex;
+        this.categoryService = categoryService;
+        this.chunkTransaction = new TransactionTemplate(transactionManager);
+        this.chunkTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
+
+    /**
+     * Opens a new buffered batch for one import run. Batches are not thread-safe:
+     * a single writer thread adds rows, while the progress counters may be read anywhere.
+     * With {@code skipDuplicates} set, transactions that already exist for the user
+     * (or appeared earlier in the same import) are skipped instead of inserted again.
+     */
+    public ImportBatch open(Long userId, ImportProgress progress, boolean skipDuplicates) {
+        return new ImportBatch(this, duplicateIndex, userId, Math.max(1, batchSize), progress, skipDuplicates);
+    }
+
+    int writeTransactions(List<ImportBatch.PendingRow<Transaction>> rows, Long userId, LocalDateTime stamp, List<String> failures) {
+        Map<String, Long> categoryIds = categoryIds(userId, rows, Transaction::getCategory);
+        return writeChunk(INSERT_TRANSACTION, rows, failures, (ps, t) -> {
+            ps.setString(1, t.getDescription());
+            ps.setBigDecimal(2, t.getAmount());
+            ps.setString(3, t.getCategory());
+            ps.setObject(4, t.getDate(), Types.TIMESTAMP);
+            ps.setString(5, t.getType());
+            ps.setString(6, t.getPaymentMethod());
+            ps.setString(7, t.getCurrency());
+            ps.setLong(8, userId);
+            ps.setObject(9, stamp, Types.TIMESTAMP);
+            ps.setString(10, t.getFingerprint());
+            ps.setObject(11, categoryIds.get(t.getCategory()), Types.BIGINT);
+        });
+    }
+
+    int writeBudgets(List<ImportBatch.PendingRow<Budget>> rows, Long userId, LocalDateTime stamp, List<String> failures) {
+        Map<String, Long> categoryIds = categoryIds(userId, rows, Budget::getCategory);
+        return writeChunk(INSERT_BUDGET, rows, failures, (ps, b) -> {
+            ps.setString(1, b.getCategory());
+            ps.setBigDecimal(2, b.getAmount());
+            ps.setObject(3, b.getStartDate(), Types.DATE);
+            ps.setObject(4, b.getEndDate(), Types.DATE);
+            ps.setLong(5, userId);
+            ps.setObject(6, stamp, Types.TIMESTAMP);
+            ps.setObject(7, categoryIds.get(b.getCategory()), Types.BIGINT);
+        });
+    }
+
+    int writeGoals(List<ImportBatch.PendingRow<Goal>> rows, Long userId, LocalDateTime stamp, List<String> failures) {
+        Map<String, Long> categoryIds = categoryIds(userId, rows, Goal::getCategory);
+        return writeChunk(INSERT_GOAL, rows, failures, (ps, g) -> {
+            ps.setString(1, g.getGoalName());
+            ps.setString(2, g.getCategory());
+            ps.setObject(3, g.getTargetAmount(), Types.DOUBLE);
+            ps.setObject(4, g.getCurrentAmount() != null ? g.getCurrentAmount() : 0.0, Types.DOUBLE);
+            ps.setObject(5, g.getDeadline(), Types.DATE);
+            ps.setString(6, g.getPriority());
+            ps.setObject(7, g.getCreatedAt(), Types.DATE);
+            ps.setLong(8, userId);
+            ps.setObject(9, stamp, Types.TIMESTAMP);
+            ps.setObject(10, categoryIds.get(g.getCategory()), Types.BIGINT);
+        });
+    }
+
+    // One dictionary lookup per chunk; if it fails the rows are still written, just without ids
+    private <T> Map<String, Long> categoryIds(Long userId, List<ImportBatch.PendingRow<T>> rows,
+                                              Function<T, String> category) {
+        if (rows.isEmpty()) {
+            return Collections.emptyMap();
+        }
+        Set<String> names = new HashSet<>();
+        rows.forEach(row -> names.add(category.apply(row.value())));
+        try {
+            return categoryService.categoryIds(userId, names);
+        } catch (DataAccessException e) {
+            log.warn("Could not resolve categories for an import chunk: {}",
+                    NestedExceptionUtils.getMostSpecificCause(e).getMessage());
+            return Collections.emptyMap();
+        }
+    }
+
+    private <T> int writeChunk(String sql, List<ImportBatch.PendingRow<T>> rows, List<String> failures,
+                               ParameterizedPreparedStatementSetter<T> setter) {
+        if (rows.isEmpty()) {
+            return 0;
+        }
+        try {
+            chunkTransaction.executeWithoutResult(status ->
+                    jdbcTemplate.batchUpdate(sql, rows, rows.size(), (ps, row) -> setter.setValues(ps, row.value())));
+            return rows.size();
+        } catch (DataAccessException chunkError) {
+            log.warn("Import chunk of {} rows failed, retrying row by row: {}",
+                    rows.size(), NestedExceptionUtils.getMostSpecificCause(chunkError).getMessage());
+        }
+
+        // Isolate the bad rows: each one gets its own transaction
+        int saved = 0;
+        for (ImportBatch.PendingRow<T> row : rows) {
+            try {
+                chunkTransaction.executeWithoutResult(status ->
+                        jdbcTemplate.update(sql, ps -> setter.setValues(ps, row.value())));
+                saved++;
+            } catch (DataAccessException rowError) {
+                failures.add(row.label() + ": " + NestedExceptionUtils.getMostSpecificCause(rowError).getMessage());
+            }
+        }
+        return saved;
+    }
+}
@@ -0,0 +1,220 @@
+package com.budgetwise.service;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.YearMonth;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.Locale;
+
+/**
+ * Date parsing for imports. The shapes our own exports produce (ISO, dd-MM-yyyy,
+ * MM/dd/yyyy, "Jan 24, 2026") are recognised by looking at separator positions and
+ * decoded digit by digit, so the common case never allocates a formatter or throws.
+ * Anything else falls back to a fixed list of precompiled formatters.
+ */
+public final class ImportDateParser {
+
+    private static final DateTimeFormatter[] DATE_TIME_FALLBACKS = {
+            DateTimeFormatter.ISO_LOCAL_DATE_TIME,
+            DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss"),
+            DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm"),
+            DateTimeFormatter.ofPattern("dd-MM-yyyy HH:mm:ss"),
+            DateTimeFormatter.ofPattern("MM/dd/yyyy HH:mm:ss")
+    };
+
+    private static final DateTimeFormatter[] DATE_FALLBACKS = {
+            DateTimeFormatter.ISO_LOCAL_DATE,
+            DateTimeFormatter.ofPattern("dd-MM-yyyy"),
+            DateTimeFormatter.ofPattern("MM/dd/yyyy"),
+            DateTimeFormatter.ofPattern("dd/MM/yyyy"),
+            DateTimeFormatter.ofPattern("MMM d, yyyy", Locale.ENGLISH)
+    };
+
+    private static final String[] MONTHS = {
+            "JAN", "FEB", "MAR", "APR", "MAY", "JUN", "JUL", "AUG", "SEP", "OCT", "NOV", "DEC"
+    };
+
+    private static final int[] NANO_SCALE = {
+            1, 10, 100, 1_000, 10_000, 100_000, 1_000_000, 10_000_000, 100_000_000, 1_000_000_000
+    };
+
+    private ImportDateParser() {
+    }
+
+    /**
+     * Parses a date-time, accepting date-only values as start of day. Returns null if unrecognised.
+     */
+    public static LocalDateTime parseDateTime(String value) {
+        if (value == null || value.isBlank()) {
+            return null;
+        }
+        String s = value.trim();
+
+        LocalDate date = numericDatePrefix(s);
+        if (date != null) {
+            if (s.length() == 10) {
+                return date.atStartOfDay();
+            }
+            LocalTime time = timeSuffix(s, 10);
+            if (time != null) {
+                return LocalDateTime.of(date, time);
+            }
+        }
+        LocalDate named = monthNameDate(s);
+        if (named != null) {
+            return named.atStartOfDay();
+        }
+
+        for (DateTimeFormatter formatter : DATE_TIME_FALLBACKS) {
+            try {
+                return LocalDateTime.parse(s, formatter);
+            } catch (DateTimeParseException ignored) {
+            }
+        }
+
+        LocalDate dateOnly = parseDate(s);
+        return dateOnly != null ? dateOnly.atStartOfDay() : null;
+    }
+
+    /**
+     * Parses a calendar date. Returns null if unrecognised.
+     */
+    public static LocalDate parseDate(String value) {
+        if (value == null || value.isBlank()) {
+            return null;
+        }
+        String s = value.trim();
+
+        if (s.length() == 10) {
+            LocalDate date = numericDatePrefix(s);
+            if (date != null) {
+                return date;
+            }
+        }
+        LocalDate named = monthNameDate(s);
+        if (named != null) {
+            return named;
+        }
+
+        for (DateTimeFormatter formatter : DATE_FALLBACKS) {
+            try {
+                return LocalDate.parse(s, formatter);
+            } catch (DateTimeParseException ignored) {
+            }
+        }
+        return null;
+    }
+
+    // yyyy-MM-dd, dd-MM-yyyy, MM/dd/yyyy (or dd/MM/yyyy when the month would be > 12)
+    private static LocalDate numericDatePrefix(String s) {
+        if (s.length() < 10) {
+            return null;
+        }
+        if (s.charAt(4) == '-' && s.charAt(7) == '-') {
+            return date(number(s, 0, 4), number(s, 5, 2), number(s, 8, 2));
+        }
+        if (s.charAt(2) == '-' && s.charAt(5) == '-') {
+            return date(number(s, 6, 4), number(s, 3, 2), number(s, 0, 2));
+        }
+        if (s.charAt(2) == '/' && s.charAt(5) == '/') {
+            int first = number(s, 0, 2);
+            int second = number(s, 3, 2);
+            int year = number(s, 6, 4);
+            LocalDate monthFirst = date(year, first, second);
+            return monthFirst != null ? monthFirst : date(year, second, first);
+        }
+        return null;
+    }
+
+    // [T| ]HH:mm[:ss[.fraction]] starting at the given index, covering the rest of the string
+    private static LocalTime timeSuffix(String s, int from) {
+        if (s.length() < from + 6) {
+            return null;
+        }
+        char separator = s.charAt(from);
+        if ((separator != 'T' && separator != ' ') || s.charAt(from + 3) != ':') {
+            return null;
+        }
+        int hour = number(s, from + 1, 2);
+        int minute = number(s, from + 4, 2);
+        int second = 0;
+        int nanos = 0;
+
+        int pos = from + 6;
+        if (pos < s.length()) {
+            if (s.charAt(pos) != ':') {
+                return null;
+            }
+            second = number(s, pos + 1, 2);
+            pos += 3;
+            if (pos < s.length()) {
+                int digits = s.length() - pos - 1;
+                if (s.charAt(pos) != '.' || digits < 1 || digits > 9) {
+                    return null;
+                }
+                int fraction = number(s, pos + 1, digits);
+                if (fraction < 0) {
+                    return null;
+                }
+                nanos = fraction * NANO_SCALE[9 - digits];
+            }
+        }
+
+        if (hour < 0 || hour > 23 || minute < 0 || minute > 59 || second < 0 || second > 59) {
+            return null;
+        }
+        return LocalTime.of(hour, minute, second, nanos);
+    }
+
+    // "Jan 24, 2026" / "Jan 4,2026" as printed in PDF statements
+    private static LocalDate monthNameDate(String s) {
+        if (s.length() < 10 || s.length() > 12 || s.charAt(3) != ' ') {
+            return null;
+        }
+        int month = 0;
+        for (int i = 0; i < MONTHS.length; i++) {
+            if (s.regionMatches(true, 0, MONTHS[i], 0, 3)) {
+                month = i + 1;
+                break;
+            }
+        }
+        int comma = s.indexOf(',', 4);
+        if (month == 0 || comma < 5 || comma > 6) {
+            return null;
+        }
+        int day = number(s, 4, comma - 4);
+        int yearStart = s.charAt(comma + 1) == ' ' ? comma + 2 : comma + 1;
+        if (s.length() - yearStart != 4) {
+            return null;
+        }
+        return date(number(s, yearStart, 4), month, day);
+    }
+
+    private static LocalDate date(int year, int month, int day) {
+        if (year < 0 || month < 1 || month > 12 || day < 1) {
+            return null;
+        }
+        if (day > YearMonth.of(year, month).lengthOfMonth()) {
+            return null;
+        }
+        return LocalDate.of(year, month, day);
+    }
+
+    // Non-negative decimal number from a fixed slice, or -1 if the slice is not all digits
+    private static int number(String s, int from, int length) {
+        if (length <= 0 || from + length > s.length()) {
+            return -1;
+        }
+        int value = 0;
+        for (int i = from; i < from + length; i++) {
+            char c = s.charAt(i);
+            if (c < '0' || c > '9') {
+                return -1;
+            }
+            value = value * 10 + (c - '0');
+        }
+        return value;
+    }
+}
@@ -0,0 +1,103 @@
+package com.budgetwise.service;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Live counters for one import run. Updated from parser and writer threads,
+ * read by progress polling, so everything here is thread-safe.
+ */
+public class ImportProgress {
+
+    public enum Status { RUNNING, COMPLETED, FAILED }
+
+    private final String format;
+    private final Instant startedAt = Instant.now();
+    private final AtomicLong rowsParsed = new AtomicLong();
+    private final AtomicLong rowsSaved = new AtomicLong();
+    private final AtomicLong rowsFailed = new AtomicLong();
+    private final AtomicLong duplicatesSkipped = new AtomicLong();
+
+    private volatile Status status = Status.RUNNING;
+    private volatile Instant finishedAt;
+    private volatile String message;
+
+    public ImportProgress(String format) {
+        this.format = format;
+    }
+
+    public void rowParsed() {
+        rowsParsed.incrementAndGet();
+    }
+
+    public void rowsSaved(int count) {
+        rowsSaved.addAndGet(count);
+    }
+
+    public void rowFailed() {
+        rowsFailed.incrementAndGet();
+    }
+
+    public void rowsFailed(int count) {
+        rowsFailed.addAndGet(count);
+    }
+
+    public void duplicateSkipped(int count) {
+        duplicatesSkipped.addAndGet(count);
+    }
+
+    public void complete(String message) {
+        this.message = message;
+        this.finishedAt = Instant.now();
+        this.status = Status.COMPLETED;
+    }
+
+    public void fail(String message) {
+        this.message = message;
+        this.finishedAt = Instant.now();
+        this.status = Status.FAILED;
+    }
+
+    public Status getStatus() {
+        return status;
+    }
+
+    public boolean isFinished() {
+        return status != Status.RUNNING;
+    }
+
+    public long getRowsSaved() {
+        return rowsSaved.get();
+    }
+
+    public long getDuplicatesSkipped() {
+        return duplicatesSkipped.get();
+    }
+
+    /**
+     * Saved rows per second over the run so far (or the whole run once finished).
+     */
+    public double getRowsPerSecond() {
+        Instant end = finishedAt != null ? finishedAt : Instant.now();
+        long millis = Math.max(1, Duration.between(startedAt, end).toMillis());
+        return Math.round(rowsSaved.get() * 1000.0 * 10 / millis) / 10.0;
+    }
+
+    public Map<String, Object> toMap() {
+        Map<String, Object> map = new LinkedHashMap<>();
+        map.put("format", format);
+        map.put("status", status.name());
+        map.put("rowsParsed", rowsParsed.get());
+        map.put("rowsSaved", rowsSaved.get());
+        map.put("rowsFailed", rowsFailed.get());
+        map.put("duplicatesSkipped", duplicatesSkipped.get());
+        map.put("rowsPerSecond", getRowsPerSecond());
+        map.put("startedAt", startedAt.toString());
+        map.put("finishedAt", finishedAt != null ? finishedAt.toString() : null);
+        map.put("message", message);
+        return map;
+    }
+}
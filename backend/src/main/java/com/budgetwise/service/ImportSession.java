@@ -0,0 +1,128 @@
+package com.budgetwise.service;
+
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * One resumable upload: chunks are appended in order to a temp file, then the file is
+ * imported in the background. Chunk bookkeeping is synchronized on the session so
+ * retried or concurrent uploads of the same chunk cannot interleave.
+ */
+public class ImportSession {
+
+    public enum Status { UPLOADING, QUEUED, PROCESSING, COMPLETED, FAILED }
+
+    private final String id;
+    private final Long userId;
+    private final String format;
+    private final Map<String, Boolean> options;
+    private final Path file;
+    private final Instant createdAt = Instant.now();
+    private final List<SseEmitter> emitters = new CopyOnWriteArrayList<>();
+
+    private int nextChunkIndex;
+    private long bytesReceived;
+    private volatile Status status = Status.UPLOADING;
+    private volatile Instant lastActivity = Instant.now();
+    private volatile ImportProgress progress;
+    private volatile Map<String, Object> result;
+
+    public ImportSession(String id, Long userId, String format, Map<String, Boolean> options, Path file) {
+        this.id = id;
+        this.userId = userId;
+        this.format = format;
+        this.options = options;
+        this.file = file;
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    public Long getUserId() {
+        return userId;
+    }
+
+    public String getFormat() {
+        return format;
+    }
+
+    public Map<String, Boolean> getOptions() {
+        return options;
+    }
+
+    public Path getFile() {
+        return file;
+    }
+
+    public List<SseEmitter> getEmitters() {
+        return emitters;
+    }
+
+    public synchronized int getNextChunkIndex() {
+        return nextChunkIndex;
+    }
+
+    public synchronized long getBytesReceived() {
+        return bytesReceived;
+    }
+
+    synchronized void chunkAppended(int length) {
+        nextChunkIndex++;
+        bytesReceived += length;
+        touch();
+    }
+
+    public Status getStatus() {
+        return status;
+    }
+
+    void setStatus(Status status) {
+        this.status = status;
+        touch();
+    }
+
+    public boolean isFinished() {
+        return status == Status.COMPLETED || status == Status.FAILED;
+    }
+
+    public Instant getLastActivity() {
+        return lastActivity;
+    }
+
+    void touch() {
+        lastActivity = Instant.now();
+    }
+
+    public ImportProgress getProgress() {
+        return progress;
+    }
+
+    void setProgress(ImportProgress progress) {
+        this.progress = progress;
+    }
+
+    void finish(Map<String, Object> result) {
+        this.result = result;
+        setStatus(Boolean.FALSE.equals(result.get("success")) ? Status.FAILED : Status.COMPLETED);
+    }
+
+    public Map<String, Object> toMap() {
+        Map<String, Object> map = new LinkedHashMap<>();
+        map.put("sessionId", id);
+        map.put("format", format);
+        map.put("status", status.name());
+        map.put("nextChunkIndex", getNextChunkIndex());
+        map.put("bytesReceived", getBytesReceived());
+        map.put("createdAt", createdAt.toString());
+        map.put("progress", progress != null ? progress.toMap() : null);
+        map.put("result", result);
+        return map;
+    }
+}
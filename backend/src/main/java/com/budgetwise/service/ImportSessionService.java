@@ -0,0 +1,332 @@
+package com.budgetwise.service;
+
+import com.budgetwise.model.User;
+import com.budgetwise.repository.UserRepository;
+import com.budgetwise.security.CurrentUser;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.BufferedInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Resumable chunked imports. A client opens a session, uploads the file as numbered
+ * chunks (re-sending a chunk that was already stored is acknowledged, skipping ahead is
+ * rejected), then completes the session to start the import on a background thread.
+ * Progress is available by polling the session or over server-sent events.
+ *
+ * <p>Sessions live in memory only; idle ones are dropped together with their temp file.
+ */
+@Service
+@Slf4j
+public class ImportSessionService {
+
+    private static final long SSE_TIMEOUT_MS = Duration.ofMinutes(30).toMillis();
+
+    private final ExportImportService exportImportService;
+    private final UserRepository userRepository;
+    private final ThreadPoolTaskExecutor importJobExecutor;
+    private final CurrentUser currentUser;
+    private final Map<String, ImportSession> sessions = new ConcurrentHashMap<>();
+    // Ids of each user's unfinished sessions; only changed inside compute, which makes
+    // the per-user limit check and the registration one atomic step
+    private final Map<Long, Set<String>> openSessionIds = new ConcurrentHashMap<>();
+
+    @Value("${import.session.max-bytes:104857600}")
+    private long maxSessionBytes;
+
+    @Value("${import.session.max-chunk-bytes:5242880}")
+    private int maxChunkBytes;
+
+    @Value("${import.session.max-per-user:3}")
+    private int maxSessionsPerUser;
+
+    @Value("${import.session.ttl-minutes:60}")
+    private long sessionTtlMinutes;
+
+    public ImportSessionService(ExportImportService exportImportService, UserRepository userRepository,
+                                @Qualifier("importJobExecutor") ThreadPoolTaskExecutor importJobExecutor,
+                                CurrentUser currentUser) {
+        this.exportImportService = exportImportService;
+        this.userRepository = userRepository;
+        this.importJobExecutor = importJobExecutor;
+        this.currentUser = currentUser;
+    }
+
+    public Map<String, Object> createSession(String filename, Map<String, Boolean> options) throws IOException {
+        return openSession(currentUser.getId(), filename, options).toMap();
+    }
+
+    /**
+     * One-shot variant for regular uploads: stores the whole file as a single chunk and
+     * queues the import straight away. Returns the session so the client can follow it.
+     */
+    public Map<String, Object> startImport(String filename, InputStream content, Map<String, Boolean> options)
+            throws IOException {
+        ImportSession session = openSession(currentUser.getId(), filename, options);
+        long size = Files.copy(content, session.getFile(), StandardCopyOption.REPLACE_EXISTING);
+        session.chunkAppended((int) Math.min(size, Integer.MAX_VALUE));
+        return completeSession(session.getId());
+    }
+
+    private ImportSession openSession(Long userId, String filename, Map<String, Boolean> options) throws IOException {
+        String format = formatOf(filename);
+        String id = UUID.randomUUID().toString();
+        openSessionIds.compute(userId, (key, ids) -> {
+            Set<String> open = ids != null ? ids : new HashSet<>();
+            open.removeIf(openId -> {
+                ImportSession existing = sessions.get(openId);
+                // Not registered yet means another request is still opening it
+                return existing != null && existing.isFinished();
+            });
+            if (open.size() >= maxSessionsPerUser) {
+                throw new IllegalStateException("Too many imports in progress. Finish or wait for one before starting another.");
+            }
+            open.add(id);
+            return open;
+        });
+
+        Path file;
+        try {
+            file = Files.createTempFile("budgetwise-import-" + id, "." + format);
+        } catch (IOException e) {
+            release(userId, id);
+            throw e;
+        }
+        ImportSession session = new ImportSession(id, userId, format, options, file);
+        sessions.put(id, session);
+        log.info("Opened import session {} ({}) for user {}", id, format, userId);
+        return session;
+    }
+
+    /**
+     * Stores chunk {@code index}. Chunks must arrive in order; a chunk that was already
+     * stored is acknowledged again without being written twice, so clients can safely
+     * retry the last chunk after a dropped connection. Each chunk is written at the
+     * stored length, so bytes left by a write that failed partway are overwritten.
+     */
+    public Map<String, Object> appendChunk(String sessionId, int index, byte[] data) throws IOException {
+        ImportSession session = getOwnedSession(sessionId);
+        if (data == null || data.length == 0) {
+            throw new IllegalArgumentException("Chunk is empty");
+        }
+        if (data.length > maxChunkBytes) {
+            throw new IllegalArgumentException("Chunk too large. Maximum chunk size is " + maxChunkBytes + " bytes");
+        }
+
+        synchronized (session) {
+            if (session.getStatus() != ImportSession.Status.UPLOADING) {
+                throw new IllegalStateException("Import session is no longer accepting chunks");
+            }
+            int expected = session.getNextChunkIndex();
+            if (index < expected) {
+                session.touch();
+                return session.toMap();
+            }
+            if (index > expected) {
+                throw new IllegalStateException("Expected chunk " + expected + " but received chunk " + index);
+            }
+            if (session.getBytesReceived() + data.length > maxSessionBytes) {
+                throw new IllegalArgumentException("File too large. Maximum import size is " + maxSessionBytes + " bytes");
+            }
+            writeAt(session.getFile(), session.getBytesReceived(), data);
+            session.chunkAppended(data.length);
+        }
+        return session.toMap();
+    }
+
+    // Cuts off whatever a failed earlier attempt left behind, so a retried chunk is stored once
+    private static void writeAt(Path file, long offset, byte[] data) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.WRITE)) {
+            channel.truncate(offset);
+            ByteBuffer buffer = ByteBuffer.wrap(data);
+            long position = offset;
+            while (buffer.hasRemaining()) {
+                position += channel.write(buffer, position);
+            }
+        }
+    }
+
+    public Map<String, Object> completeSession(String sessionId) {
+        ImportSession session = getOwnedSession(sessionId);
+        synchronized (session) {
+            if (session.getStatus() != ImportSession.Status.UPLOADING) {
+                // Completing twice is harmless
+                return session.toMap();
+            }
+            if (session.getBytesReceived() == 0) {
+                throw new IllegalArgumentException("File is empty. Please upload at least one chunk.");
+            }
+            session.setProgress(new ImportProgress(session.getFormat()));
+            session.setStatus(ImportSession.Status.QUEUED);
+            try {
+                importJobExecutor.execute(() -> runImport(session));
+            } catch (TaskRejectedException e) {
+                session.setProgress(null);
+                session.setStatus(ImportSession.Status.UPLOADING);
+                throw new IllegalStateException("The import queue is full. Please try completing the import again shortly.");
+            }
+        }
+        return session.toMap();
+    }
+
+    public Map<String, Object> getSession(String sessionId) {
+        return getOwnedSession(sessionId).toMap();
+    }
+
+    public SseEmitter subscribe(String sessionId) {
+        ImportSession session = getOwnedSession(sessionId);
+        SseEmitter emitter = new SseEmitter(SSE_TIMEOUT_MS);
+        emitter.onCompletion(() -> session.getEmitters().remove(emitter));
+        emitter.onTimeout(() -> session.getEmitters().remove(emitter));
+        emitter.onError(e -> session.getEmitters().remove(emitter));
+        session.getEmitters().add(emitter);
+        // Send the current state straight away; the scheduler pushes the rest
+        send(session, emitter);
+        return emitter;
+    }
+
+    /**
+     * Ends the user's progress streams (logout); the imports themselves keep running.
+     */
+    public void disconnect(Long userId) {
+        if (userId == null) {
+            return;
+        }
+        for (ImportSession session : sessions.values()) {
+            if (userId.equals(session.getUserId())) {
+                session.getEmitters().forEach(SseEmitter::complete);
+                session.getEmitters().clear();
+            }
+        }
+    }
+
+    private void runImport(ImportSession session) {
+        session.setStatus(ImportSession.Status.PROCESSING);
+        try {
+            User user = userRepository.findById(session.getUserId())
+                    .orElseThrow(() -> new RuntimeException("User not found"));
+            try (InputStream in = new BufferedInputStream(Files.newInputStream(session.getFile()))) {
+                session.finish(exportImportService.importData(user, session.getFormat(), in,
+                        session.getOptions(), session.getProgress()));
+            }
+        } catch (Exception e) {
+            log.error("Import session {} failed: {}", session.getId(), e.getMessage());
+            session.getProgress().fail(e.getMessage());
+            Map<String, Object> result = new HashMap<>();
+            result.put("success", false);
+            result.put("message", "Import failed: " + e.getMessage());
+            session.finish(result);
+        } finally {
+            deleteQuietly(session.getFile());
+        }
+        log.info("Import session {} finished with status {}", session.getId(), session.getStatus());
+    }
+
+    /**
+     * Pushes progress to SSE subscribers once a second and closes their streams when
+     * the import is done.
+     */
+    @Scheduled(fixedDelay = 1000)
+    public void publishProgress() {
+        for (ImportSession session : sessions.values()) {
+            if (session.getEmitters().isEmpty()) {
+                continue;
+            }
+            for (SseEmitter emitter : session.getEmitters()) {
+                send(session, emitter);
+            }
+        }
+    }
+
+    @Scheduled(fixedDelay = 60000)
+    public void removeStaleSessions() {
+        Instant cutoff = Instant.now().minus(Duration.ofMinutes(sessionTtlMinutes));
+        sessions.values().removeIf(session -> {
+            boolean busy = session.getStatus() == ImportSession.Status.QUEUED
+                    || session.getStatus() == ImportSession.Status.PROCESSING;
+            if (busy || session.getLastActivity().isAfter(cutoff)) {
+                return false;
+            }
+            session.getEmitters().forEach(SseEmitter::complete);
+            deleteQuietly(session.getFile());
+            release(session.getUserId(), session.getId());
+            log.info("Removed idle import session {}", session.getId());
+            return true;
+        });
+    }
+
+    private void release(Long userId, String sessionId) {
+        openSessionIds.computeIfPresent(userId, (key, ids) -> {
+            ids.remove(sessionId);
+            return ids.isEmpty() ? null : ids;
+        });
+    }
+
+    private void send(ImportSession session, SseEmitter emitter) {
+        boolean finished = session.isFinished();
+        try {
+            emitter.send(SseEmitter.event()
+                    .name(finished ? "complete" : "progress")
+                    .data(session.toMap()));
+            if (finished) {
+                emitter.complete();
+            }
+        } catch (IOException | IllegalStateException e) {
+            // Client went away
+            session.getEmitters().remove(emitter);
+        }
+    }
+
+    private ImportSession getOwnedSession(String sessionId) {
+        ImportSession session = sessions.get(sessionId);
+        if (session == null || !session.getUserId().equals(currentUser.getId())) {
+            throw new NoSuchElementException("Import session not found");
+        }
+        return session;
+    }
+
+    private String formatOf(String filename) {
+        if (filename != null) {
+            String lower = filename.toLowerCase();
+            if (lower.endsWith(".csv")) {
+                return "csv";
+            } else if (lower.endsWith(".json")) {
+                return "json";
+            } else if (lower.endsWith(".pdf")) {
+                return "pdf";
+            }
+        }
+        throw new IllegalArgumentException("Invalid file format. Please upload a CSV, JSON, or PDF file.");
+    }
+
+    private void deleteQuietly(Path file) {
+        try {
+            Files.deleteIfExists(file);
+        } catch (IOException e) {
+            log.warn("Could not delete import file {}: {}", file, e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,133 @@
+package com.budgetwise.service;
+
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Like count changes that are not written to {@code posts.likes} yet. Likes and unlikes
+ * only add +1/-1 to a per-post {@link LongAdder}; a scheduled flush turns everything
+ * pending into one batch of relative {@code UPDATE}s, so busy posts no longer see
+ * read-modify-write races or row contention on every click.
+ *
+ * <p>The likes table stays the source of truth; this only carries the denormalized
+ * counter. Pending deltas are flushed on shutdown, and schema.sql recounts on startup
+ * in case the process died in between.
+ *
+ * <p>Memory is bounded by activity, not history: drained entries are dropped after each
+ * flush, and running totals are only kept for the posts {@link FeedCache} tracks.
+ */
+@Component
+@Slf4j
+public class LikeCounter {
+
+    private static final String APPLY_DELTA = "UPDATE posts SET likes = GREATEST(COALESCE(likes, 0) + ?, 0) WHERE id = ?";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final Map<Long, LongAdder> pending = new ConcurrentHashMap<>();
+    // Running total of the deltas of each tracked post; lets cached counts catch up
+    private final Map<Long, LongAdder> totals = new ConcurrentHashMap<>();
+
+    public LikeCounter(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    public void add(Long postId, long delta) {
+        LongAdder total = totals.get(postId);
+        if (total != null) {
+            total.add(delta);
+        }
+        // Inside compute, so flush can never drop an entry between lookup and add
+        pending.compute(postId, (id, adder) -> {
+            LongAdder target = adder != null ? adder : new LongAdder();
+            target.add(delta);
+            return target;
+        });
+    }
+
+    /**
+     * The stored count plus whatever has not been flushed yet.
+     */
+    public int currentLikes(Long postId, Integer storedLikes) {
+        LongAdder adder = pending.get(postId);
+        long likes = (storedLikes != null ? storedLikes : 0) + (adder != null ? adder.sum() : 0);
+        return (int) Math.max(0, likes);
+    }
+
+    /**
+     * All like changes to the post since it was first tracked, flushed or not; 0 for
+     * posts that are not tracked.
+     */
+    public long totalDelta(Long postId) {
+        LongAdder adder = totals.get(postId);
+        return adder != null ? adder.sum() : 0;
+    }
+
+    /**
+     * Starts keeping the post's running total, if not already, and returns it.
+     */
+    public long track(Long postId) {
+        return totals.computeIfAbsent(postId, id -> new LongAdder()).sum();
+    }
+
+    /**
+     * Stops keeping running totals for every post not in {@code postIds}.
+     */
+    public void retainTracked(Set<Long> postIds) {
+        totals.keySet().retainAll(postIds);
+    }
+
+    /**
+     * Forgets a deleted post. A like racing with the delete only produces an update
+     * that matches no row.
+     */
+    public void evict(Long postId) {
+        pending.remove(postId);
+        totals.remove(postId);
+    }
+
+    @Scheduled(fixedDelayString = "${posts.like-flush-interval-ms:1000}")
+    public void flush() {
+        List<Object[]> batch = new ArrayList<>();
+        List<LongAdder> adders = new ArrayList<>();
+        for (Map.Entry<Long, LongAdder> entry : pending.entrySet()) {
+            // Take what is there now by subtracting it; increments landing meanwhile stay behind
+            long delta = entry.getValue().sum();
+            if (delta != 0) {
+                entry.getValue().add(-delta);
+                batch.add(new Object[] { delta, entry.getKey() });
+                adders.add(entry.getValue());
+            }
+        }
+        if (!batch.isEmpty()) {
+            try {
+                jdbcTemplate.batchUpdate(APPLY_DELTA, batch);
+            } catch (RuntimeException e) {
+                // Put the deltas back so the next flush retries them
+                for (int i = 0; i < batch.size(); i++) {
+                    adders.get(i).add((Long) batch.get(i)[0]);
+                }
+                log.warn("Could not flush like counts for {} posts: {}", batch.size(), e.getMessage());
+                return;
+            }
+        }
+        // Drained posts; a like arriving later creates a fresh entry
+        for (Long postId : pending.keySet()) {
+            pending.computeIfPresent(postId, (id, adder) -> adder.sum() == 0 ? null : adder);
+        }
+    }
+
+    @PreDestroy
+    void flushOnShutdown() {
+        flush();
+    }
+}
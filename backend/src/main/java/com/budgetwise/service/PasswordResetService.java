@@ -4,6 +4,7 @@ import com.budgetwise.model.PasswordResetToken;
 import com.budgetwise.model.User;
 import com.budgetwise.repository.PasswordResetTokenRepository;
 import com.budgetwise.repository.UserRepository;
+import com.budgetwise.security.UserIdentityCache;
 import jakarta.transaction.Transactional;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -22,6 +23,8 @@ public class PasswordResetService {
     private final PasswordResetTokenRepository tokenRepository;
     private final EmailService emailService;
     private final PasswordEncoder passwordEncoder;
+    private final UserIdentityCache userIdentityCache;
+    private final RefreshTokenService refreshTokenService;
     
     @Transactional
     public void createPasswordResetToken(String email) {
@@ -71,6 +74,9 @@ public class PasswordResetService {
         User user = resetToken.getUser();
         user.setPassword(passwordEncoder.encode(newPassword));
         userRepository.save(user);
+        userIdentityCache.invalidate(user.getId());
+        // Sessions started with the old password end here
+        refreshTokenService.revokeAll(user.getId());
         
         // Mark token as used
         resetToken.setUsed(true);
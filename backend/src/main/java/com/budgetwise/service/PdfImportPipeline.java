@@ -0,0 +1,461 @@
+package com.budgetwise.service;
+
+import com.budgetwise.model.Budget;
+import com.budgetwise.model.Goal;
+import com.budgetwise.model.Transaction;
+import com.budgetwise.model.User;
+import com.itextpdf.text.io.RandomAccessSourceFactory;
+import com.itextpdf.text.pdf.PdfReader;
+import com.itextpdf.text.pdf.RandomAccessFileOrArray;
+import com.itextpdf.text.pdf.parser.PdfTextExtractor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Page-parallel import of BudgetWise PDF reports.
+ *
+ * <p>Text extraction is split into page ranges, each handled by a worker with its own
+ * {@link PdfReader} (readers are not thread-safe). The calling thread walks the pages in
+ * order only to track which report section each page starts in, a cheap scan of the
+ * headings, and hands every page to the pool for row classification. Classified rows
+ * are fed into the {@link ImportBatch} in page order as soon as the next page is ready,
+ * so writing overlaps with extraction.
+ */
+@Component
+@Slf4j
+public class PdfImportPipeline {
+
+    private enum Section { NONE, TRANSACTIONS, BUDGETS, GOALS }
+
+    private record PdfRow(Object entity, String label) {}
+
+    private static final Pattern TRANSACTION_ROW = Pattern.compile(
+            "^(?<date>[A-Za-z]{3}\\s+\\d{1,2},\\s*\\d{4})\\s+" +
+            "(?<desc>.+?)\\s+" +
+            "(?<cat>\\S+)\\s+" +
+            "(?<type>(?i)income|expense)\\s+" +
+            "(?<amt>[+-]?\\$?[\\d,]*\\.\\d{2})\\s+" +
+            "(?<method>\\S+)$");
+    private static final Pattern BUDGET_ROW = Pattern.compile(
+            "^(?<cat>.+?)\\s+\\$?(?<budget>[\\d,]*\\.\\d{2})\\s+\\$?(?<spent>[\\d,]*\\.\\d{2})\\s+\\$?(?<rem>[\\d,]*\\.\\d{2})\\s+(?<status>.+)$");
+    private static final Pattern COLUMN_SPLIT = Pattern.compile("\\s*\\|\\s*|\\s{2,}");
+    private static final Pattern LETTERS_ONLY = Pattern.compile("^[A-Za-z\\s]*$");
+    private static final Pattern HAS_AMOUNT = Pattern.compile(".*[+-]?\\$?\\d+[.,]\\d{2}.*");
+    private static final Pattern HAS_NUMERIC_DATE = Pattern.compile(".*\\d{1,2}[/-]\\d{1,2}[/-]\\d{2,4}.*");
+    private static final Pattern HAS_MONTH_DATE = Pattern.compile(".*(JAN|FEB|MAR|APR|MAY|JUN|JUL|AUG|SEP|OCT|NOV|DEC).*\\d{1,2}.*");
+    private static final Pattern HAS_DIGIT = Pattern.compile(".*\\$?\\d+.*");
+    private static final Pattern HAS_PERCENT = Pattern.compile(".*[%].*");
+    private static final Pattern GOAL_NAME = Pattern.compile("^[A-Za-z][A-Za-z0-9\\s]*$");
+    private static final Pattern GOAL_AMOUNT = Pattern.compile("\\$(\\d+[.,]\\d{2})");
+    private static final Pattern NOT_AMOUNT_CHARS = Pattern.compile("[^0-9.,+-]");
+
+    private final ThreadPoolTaskExecutor executor;
+    private final int extractionWorkers;
+
+    public PdfImportPipeline(@Qualifier("pdfImportExecutor") ThreadPoolTaskExecutor executor,
+                             @Value("${import.pdf-threads:4}") int extractionWorkers) {
+        this.executor = executor;
+        this.extractionWorkers = Math.max(1, extractionWorkers);
+    }
+
+    /**
+     * Extracts and classifies every page, adding rows to the batch in page order.
+     * The caller flushes the batch afterwards.
+     */
+    public void run(ImportBatch batch, User user, InputStream inputStream, Map<String, Boolean> options)
+            throws IOException, InterruptedException {
+        byte[] pdf = inputStream.readAllBytes();
+        int pageCount;
+        PdfReader probe = openReader(pdf);
+        try {
+            pageCount = probe.getNumberOfPages();
+        } finally {
+            probe.close();
+        }
+        log.info("PDF import: {} pages, {} bytes", pageCount, pdf.length);
+
+        List<CompletableFuture<String[]>> pages = new ArrayList<>(pageCount);
+        for (int i = 0; i < pageCount; i++) {
+            pages.add(new CompletableFuture<>());
+        }
+        List<Future<?>> extractors = new ArrayList<>();
+        int rangeSize = (pageCount + extractionWorkers - 1) / Math.max(1, extractionWorkers);
+        for (int from = 1; from <= pageCount; from += rangeSize) {
+            int first = from;
+            int last = Math.min(pageCount, from + rangeSize - 1);
+            extractors.add(executor.submit(() -> extractPages(pdf, first, last, pages)));
+        }
+
+        List<Future<List<PdfRow>>> classified = new ArrayList<>(pageCount);
+        int nextToWrite = 0;
+        try {
+            Section section = Section.NONE;
+            for (int i = 0; i < pageCount; i++) {
+                String[] lines = awaitPage(pages.get(i));
+                Section start = section;
+                section = trackSections(lines, section);
+                int pageNumber = i + 1;
+                classified.add(executor.submit(() -> classifyPage(lines, pageNumber, start, user, options)));
+
+                // Write whatever is ready without blocking extraction of later pages
+                while (nextToWrite < classified.size() && classified.get(nextToWrite).isDone()) {
+                    write(batch, awaitRows(classified.get(nextToWrite++)));
+                }
+            }
+            while (nextToWrite < classified.size()) {
+                write(batch, awaitRows(classified.get(nextToWrite++)));
+            }
+        } finally {
+            extractors.forEach(task -> task.cancel(true));
+            classified.forEach(task -> task.cancel(true));
+        }
+    }
+
+    // Partial read: objects are loaded when a page needs them
+    private static PdfReader openReader(byte[] pdf) throws IOException {
+        return new PdfReader(new RandomAccessFileOrArray(new RandomAccessSourceFactory().createSource(pdf)), null);
+    }
+
+    private void extractPages(byte[] pdf, int first, int last, List<CompletableFuture<String[]>> pages) {
+        PdfReader reader = null;
+        int page = first;
+        try {
+            reader = openReader(pdf);
+            for (; page <= last; page++) {
+                pages.get(page - 1).complete(PdfTextExtractor.getTextFromPage(reader, page).split("\n"));
+            }
+        } catch (Exception e) {
+            for (; page <= last; page++) {
+                pages.get(page - 1).completeExceptionally(e);
+            }
+        } finally {
+            if (reader != null) {
+                reader.close();
+            }
+        }
+    }
+
+    private void write(ImportBatch batch, List<PdfRow> rows) {
+        ImportProgress progress = batch.getProgress();
+        for (PdfRow row : rows) {
+            progress.rowParsed();
+            if (row.entity() instanceof Transaction transaction) {
+                batch.addTransaction(transaction, row.label());
+            } else if (row.entity() instanceof Budget budget) {
+                batch.addBudget(budget, row.label());
+            } else if (row.entity() instanceof Goal goal) {
+                batch.addGoal(goal, row.label());
+            }
+        }
+    }
+
+    private String[] awaitPage(CompletableFuture<String[]> page) throws IOException, InterruptedException {
+        try {
+            return page.get();
+        } catch (ExecutionException e) {
+            throw new IOException("Could not read PDF page: " + e.getCause().getMessage(), e.getCause());
+        }
+    }
+
+    private List<PdfRow> awaitRows(Future<List<PdfRow>> rows) throws IOException, InterruptedException {
+        try {
+            return rows.get();
+        } catch (ExecutionException e) {
+            throw new IOException("Could not parse PDF page: " + e.getCause().getMessage(), e.getCause());
+        }
+    }
+
+    // ---------- Sections ----------
+
+    /**
+     * Returns the section a heading line switches to, or null if the line is not a heading.
+     */
+    private Section sectionHeading(String line) {
+        String upper = line.toUpperCase();
+        if (upper.contains("TRANSACTION HISTORY") ||
+            (upper.contains("TRANSACTION") && upper.contains("HISTORY"))) {
+            return Section.TRANSACTIONS;
+        }
+        if ((upper.contains("BUDGET OVERVIEW") || upper.contains("BUDGET")) && !upper.contains("TRANSACTION")) {
+            return Section.BUDGETS;
+        }
+        if (upper.contains("SAVINGS GOALS") ||
+            (upper.contains("GOALS") && !upper.contains("TRANSACTION")) ||
+            (upper.contains("GOAL") && !upper.contains("TRANSACTION"))) {
+            return Section.GOALS;
+        }
+        return null;
+    }
+
+    private Section trackSections(String[] lines, Section section) {
+        for (String raw : lines) {
+            String line = raw.trim();
+            if (line.length() < 2) continue;
+            Section heading = sectionHeading(line);
+            if (heading != null) {
+                section = heading;
+            }
+        }
+        return section;
+    }
+
+    // ---------- Row classification ----------
+
+    private List<PdfRow> classifyPage(String[] lines, int pageNumber, Section section, User user,
+                                      Map<String, Boolean> options) {
+        List<PdfRow> rows = new ArrayList<>();
+        boolean wantTransactions = options.getOrDefault("transactions", false);
+        boolean wantBudgets = options.getOrDefault("budgets", false);
+        boolean wantGoals = options.getOrDefault("goals", false);
+
+        for (int lineIdx = 0; lineIdx < lines.length; lineIdx++) {
+            String line = lines[lineIdx].trim();
+            if (line.length() < 2) continue;
+
+            Section heading = sectionHeading(line);
+            if (heading != null) {
+                section = heading;
+                continue;
+            }
+
+            // Skip headers and metadata
+            if (isHeaderLine(line)) {
+                continue;
+            }
+
+            String label = "PDF page " + pageNumber + " line " + (lineIdx + 1);
+
+            // Transactions - Format: Date | Description | Category | Type | Amount | Method
+            if (section == Section.TRANSACTIONS && wantTransactions && isTransactionDataLine(line)) {
+                Transaction tx = parseTransactionLine(line, user);
+                if (tx != null) {
+                    rows.add(new PdfRow(tx, label));
+                }
+            }
+
+            // Budgets - Format: Category | Budget | Spent | Remaining | Status
+            if (section == Section.BUDGETS && wantBudgets && isBudgetDataLine(line)) {
+                Budget bdg = parseBudgetLine(line, user);
+                if (bdg != null) {
+                    rows.add(new PdfRow(bdg, label));
+                }
+            }
+
+            // Goals - multi-line blocks; a block never continues past the end of its page
+            if (section == Section.GOALS && wantGoals && isGoalStartLine(line)) {
+                List<String> goalLines = new ArrayList<>();
+                goalLines.add(line);
+                for (int i = lineIdx + 1; i < Math.min(lineIdx + 10, lines.length); i++) {
+                    String nextLine = lines[i].trim();
+                    if (nextLine.isEmpty()) break;
+                    if (isGoalStartLine(nextLine)) break; // Next goal
+                    if (isHeaderLine(nextLine)) break;
+                    goalLines.add(nextLine);
+                }
+                Goal gl = parseGoalBlock(goalLines, user);
+                if (gl != null) {
+                    rows.add(new PdfRow(gl, label));
+                }
+            }
+        }
+        return rows;
+    }
+
+    private boolean isHeaderLine(String line) {
+        String upper = line.toUpperCase();
+        return upper.contains("DATE") || upper.contains("DESCRIPTION") ||
+               upper.contains("CATEGORY") || upper.contains("TYPE") ||
+               upper.contains("AMOUNT") || upper.contains("BUDGETWISE") ||
+               upper.contains("FINANCIAL") || upper.contains("REPORT") ||
+               upper.contains("GENERATED") || line.contains("---") ||
+               line.contains("===") || upper.contains("USER:") ||
+               upper.contains("EMAIL") || upper.contains("METHOD") ||
+               upper.contains("BUDGET") || upper.contains("SPENT") ||
+               upper.contains("REMAINING") || upper.contains("STATUS") ||
+               upper.contains("HISTORY") || upper.contains("OVERVIEW") ||
+               upper.contains("GOALS");
+    }
+
+    private boolean isTransactionDataLine(String line) {
+        // Detect lines that look like table rows: contain a date and an amount
+        boolean looksLikeRow = !LETTERS_ONLY.matcher(line).matches();
+        boolean hasAmount = HAS_AMOUNT.matcher(line).matches();
+        boolean hasDateLike = HAS_NUMERIC_DATE.matcher(line).matches() ||
+                HAS_MONTH_DATE.matcher(line.toUpperCase()).matches();
+        return looksLikeRow && hasAmount && hasDateLike;
+    }
+
+    private Transaction parseTransactionLine(String line, User user) {
+        // Target layout from exported PDF table:
+        // Date | Description | Category | Type | Amount | Method
+        try {
+            Matcher m = TRANSACTION_ROW.matcher(line);
+            if (m.find()) {
+                String methodPart = m.group("method");
+                return buildTransaction(m.group("date"), m.group("desc"), m.group("cat"),
+                        m.group("type"), m.group("amt"), methodPart, user);
+            }
+
+            // Fallback: split by 2+ spaces or pipes and map positionally when 6+ columns
+            String[] parts = COLUMN_SPLIT.split(line);
+            if (parts.length >= 6) {
+                String datePart = (parts[0] + " " + parts[1] + " " + parts[2]).trim(); // handles Jan 24, 2026 split
+                String amountPart = parts.length > 6 ? parts[6].trim() : parts[5].trim();
+                String methodPart = parts.length > 7 ? parts[7].trim() : (parts.length > 6 ? parts[6].trim() : "");
+                return buildTransaction(datePart, parts[3], parts[4].trim(), parts[5].trim(), amountPart, methodPart, user);
+            }
+        } catch (Exception e) {
+            log.debug("Skipping unparseable PDF transaction line: {}", e.getMessage());
+        }
+        return null;
+    }
+
+    private Transaction buildTransaction(String datePart, String descriptionPart, String categoryPart,
+                                         String typePart, String amountPart, String methodPart, User user) {
+        BigDecimal amount = BigDecimal.ZERO;
+        String cleanAmount = NOT_AMOUNT_CHARS.matcher(amountPart).replaceAll("").replace(",", "");
+        if (!cleanAmount.isEmpty()) {
+            amount = new BigDecimal(cleanAmount);
+        }
+        if (amount.compareTo(BigDecimal.ZERO) == 0) return null;
+
+        String desc = descriptionPart.trim();
+        if (desc.isEmpty()) desc = "Transaction";
+        if (desc.length() > 100) desc = desc.substring(0, 100);
+
+        LocalDateTime transactionDate = ImportDateParser.parseDateTime(datePart);
+        return Transaction.builder()
+                .description(desc)
+                .amount(amount.abs())
+                .category(categoryPart == null || categoryPart.isEmpty() ? "Other" : categoryPart)
+                .date(transactionDate != null ? transactionDate : LocalDateTime.now())
+                .type(typePart.toUpperCase().contains("INCOME") ? "INCOME" : "EXPENSE")
+                .currency("INR")
+                .paymentMethod(methodPart == null || methodPart.isEmpty() ? null : methodPart)
+                .user(user)
+                .build();
+    }
+
+    private boolean isBudgetDataLine(String line) {
+        // Must have a dollar amount
+        return HAS_DIGIT.matcher(line).matches() && !LETTERS_ONLY.matcher(line).matches()
+                && !HAS_PERCENT.matcher(line).matches();
+    }
+
+    private Budget parseBudgetLine(String line, User user) {
+        // Expected layout: Category | Budget | Spent | Remaining | Status
+        try {
+            Matcher m = BUDGET_ROW.matcher(line);
+            if (m.find()) {
+                String category = m.group("cat").trim();
+                BigDecimal amount = new BigDecimal(m.group("budget").replace(",", ""));
+                if (category.length() > 50) category = category.substring(0, 50);
+                if (amount.compareTo(BigDecimal.ZERO) > 0) {
+                    return buildBudget(category.isEmpty() ? "Other" : category, amount, user);
+                }
+            }
+
+            // Fallback: previous heuristic
+            String[] parts = COLUMN_SPLIT.split(line);
+            if (parts.length >= 2) {
+                String category = parts[0].trim();
+                String amountStr = "";
+                for (String part : parts) {
+                    if (HAS_AMOUNT.matcher(part).matches()) {
+                        amountStr = NOT_AMOUNT_CHARS.matcher(part).replaceAll("").trim();
+                        break;
+                    }
+                }
+                if (!amountStr.isEmpty() && !category.isEmpty()) {
+                    BigDecimal amount = new BigDecimal(amountStr.replace(",", ""));
+                    if (amount.compareTo(BigDecimal.ZERO) > 0) {
+                        if (category.length() > 50) category = category.substring(0, 50);
+                        return buildBudget(category, amount, user);
+                    }
+                }
+            }
+        } catch (Exception e) {
+            log.debug("Skipping unparseable PDF budget line: {}", e.getMessage());
+        }
+        return null;
+    }
+
+    private Budget buildBudget(String category, BigDecimal amount, User user) {
+        return Budget.builder()
+                .category(category)
+                .amount(amount)
+                .startDate(LocalDate.now().withDayOfMonth(1))
+                .endDate(LocalDate.now().withDayOfMonth(1).plusMonths(1).minusDays(1))
+                .user(user)
+                .build();
+    }
+
+    private boolean isGoalStartLine(String line) {
+        // Goals start with name (contains letters) and may have numbers but not pure headers
+        return GOAL_NAME.matcher(line).matches() && !isHeaderLine(line) && line.length() > 2;
+    }
+
+    private Goal parseGoalBlock(List<String> lines, User user) {
+        if (lines.isEmpty()) return null;
+
+        try {
+            String goalName = lines.get(0).trim();
+            if (goalName.isEmpty()) return null;
+
+            if (goalName.length() > 100) {
+                goalName = goalName.substring(0, 100);
+            }
+
+            double targetAmount = 0;
+            double currentAmount = 0;
+
+            // Parse amounts from all lines in block
+            for (String line : lines) {
+                Matcher matcher = GOAL_AMOUNT.matcher(line);
+                while (matcher.find()) {
+                    double val = Double.parseDouble(matcher.group(1).replace(",", ""));
+                    if (targetAmount == 0) {
+                        targetAmount = val;
+                    } else if (currentAmount == 0) {
+                        currentAmount = val;
+                    }
+                }
+            }
+
+            if (targetAmount <= 0) {
+                targetAmount = 1000; // Default if not found
+            }
+
+            return Goal.builder()
+                    .goalName(goalName)
+                    .category("Savings")
+                    .targetAmount(targetAmount)
+                    .currentAmount(currentAmount)
+                    .deadline(LocalDate.now().plusMonths(6))
+                    .priority("Medium")
+                    .createdAt(LocalDate.now())
+                    .user(user)
+                    .build();
+        } catch (Exception e) {
+            log.debug("Skipping unparseable PDF goal block: {}", e.getMessage());
+        }
+        return null;
+    }
+}
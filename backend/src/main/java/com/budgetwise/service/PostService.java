@@ -4,6 +4,8 @@ import com.budgetwise.dto.PostRequest;
 import com.budgetwise.dto.PostResponse;
 import com.budgetwise.dto.CommentRequest;
 import com.budgetwise.dto.CommentResponse;
+import com.budgetwise.dto.CommentPage;
+import com.budgetwise.dto.FeedPage;
 import com.budgetwise.model.Post;
 import com.budgetwise.model.Comment;
 import com.budgetwise.model.Like;
@@ -11,12 +13,24 @@ import com.budgetwise.model.User;
 import com.budgetwise.repository.PostRepository;
 import com.budgetwise.repository.CommentRepository;
 import com.budgetwise.repository.LikeRepository;
-import com.budgetwise.repository.UserRepository;
+import com.budgetwise.security.CurrentUser;
 import lombok.RequiredArgsConstructor;
-import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import java.nio.charset.StandardCharsets;
 import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 import java.util.stream.Collectors;
 
 @Service
@@ -26,18 +40,34 @@ public class PostService {
     private final PostRepository postRepository;
     private final CommentRepository commentRepository;
     private final LikeRepository likeRepository;
-    private final UserRepository userRepository;
+    private final CurrentUser currentUser;
+    private final NamedParameterJdbcTemplate namedParameterJdbcTemplate;
+    private final LikeCounter likeCounter;
+    private final FeedCache feedCache;
+    private final CommunityEventBus eventBus;
+    private final TrendingService trendingService;
 
-    private User getCurrentUser() {
-        String identifier = SecurityContextHolder.getContext().getAuthentication().getName();
-        return userRepository.findByUsername(identifier)
-                .or(() -> userRepository.findByEmail(identifier))
-                .orElseThrow(() -> new RuntimeException("User not found"));
-    }
+    private static final int DEFAULT_FEED_SIZE = 20;
+    private static final int MAX_FEED_SIZE = 50;
+    private static final int COMMENT_PREVIEWS = 2;
+    private static final int DEFAULT_COMMENT_PAGE_SIZE = 20;
+    private static final int MAX_COMMENT_PAGE_SIZE = 50;
+    private static final int DEFAULT_TRENDING_SIZE = 10;
+
+    // Latest comments of each post for a whole page in one round trip; totals come from posts.comment_count
+    private static final String FEED_COMMENTS_SQL =
+            "SELECT c.id, c.post_id, c.content, c.created_at, c.updated_at, c.likes, u.username " +
+            "FROM (SELECT id, " +
+            "             ROW_NUMBER() OVER (PARTITION BY post_id ORDER BY created_at DESC, id DESC) AS rn " +
+            "      FROM comments WHERE post_id IN (:postIds)) r " +
+            "JOIN comments c ON c.id = r.id " +
+            "JOIN users u ON u.id = c.user_id " +
+            "WHERE r.rn <= :previews " +
+            "ORDER BY c.post_id, r.rn";
 
     // Post Operations
     public PostResponse createPost(PostRequest request) {
-        User user = getCurrentUser();
+        User user = currentUser.reference();
 
         Post post = Post.builder()
                 .title(request.getTitle())
@@ -46,33 +76,146 @@ public class PostService {
                 .user(user)
                 .createdAt(LocalDateTime.now())
                 .likes(0)
+                .commentCount(0)
                 .build();
 
         post = postRepository.save(post);
-        return mapPostToResponse(post);
+        feedCache.invalidateAll();
+        trendingService.postCreated(post.getId(), post.getCategory());
+        PostResponse response = mapPostSummary(post);
+        response.setComments(List.of());
+        eventBus.publish(CommunityEventBus.POST_CREATED, response);
+        return response;
     }
 
+    /**
+     * Every post at once, kept for older clients; the UI pages through {@link #getFeed}.
+     * Three queries whatever the size: posts with authors, comment previews, likes.
+     */
     public List<PostResponse> getAllPosts() {
-        User currentUser = getCurrentUser();
+        Long userId = currentUser.getId();
         List<Post> posts = postRepository.findAllByOrderByCreatedAtDesc();
+        Map<Long, List<CommentResponse>> comments = loadFeedComments(posts);
+        Set<Long> liked = likedPostIds(userId, posts);
         return posts.stream()
-                .map(post -> mapPostToResponseWithUserContext(post, currentUser))
+                .map(post -> {
+                    PostResponse response = mapPostSummary(post);
+                    response.setComments(comments.getOrDefault(post.getId(), List.of()));
+                    response.setIsLikedByUser(liked.contains(post.getId()));
+                    return response;
+                })
                 .collect(Collectors.toList());
     }
 
+    /**
+     * One page of the feed, newest first. The first pages at the default size usually
+     * come from {@link FeedCache}; otherwise it is three queries per page whatever its
+     * size: posts with authors and comment counts, comment previews, and the caller's likes.
+     */
+    public FeedPage getFeed(String cursor, Integer size) {
+        int limit = size == null ? DEFAULT_FEED_SIZE : Math.max(1, Math.min(size, MAX_FEED_SIZE));
+        int cacheIndex = limit == DEFAULT_FEED_SIZE ? feedCache.pageIndex(cursor) : -1;
+        if (cacheIndex >= 0) {
+            FeedPage cached = feedCache.get(cursor, currentUser.getId());
+            if (cached != null) {
+                return cached;
+            }
+        }
+        long cacheGeneration = feedCache.generation();
+
+        // One extra row tells whether another page follows
+        PageRequest page = PageRequest.of(0, limit + 1);
+
+        List<Post> posts;
+        if (cursor == null || cursor.isBlank()) {
+            posts = postRepository.findFeedPage(page);
+        } else {
+            FeedCursor after = FeedCursor.decode(cursor);
+            posts = postRepository.findFeedPageAfter(after.createdAt(), after.id(), page);
+        }
+
+        boolean hasMore = posts.size() > limit;
+        if (hasMore) {
+            posts = posts.subList(0, limit);
+        }
+
+        List<Long> postIds = posts.stream().map(Post::getId).toList();
+        boolean cacheable = cacheIndex >= 0;
+        if (cacheable) {
+            // Likes landing from here on reach the cached page through the running totals
+            feedCache.startBuild(postIds);
+        }
+        try {
+            Map<Long, List<CommentResponse>> comments = loadFeedComments(posts);
+            Set<Long> liked = likedPostIds(currentUser.getId(), posts);
+
+            List<PostResponse> responses = new ArrayList<>(posts.size());
+            Map<Long, Long> likeBaselines = new HashMap<>();
+            for (Post post : posts) {
+                if (cacheable) {
+                    likeBaselines.put(post.getId(), likeCounter.totalDelta(post.getId()));
+                }
+                PostResponse response = mapPostSummary(post);
+                response.setComments(comments.getOrDefault(post.getId(), List.of()));
+                response.setIsLikedByUser(liked.contains(post.getId()));
+                responses.add(response);
+            }
+
+            Post last = posts.isEmpty() ? null : posts.get(posts.size() - 1);
+            FeedPage feedPage = FeedPage.builder()
+                    .posts(responses)
+                    .nextCursor(hasMore ? new FeedCursor(last.getCreatedAt(), last.getId()).encode() : null)
+                    .hasMore(hasMore)
+                    .build();
+            feedCache.put(cursor, cacheIndex, feedPage, cacheGeneration, likeBaselines);
+            return feedPage;
+        } finally {
+            if (cacheable) {
+                feedCache.endBuild(postIds);
+            }
+        }
+    }
+
+    /**
+     * The trending posts, best first. The ranking comes from memory (see
+     * {@link TrendingService}); the page itself is the same three queries as a feed page.
+     */
+    public List<PostResponse> getTrending(String category, Integer size) {
+        int limit = size == null ? DEFAULT_TRENDING_SIZE : Math.max(1, Math.min(size, MAX_FEED_SIZE));
+        List<Long> ids = trendingService.top(category, limit);
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+
+        Map<Long, Post> byId = postRepository.findWithUserByIdIn(ids).stream()
+                .collect(Collectors.toMap(Post::getId, post -> post));
+        // Keep the ranking order; a post deleted meanwhile is simply skipped
+        List<Post> posts = ids.stream().map(byId::get).filter(post -> post != null).collect(Collectors.toList());
+        Map<Long, List<CommentResponse>> comments = loadFeedComments(posts);
+        Set<Long> liked = likedPostIds(currentUser.getId(), posts);
+
+        List<PostResponse> responses = new ArrayList<>(posts.size());
+        for (Post post : posts) {
+            PostResponse response = mapPostSummary(post);
+            response.setComments(comments.getOrDefault(post.getId(), List.of()));
+            response.setIsLikedByUser(liked.contains(post.getId()));
+            responses.add(response);
+        }
+        return responses;
+    }
+
     public PostResponse getPostById(Long id) {
-        User currentUser = getCurrentUser();
         Post post = postRepository.findById(id)
                 .orElseThrow(() -> new RuntimeException("Post not found"));
-        return mapPostToResponseWithUserContext(post, currentUser);
+        return mapPostToResponseWithUserContext(post, currentUser.getId());
     }
 
     public PostResponse updatePost(Long id, PostRequest request) {
-        User user = getCurrentUser();
+        Long userId = currentUser.getId();
         Post post = postRepository.findById(id)
                 .orElseThrow(() -> new RuntimeException("Post not found. It may have been deleted."));
 
-        if (!post.getUser().getId().equals(user.getId())) {
+        if (!post.getUser().getId().equals(userId)) {
             throw new RuntimeException("You can only edit your own posts.");
         }
 
@@ -82,24 +225,79 @@ public class PostService {
         post.setUpdatedAt(LocalDateTime.now());
 
         post = postRepository.save(post);
+        trendingService.categoryChanged(id, post.getCategory());
+        Post updated = post;
+        feedCache.patch(id, cached -> {
+            cached.setTitle(updated.getTitle());
+            cached.setCategory(updated.getCategory());
+            cached.setContent(updated.getContent());
+            cached.setUpdatedAt(updated.getUpdatedAt());
+            return cached;
+        });
+        Map<String, Object> change = new HashMap<>();
+        change.put("id", post.getId());
+        change.put("title", post.getTitle());
+        change.put("category", post.getCategory());
+        change.put("content", post.getContent());
+        change.put("updatedAt", post.getUpdatedAt());
+        eventBus.publish(CommunityEventBus.POST_UPDATED, change);
         return mapPostToResponse(post);
     }
 
     public void deletePost(Long id) {
-        User user = getCurrentUser();
+        Long userId = currentUser.getId();
         Post post = postRepository.findById(id)
                 .orElseThrow(() -> new RuntimeException("Post not found. It may have been deleted."));
 
-        if (!post.getUser().getId().equals(user.getId())) {
+        if (!post.getUser().getId().equals(userId)) {
             throw new RuntimeException("You can only delete your own posts.");
         }
 
         postRepository.delete(post);
+        likeCounter.evict(id);
+        trendingService.remove(id);
+        feedCache.invalidateAll();
+        eventBus.publish(CommunityEventBus.POST_DELETED, Map.of("id", id));
     }
 
     // Comment Operations
+    /**
+     * One page of a post's comments, newest first, keyset-paginated on
+     * (createdAt, id) so deep pages cost the same as the first one.
+     */
+    public CommentPage getComments(Long postId, String cursor, Integer size) {
+        int limit = size == null ? DEFAULT_COMMENT_PAGE_SIZE : Math.max(1, Math.min(size, MAX_COMMENT_PAGE_SIZE));
+        if (!postRepository.existsById(postId)) {
+            throw new RuntimeException("Post not found");
+        }
+
+        // One extra row tells whether another page follows
+        PageRequest page = PageRequest.of(0, limit + 1);
+
+        List<Comment> comments;
+        if (cursor == null || cursor.isBlank()) {
+            comments = commentRepository.findPage(postId, page);
+        } else {
+            FeedCursor after = FeedCursor.decode(cursor);
+            comments = commentRepository.findPageAfter(postId, after.createdAt(), after.id(), page);
+        }
+
+        boolean hasMore = comments.size() > limit;
+        if (hasMore) {
+            comments = comments.subList(0, limit);
+        }
+
+        Comment last = comments.isEmpty() ? null : comments.get(comments.size() - 1);
+        return CommentPage.builder()
+                .comments(comments.stream().map(this::mapCommentToResponse).collect(Collectors.toList()))
+                .nextCursor(hasMore ? new FeedCursor(last.getCreatedAt(), last.getId()).encode() : null)
+                .hasMore(hasMore)
+                .build();
+    }
+
+    @Transactional
     public CommentResponse addComment(Long postId, CommentRequest request) {
-        User user = getCurrentUser();
+        User user = currentUser.reference();
         Post post = postRepository.findById(postId)
                 .orElseThrow(() -> new RuntimeException("Post not found"));
 
@@ -112,47 +310,132 @@ public class PostService {
                 .build();
 
         comment = commentRepository.save(comment);
-        return mapCommentToResponse(comment);
+        postRepository.adjustCommentCount(postId, 1);
+        trendingService.engagement(postId, post.getCategory(), TrendingService.COMMENT_WEIGHT);
+        CommentResponse response = mapCommentToResponse(comment);
+        feedCache.patch(postId, cached -> FeedCache.withComment(cached, response, COMMENT_PREVIEWS));
+        eventBus.publish(CommunityEventBus.COMMENT_ADDED, Map.of("postId", postId, "comment", response));
+        return response;
     }
 
+    @Transactional
     public void deleteComment(Long commentId) {
-        User user = getCurrentUser();
+        Long userId = currentUser.getId();
         Comment comment = commentRepository.findById(commentId)
                 .orElseThrow(() -> new RuntimeException("Comment not found. It may have been deleted."));
 
-        if (!comment.getUser().getId().equals(user.getId())) {
+        if (!comment.getUser().getId().equals(userId)) {
             throw new RuntimeException("You can only delete your own comments.");
         }
 
-        commentRepository.delete(comment);
+        Long postId = comment.getPost().getId();
+        if (commentRepository.deleteCommentById(commentId) == 0) {
+            // Already deleted by a concurrent request, which also adjusted the count
+            return;
+        }
+        postRepository.adjustCommentCount(postId, -1);
+        trendingService.engagement(postId, null, -TrendingService.COMMENT_WEIGHT);
+        // The next preview would need a query, so let the page be rebuilt instead
+        feedCache.invalidatePost(postId);
+        eventBus.publish(CommunityEventBus.COMMENT_DELETED,
+                Map.of("postId", postId, "commentId", commentId));
     }
 
     // Like Operations
+    /**
+     * Likes or unlikes the post. The like row decides the outcome: the unique
+     * (post_id, user_id) constraint makes a repeated like a no-op, and only a like or
+     * unlike that actually changed a row adjusts the counter. The post row itself is
+     * not written here; see {@link LikeCounter}.
+     */
     public PostResponse toggleLike(Long postId) {
-        User user = getCurrentUser();
+        User user = currentUser.reference();
         Post post = postRepository.findById(postId)
                 .orElseThrow(() -> new RuntimeException("Post not found"));
 
-        var existingLike = likeRepository.findByPostIdAndUserId(postId, user.getId());
-
-        if (existingLike.isPresent()) {
-            likeRepository.delete(existingLike.get());
-            post.setLikes(Math.max(0, post.getLikes() - 1));
+        boolean liked;
+        if (likeRepository.deleteByPostIdAndUserId(postId, user.getId()) > 0) {
+            likeCounter.add(postId, -1);
+            trendingService.engagement(postId, post.getCategory(), -TrendingService.LIKE_WEIGHT);
+            liked = false;
         } else {
-            Like like = Like.builder()
-                    .post(post)
-                    .user(user)
+            try {
+                likeRepository.save(Like.builder()
+                        .post(post)
+                        .user(user)
+                        .build());
+                likeCounter.add(postId, 1);
+                trendingService.engagement(postId, post.getCategory(), TrendingService.LIKE_WEIGHT);
+            } catch (DataIntegrityViolationException e) {
+                // Liked concurrently from another request; it is counted there
+            }
+            liked = true;
+        }
+        feedCache.likeChanged(user.getId(), postId, liked);
+
+        PostResponse response = mapPostToResponse(post);
+        response.setIsLikedByUser(liked);
+        eventBus.likesChanged(postId, response.getLikes());
+        return response;
+    }
+
+    private Set<Long> likedPostIds(Long userId, List<Post> posts) {
+        if (posts.isEmpty()) {
+            return Set.of();
+        }
+        List<Long> postIds = posts.stream().map(Post::getId).collect(Collectors.toList());
+        return new HashSet<>(likeRepository.findLikedPostIds(userId, postIds));
+    }
+
+    private Map<Long, List<CommentResponse>> loadFeedComments(List<Post> posts) {
+        Map<Long, List<CommentResponse>> byPost = new HashMap<>();
+        if (posts.isEmpty()) {
+            return byPost;
+        }
+        MapSqlParameterSource params = new MapSqlParameterSource()
+                .addValue("postIds", posts.stream().map(Post::getId).collect(Collectors.toList()))
+                .addValue("previews", COMMENT_PREVIEWS);
+        namedParameterJdbcTemplate.query(FEED_COMMENTS_SQL, params, rs -> {
+            String username = rs.getString("username");
+            CommentResponse comment = CommentResponse.builder()
+                    .id(rs.getLong("id"))
+                    .content(rs.getString("content"))
+                    .author(username)
+                    .authorAvatar(String.valueOf(username.charAt(0)).toUpperCase())
+                    .createdAt(rs.getObject("created_at", LocalDateTime.class))
+                    .updatedAt(rs.getObject("updated_at", LocalDateTime.class))
+                    .likes(rs.getInt("likes"))
                     .build();
-            likeRepository.save(like);
-            post.setLikes(post.getLikes() + 1);
+            byPost.computeIfAbsent(rs.getLong("post_id"), id -> new ArrayList<>()).add(comment);
+        });
+        return byPost;
+    }
+
+    /**
+     * Position in the feed or a comment list: the (createdAt, id) of the last row on
+     * the previous page.
+     */
+    private record FeedCursor(LocalDateTime createdAt, Long id) {
+
+        String encode() {
+            String raw = createdAt + "|" + id;
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
         }
 
-        post = postRepository.save(post);
-        return mapPostToResponseWithUserContext(post, user);
+        static FeedCursor decode(String cursor) {
+            try {
+                String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+                int separator = raw.lastIndexOf('|');
+                return new FeedCursor(LocalDateTime.parse(raw.substring(0, separator)),
+                        Long.parseLong(raw.substring(separator + 1)));
+            } catch (IllegalArgumentException | IndexOutOfBoundsException | DateTimeParseException e) {
+                throw new RuntimeException("Invalid page cursor. Please reload the page.");
+            }
+        }
     }
 
     // Mapping Methods
-    private PostResponse mapPostToResponse(Post post) {
+    private PostResponse mapPostSummary(Post post) {
         return PostResponse.builder()
                 .id(post.getId())
                 .title(post.getTitle())
@@ -162,18 +445,23 @@ public class PostService {
                 .authorAvatar(String.valueOf(post.getUser().getUsername().charAt(0)).toUpperCase())
                 .createdAt(post.getCreatedAt())
                 .updatedAt(post.getUpdatedAt())
-                .likes(post.getLikes())
-                .comments(post.getComments() != null ? 
-                    post.getComments().stream()
-                        .map(this::mapCommentToResponse)
-                        .collect(Collectors.toList()) : 
-                    List.of())
+                .likes(likeCounter.currentLikes(post.getId(), post.getLikes()))
+                .commentCount(post.getCommentCount() != null ? post.getCommentCount() : 0)
                 .isLikedByUser(false)
                 .build();
     }
 
-    private PostResponse mapPostToResponseWithUserContext(Post post, User currentUser) {
-        boolean isLiked = likeRepository.findByPostIdAndUserId(post.getId(), currentUser.getId()).isPresent();
+    // The count plus the newest comments; the rest are paged through getComments
+    private PostResponse mapPostToResponse(Post post) {
+        PostResponse response = mapPostSummary(post);
+        response.setComments(commentRepository.findPage(post.getId(), PageRequest.of(0, COMMENT_PREVIEWS)).stream()
+                .map(this::mapCommentToResponse)
+                .collect(Collectors.toList()));
+        return response;
+    }
+
+    private PostResponse mapPostToResponseWithUserContext(Post post, Long userId) {
+        boolean isLiked = likeRepository.findByPostIdAndUserId(post.getId(), userId).isPresent();
         
         PostResponse response = mapPostToResponse(post);
         response.setIsLikedByUser(isLiked);
@@ -8,9 +8,12 @@ import com.budgetwise.repository.TransactionRepository;
 import com.budgetwise.repository.BudgetRepository;
 import com.budgetwise.repository.GoalRepository;
 import com.budgetwise.repository.PasswordResetTokenRepository;
+import com.budgetwise.repository.DeletedRecordRepository;
+import com.budgetwise.repository.RefreshTokenRepository;
+import com.budgetwise.security.CurrentUser;
+import com.budgetwise.security.UserIdentityCache;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
@@ -21,6 +24,7 @@ import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.time.Instant;
+import java.time.LocalDateTime;
 import java.util.Objects;
 
 @Service
@@ -34,24 +38,18 @@ public class ProfileService {
     private final BudgetRepository budgetRepository;
     private final GoalRepository goalRepository;
     private final PasswordResetTokenRepository passwordResetTokenRepository;
-
-    /**
-     * Retrieves the currently authenticated user based on the identifier
-     * (can be either email or username from the SecurityContext).
-     */
-    private User getCurrentUser() {
-        String identifier = SecurityContextHolder.getContext().getAuthentication().getName();
-
-        return userRepository.findByUsername(identifier)
-                .or(() -> userRepository.findByEmail(identifier))
-                .orElseThrow(() -> new RuntimeException("User not found"));
-    }
+    private final DeletedRecordRepository deletedRecordRepository;
+    private final RefreshTokenRepository refreshTokenRepository;
+    private final TransactionDuplicateIndex duplicateIndex;
+    private final CurrentUser currentUser;
+    private final UserIdentityCache userIdentityCache;
+    private final CategoryService categoryService;
 
     /**
      * Returns the user's profile details.
      */
     public UserProfileDTO getUserProfile() {
-        User user = getCurrentUser();
+        User user = currentUser.get();
         return UserProfileDTO.builder()
                 .id(user.getId())
                 .username(user.getUsername())
@@ -73,7 +71,7 @@ public class ProfileService {
      * Updates user profile details such as username or password.
      */
     public UserProfileDTO updateProfile(UpdateProfileRequest request) {
-        User user = getCurrentUser();
+        User user = currentUser.get();
         log.info("Updating profile for user: {}", user.getId());
         log.info("Request data - fullName: {}, occupation: {}, address: {}", 
                 request.getFullName(), request.getOccupation(), request.getAddress());
@@ -123,6 +121,7 @@ public class ProfileService {
         }
 
         user = userRepository.save(user);
+        userIdentityCache.invalidate(user.getId());
         log.info("User profile saved. FullName after save: {}", user.getFullName());
 
         return UserProfileDTO.builder()
@@ -146,7 +145,7 @@ public class ProfileService {
      * Uploads or updates a user’s profile image.
      */
     public UserProfileDTO uploadProfileImage(MultipartFile file) {
-        User user = getCurrentUser();
+        User user = currentUser.get();
 
         if (file == null || file.isEmpty()) {
             throw new RuntimeException("Please select an image to upload.");
@@ -192,7 +191,7 @@ public class ProfileService {
      */
     @Transactional
     public void deleteAccount() {
-        User user = getCurrentUser();
+        User user = currentUser.get();
         log.info("Deleting account for user: {}", user.getId());
         
         try {
@@ -210,8 +209,16 @@ public class ProfileService {
             passwordResetTokenRepository.deleteByUser(user);
             log.info("Deleted password reset tokens for user: {}", user.getId());
             
+            refreshTokenRepository.deleteByUserId(user.getId());
+
+            // Tombstones are keyed by user id only, so clear them explicitly
+            deletedRecordRepository.deleteByUserId(user.getId());
+            
             // Delete user from database (CASCADE will handle related data)
             userRepository.deleteById(user.getId());
+            duplicateIndex.evict(user.getId());
+            userIdentityCache.invalidate(user.getId());
+            categoryService.invalidate(user.getId());
             log.info("User account deleted successfully: {}", user.getId());
         } catch (Exception e) {
             log.error("Error deleting account: {}", e.getMessage());
@@ -224,12 +231,19 @@ public class ProfileService {
      */
     @Transactional
     public void resetAccountData() {
-        User user = getCurrentUser();
+        User user = currentUser.reference();
         log.info("Resetting account data for user: {}", user.getId());
         
         try {
+            // Leave tombstones so incremental exports propagate the reset
+            LocalDateTime deletedAt = LocalDateTime.now();
+            deletedRecordRepository.recordAllTransactions(user.getId(), deletedAt);
+            deletedRecordRepository.recordAllBudgets(user.getId(), deletedAt);
+            deletedRecordRepository.recordAllGoals(user.getId(), deletedAt);
+            
             // Delete all transactions for this user
             transactionRepository.deleteByUser(user);
+            duplicateIndex.evict(user.getId());
             log.info("Deleted all transactions for user: {}", user.getId());
             
             // Delete all budgets for this user
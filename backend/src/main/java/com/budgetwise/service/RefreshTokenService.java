@@ -0,0 +1,132 @@
+package com.budgetwise.service;
+
+import com.budgetwise.model.RefreshToken;
+import com.budgetwise.model.User;
+import com.budgetwise.repository.RefreshTokenRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.security.SecureRandom;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Base64;
+import java.util.HexFormat;
+import java.util.UUID;
+
+/**
+ * Issues and rotates refresh tokens. The raw token is 256 random bits handed to the
+ * client once; only its SHA-256 hash is stored, which is enough for a secret of that
+ * size and keeps a refresh down to one indexed lookup instead of a BCrypt check.
+ */
+@Service
+@Slf4j
+public class RefreshTokenService {
+
+    private static final int TOKEN_BYTES = 32;
+
+    private final RefreshTokenRepository refreshTokenRepository;
+    private final Duration lifetime;
+    private final SecureRandom random = new SecureRandom();
+
+    public RefreshTokenService(RefreshTokenRepository refreshTokenRepository,
+                               @Value("${jwt.refresh-expiration:2592000000}") long refreshExpirationMillis) {
+        this.refreshTokenRepository = refreshTokenRepository;
+        this.lifetime = Duration.ofMillis(refreshExpirationMillis);
+    }
+
+    /**
+     * A raw refresh token paired with the user it belongs to.
+     */
+    public record Issued(User user, String token) {}
+
+    /**
+     * Starts a new token family, e.g. on login.
+     */
+    @Transactional
+    public String issue(User user) {
+        return create(user, UUID.randomUUID().toString());
+    }
+
+    /**
+     * Uses up the presented token and returns its successor. A token that was already
+     * used or revoked revokes its whole family, so a stolen copy stops working for the
+     * thief and the legitimate client alike.
+     */
+    @Transactional(noRollbackFor = RuntimeException.class)
+    public Issued rotate(String rawToken) {
+        RefreshToken current = refreshTokenRepository.findByTokenHashWithUser(hash(rawToken))
+                .orElseThrow(() -> new RuntimeException("Invalid refresh token. Please log in again."));
+
+        if (current.isExpired()) {
+            throw new RuntimeException("Your session has expired. Please log in again.");
+        }
+        if (current.isRevoked() || refreshTokenRepository.markUsed(current.getId(), LocalDateTime.now()) == 0) {
+            int revoked = refreshTokenRepository.revokeFamily(current.getFamilyId());
+            log.warn("Refresh token reuse detected for user {}; revoked {} tokens in family {}",
+                    current.getUser().getId(), revoked, current.getFamilyId());
+            throw new RuntimeException("This session is no longer valid. Please log in again.");
+        }
+
+        User user = current.getUser();
+        return new Issued(user, create(user, current.getFamilyId()));
+    }
+
+    /**
+     * Ends the session the token belongs to (logout). Unknown tokens are ignored.
+     */
+    @Transactional
+    public void revoke(String rawToken) {
+        refreshTokenRepository.findByTokenHash(hash(rawToken))
+                .ifPresent(token -> refreshTokenRepository.revokeFamily(token.getFamilyId()));
+    }
+
+    /**
+     * Ends every session of the user, e.g. after a password reset.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void revokeAll(Long userId) {
+        refreshTokenRepository.revokeAllForUser(userId);
+    }
+
+    @Scheduled(fixedDelayString = "${jwt.refresh-cleanup-interval-ms:3600000}")
+    @Transactional
+    public void removeExpired() {
+        int deleted = refreshTokenRepository.deleteExpired(LocalDateTime.now());
+        if (deleted > 0) {
+            log.info("Removed {} expired refresh tokens", deleted);
+        }
+    }
+
+    private String create(User user, String familyId) {
+        byte[] bytes = new byte[TOKEN_BYTES];
+        random.nextBytes(bytes);
+        String rawToken = Base64.getUrlEncoder().withoutPadding().encodeToString(bytes);
+
+        refreshTokenRepository.save(RefreshToken.builder()
+                .tokenHash(hash(rawToken))
+                .familyId(familyId)
+                .user(user)
+                .expiresAt(LocalDateTime.now().plus(lifetime))
+                .build());
+        return rawToken;
+    }
+
+    private static String hash(String rawToken) {
+        if (rawToken == null || rawToken.isBlank()) {
+            throw new RuntimeException("Refresh token is required.");
+        }
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(rawToken.trim().getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+}
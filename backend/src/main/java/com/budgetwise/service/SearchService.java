@@ -0,0 +1,132 @@
+package com.budgetwise.service;
+
+import com.budgetwise.security.CurrentUser;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Service;
+
+import java.sql.Timestamp;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Full-text search over community posts and the user's own transactions, using the
+ * generated {@code search_vector} columns and their GIN indexes (see schema.sql).
+ * Results are ranked with {@code ts_rank}; snippets are only built for the rows on
+ * the requested page.
+ */
+@Service
+@RequiredArgsConstructor
+public class SearchService {
+
+    private static final int DEFAULT_PAGE_SIZE = 20;
+    private static final int MAX_PAGE_SIZE = 50;
+    private static final int MAX_QUERY_LENGTH = 200;
+
+    private static final String SEARCH_POSTS =
+            "SELECT p.id, p.title, p.category, p.created_at, p.likes, u.username, hit.rank, " +
+            "       ts_headline('english', p.content, hit.query, 'MaxWords=30, MinWords=10, MaxFragments=1') AS snippet " +
+            "FROM (SELECT posts.id, q AS query, ts_rank(posts.search_vector, q) AS rank " +
+            "      FROM posts, websearch_to_tsquery('english', :query) q " +
+            "      WHERE posts.search_vector @@ q " +
+            "      ORDER BY rank DESC, posts.id DESC " +
+            "      LIMIT :limit OFFSET :offset) hit " +
+            "JOIN posts p ON p.id = hit.id " +
+            "JOIN users u ON u.id = p.user_id " +
+            "ORDER BY hit.rank DESC, p.id DESC";
+
+    private static final String SEARCH_TRANSACTIONS =
+            "SELECT t.id, t.description, t.amount, t.category, t.date, t.type, t.currency, " +
+            "       ts_rank(t.search_vector, q) AS rank " +
+            "FROM transactions t, websearch_to_tsquery('simple', :query) q " +
+            "WHERE t.user_id = :userId AND t.search_vector @@ q " +
+            "ORDER BY rank DESC, t.date DESC, t.id DESC " +
+            "LIMIT :limit OFFSET :offset";
+
+    private final NamedParameterJdbcTemplate namedParameterJdbcTemplate;
+    private final SuggestionIndex suggestionIndex;
+    private final CurrentUser currentUser;
+
+    /**
+     * @param type "posts", "transactions" or "all"
+     */
+    public Map<String, Object> search(String query, String type, int page, Integer size) {
+        String text = query == null ? "" : query.trim();
+        if (text.isEmpty()) {
+            throw new RuntimeException("Please enter something to search for.");
+        }
+        if (text.length() > MAX_QUERY_LENGTH) {
+            text = text.substring(0, MAX_QUERY_LENGTH);
+        }
+        String scope = type == null ? "all" : type.toLowerCase();
+        if (!scope.equals("all") && !scope.equals("posts") && !scope.equals("transactions")) {
+            throw new RuntimeException("Unknown search type: " + type);
+        }
+        int limit = size == null ? DEFAULT_PAGE_SIZE : Math.max(1, Math.min(size, MAX_PAGE_SIZE));
+        int offset = Math.max(0, page) * limit;
+
+        // One extra row tells whether another page follows
+        MapSqlParameterSource params = new MapSqlParameterSource()
+                .addValue("query", text)
+                .addValue("limit", limit + 1)
+                .addValue("offset", offset);
+
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("query", text);
+        result.put("page", Math.max(0, page));
+        result.put("size", limit);
+        if (!scope.equals("transactions")) {
+            result.put("posts", pageOf(namedParameterJdbcTemplate.queryForList(SEARCH_POSTS, params), limit));
+        }
+        if (!scope.equals("posts")) {
+            params.addValue("userId", currentUser.getId());
+            result.put("transactions", pageOf(namedParameterJdbcTemplate.queryForList(SEARCH_TRANSACTIONS, params), limit));
+        }
+        return result;
+    }
+
+    public List<SuggestionIndex.Suggestion> suggest(String prefix, Integer limit) {
+        int max = limit == null ? 10 : Math.max(1, Math.min(limit, 25));
+        return suggestionIndex.suggest(currentUser.getId(), prefix, max);
+    }
+
+    private static Map<String, Object> pageOf(List<Map<String, Object>> rows, int limit) {
+        boolean hasMore = rows.size() > limit;
+        List<Map<String, Object>> results = (hasMore ? rows.subList(0, limit) : rows).stream()
+                .map(SearchService::toJson)
+                .toList();
+        Map<String, Object> page = new HashMap<>();
+        page.put("results", results);
+        page.put("hasMore", hasMore);
+        return page;
+    }
+
+    // Column names to the camelCase the rest of the API uses, timestamps as LocalDateTime
+    private static Map<String, Object> toJson(Map<String, Object> row) {
+        Map<String, Object> json = new LinkedHashMap<>();
+        row.forEach((column, value) -> {
+            if (value instanceof Timestamp timestamp) {
+                value = timestamp.toLocalDateTime();
+            }
+            json.put(camelCase(column), value);
+        });
+        return json;
+    }
+
+    private static String camelCase(String column) {
+        StringBuilder name = new StringBuilder(column.length());
+        boolean upper = false;
+        for (char c : column.toCharArray()) {
+            if (c == '_') {
+                upper = true;
+            } else {
+                name.append(upper ? Character.toUpperCase(c) : c);
+                upper = false;
+            }
+        }
+        return name.toString();
+    }
+}
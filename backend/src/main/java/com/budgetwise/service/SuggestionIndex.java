@@ -0,0 +1,127 @@
+package com.budgetwise.service;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+
+/**
+ * Per-user prefix index for autocomplete over category names and merchants
+ * (transaction descriptions). Built with two grouped queries on first use, then
+ * answered from a sorted map: a prefix lookup is a range scan over the keys that
+ * start with it, ranked by how often the user used each value.
+ *
+ * <p>Kept for a few minutes and dropped when the user's transactions or categories
+ * change; bounded to the most recently used users.
+ */
+@Component
+public class SuggestionIndex {
+
+    public static final String CATEGORY = "category";
+    public static final String MERCHANT = "merchant";
+
+    // Grouped by category id; every name in use has a category (see CategoryService)
+    private static final String CATEGORY_USAGE =
+            "SELECT c.name, COUNT(t.id) AS uses FROM categories c " +
+            "LEFT JOIN transactions t ON t.category_id = c.id " +
+            "WHERE c.user_id = ? GROUP BY c.id, c.name";
+
+    private static final String MERCHANT_USAGE =
+            "SELECT description, COUNT(*) AS uses FROM transactions " +
+            "WHERE user_id = ? AND description IS NOT NULL AND description <> '' " +
+            "GROUP BY description ORDER BY uses DESC LIMIT ?";
+
+    /**
+     * One autocomplete entry: the value as the user wrote it, its kind and use count.
+     */
+    public record Suggestion(String value, String type, long uses) {}
+
+    private record UserIndex(NavigableMap<String, List<Suggestion>> byKey, long expiresAt) {}
+
+    private final JdbcTemplate jdbcTemplate;
+    private final long ttlMillis;
+    private final int maxMerchants;
+    private final Map<Long, UserIndex> indexes;
+
+    public SuggestionIndex(JdbcTemplate jdbcTemplate,
+                           @Value("${search.suggest.ttl-seconds:300}") long ttlSeconds,
+                           @Value("${search.suggest.max-merchants:5000}") int maxMerchants,
+                           @Value("${search.suggest.max-users:2000}") int maxUsers) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.ttlMillis = Duration.ofSeconds(ttlSeconds).toMillis();
+        this.maxMerchants = maxMerchants;
+        this.indexes = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Long, UserIndex> eldest) {
+                return size() > maxUsers;
+            }
+        };
+    }
+
+    public List<Suggestion> suggest(Long userId, String prefix, int limit) {
+        String key = normalize(prefix);
+        if (key.isEmpty()) {
+            return List.of();
+        }
+        NavigableMap<String, List<Suggestion>> matches = indexFor(userId).byKey()
+                .subMap(key, true, key + Character.MAX_VALUE, false);
+
+        List<Suggestion> results = new ArrayList<>();
+        matches.values().forEach(results::addAll);
+        results.sort(Comparator.comparingLong(Suggestion::uses).reversed()
+                .thenComparing(Suggestion::value, String.CASE_INSENSITIVE_ORDER));
+        return results.size() > limit ? List.copyOf(results.subList(0, limit)) : results;
+    }
+
+    public void invalidate(Long userId) {
+        synchronized (indexes) {
+            indexes.remove(userId);
+        }
+    }
+
+    private UserIndex indexFor(Long userId) {
+        synchronized (indexes) {
+            UserIndex index = indexes.get(userId);
+            if (index != null && index.expiresAt() > System.currentTimeMillis()) {
+                return index;
+            }
+        }
+        UserIndex built = build(userId);
+        synchronized (indexes) {
+            indexes.put(userId, built);
+        }
+        return built;
+    }
+
+    private UserIndex build(Long userId) {
+        Map<String, List<Suggestion>> byKey = new HashMap<>();
+        jdbcTemplate.query(CATEGORY_USAGE, rs -> {
+            add(byKey, new Suggestion(rs.getString("name"), CATEGORY, rs.getLong("uses")));
+        }, userId);
+        jdbcTemplate.query(MERCHANT_USAGE, rs -> {
+            add(byKey, new Suggestion(rs.getString("description"), MERCHANT, rs.getLong("uses")));
+        }, userId, maxMerchants);
+        return new UserIndex(new TreeMap<>(byKey), System.currentTimeMillis() + ttlMillis);
+    }
+
+    private static void add(Map<String, List<Suggestion>> byKey, Suggestion suggestion) {
+        String key = normalize(suggestion.value());
+        if (!key.isEmpty()) {
+            byKey.computeIfAbsent(key, k -> new ArrayList<>(1)).add(suggestion);
+        }
+    }
+
+    private static String normalize(String value) {
+        return value == null ? "" : value.trim().replaceAll("\\s+", " ").toLowerCase(Locale.ROOT);
+    }
+}
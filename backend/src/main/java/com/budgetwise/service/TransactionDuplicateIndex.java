@@ -0,0 +1,155 @@
+package com.budgetwise.service;
+
+import com.budgetwise.repository.TransactionRepository;
+import com.budgetwise.util.BloomFilter;
+import com.budgetwise.util.TransactionFingerprint;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.*;
+
+/**
+ * Per-user index of transaction fingerprints used by idempotent imports.
+ *
+ * <p>Each user gets a Bloom filter built from their stored fingerprints the first
+ * time it is needed. A row whose fingerprint the filter has never seen is new and
+ * needs no database round trip; only the "maybe" answers are confirmed with one
+ * {@code IN} query per chunk. Filters only ever grow, so deleted or edited rows
+ * just cost an extra lookup, never a missed duplicate. Filters for the least
+ * recently importing users are dropped once {@code import.duplicate-index.max-users}
+ * is reached.
+ *
+ * <p>Fingerprints of rows written before the column existed are backfilled once at
+ * startup with {@link TransactionFingerprint} itself; SQL cannot reproduce Java's
+ * trimming and case folding exactly.
+ */
+@Component
+@Slf4j
+public class TransactionDuplicateIndex {
+
+    private static final double FALSE_POSITIVE_RATE = 0.01;
+    private static final int MIN_CAPACITY = 1024;
+
+    private static final String BACKFILL_MIGRATION = "transaction_fingerprints";
+    private static final int BACKFILL_PAGE_SIZE = 1000;
+    private static final String MIGRATED_SQL =
+            "SELECT EXISTS (SELECT 1 FROM schema_migrations WHERE name = ?)";
+    private static final String BACKFILL_PAGE_SQL =
+            "SELECT id, user_id, date, amount, type, description, fingerprint FROM transactions " +
+            "WHERE id > ? ORDER BY id LIMIT ?";
+    private static final String SET_FINGERPRINT_SQL = "UPDATE transactions SET fingerprint = ? WHERE id = ?";
+    private static final String MARK_MIGRATED_SQL =
+            "INSERT INTO schema_migrations (name, applied_at) VALUES (?, now()) ON CONFLICT DO NOTHING";
+
+    private final TransactionRepository transactionRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final Map<Long, BloomFilter> filters;
+
+    public TransactionDuplicateIndex(TransactionRepository transactionRepository, JdbcTemplate jdbcTemplate,
+                                     @Value("${import.duplicate-index.max-users:1000}") int maxUsers) {
+        this.transactionRepository = transactionRepository;
+        this.jdbcTemplate = jdbcTemplate;
+        this.filters = Collections.synchronizedMap(new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Long, BloomFilter> eldest) {
+                return size() > maxUsers;
+            }
+        });
+    }
+
+    /**
+     * Recomputes every stored fingerprint that is missing or differs from the Java value,
+     * page by page on the primary key. Runs until it completes once; rows written
+     * meanwhile already get their fingerprint from the entity or the import writer.
+     */
+    @PostConstruct
+    void backfillFingerprints() {
+        if (Boolean.TRUE.equals(jdbcTemplate.queryForObject(MIGRATED_SQL, Boolean.class, BACKFILL_MIGRATION))) {
+            return;
+        }
+        long lastId = 0;
+        int updated = 0;
+        while (true) {
+            List<Long> page = new ArrayList<>(BACKFILL_PAGE_SIZE);
+            List<Object[]> updates = new ArrayList<>();
+            jdbcTemplate.query(BACKFILL_PAGE_SQL, rs -> {
+                long id = rs.getLong("id");
+                String fingerprint = TransactionFingerprint.of(rs.getLong("user_id"),
+                        rs.getTimestamp("date").toLocalDateTime(), rs.getBigDecimal("amount"),
+                        rs.getString("type"), rs.getString("description"));
+                if (!Objects.equals(fingerprint, rs.getString("fingerprint"))) {
+                    updates.add(new Object[] { fingerprint, id });
+                }
+                page.add(id);
+            }, lastId, BACKFILL_PAGE_SIZE);
+            if (!updates.isEmpty()) {
+                jdbcTemplate.batchUpdate(SET_FINGERPRINT_SQL, updates);
+                updated += updates.size();
+            }
+            if (page.size() < BACKFILL_PAGE_SIZE) {
+                break;
+            }
+            lastId = page.get(page.size() - 1);
+        }
+        jdbcTemplate.update(MARK_MIGRATED_SQL, BACKFILL_MIGRATION);
+        filters.clear();
+        log.info("Backfilled {} transaction fingerprints", updated);
+    }
+
+    /**
+     * Returns the fingerprints among {@code fingerprints} that already exist for the user.
+     */
+    public Set<String> findExisting(Long userId, Collection<String> fingerprints) {
+        BloomFilter filter = filterFor(userId);
+        List<String> candidates = new ArrayList<>();
+        for (String fingerprint : fingerprints) {
+            if (fingerprint != null && filter.mightContain(fingerprint)) {
+                candidates.add(fingerprint);
+            }
+        }
+        if (candidates.isEmpty()) {
+            return Collections.emptySet();
+        }
+        return new HashSet<>(transactionRepository.findExistingFingerprints(userId, candidates));
+    }
+
+    /**
+     * Adds a newly written fingerprint to the user's filter if one is loaded.
+     */
+    public void record(Long userId, String fingerprint) {
+        if (userId == null || fingerprint == null) {
+            return;
+        }
+        BloomFilter filter = filters.get(userId);
+        if (filter == null) {
+            return;
+        }
+        filter.put(fingerprint);
+        if (filter.isSaturated()) {
+            // Rebuilt with room to grow on the next lookup
+            filters.remove(userId);
+        }
+    }
+
+    public void evict(Long userId) {
+        filters.remove(userId);
+    }
+
+    private BloomFilter filterFor(Long userId) {
+        BloomFilter filter = filters.get(userId);
+        if (filter != null) {
+            return filter;
+        }
+        List<String> stored = transactionRepository.findFingerprintsByUserId(userId);
+        filter = new BloomFilter(Math.max(MIN_CAPACITY, stored.size() * 2L), FALSE_POSITIVE_RATE);
+        for (String fingerprint : stored) {
+            filter.put(fingerprint);
+        }
+        log.debug("Built duplicate index for user {} with {} fingerprints", userId, stored.size());
+        filters.put(userId, filter);
+        return filter;
+    }
+}
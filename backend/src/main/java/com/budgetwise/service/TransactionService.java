@@ -3,12 +3,14 @@ package com.budgetwise.service;
 import com.budgetwise.dto.TransactionRequest;
 import com.budgetwise.dto.TransactionResponse;
 import com.budgetwise.model.Transaction;
+import com.budgetwise.model.DeletedRecord;
 import com.budgetwise.model.User;
 import com.budgetwise.repository.TransactionRepository;
-import com.budgetwise.repository.UserRepository;
+import com.budgetwise.repository.DeletedRecordRepository;
+import com.budgetwise.security.CurrentUser;
 import lombok.RequiredArgsConstructor;
-import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
 import java.util.List;
@@ -19,22 +21,20 @@ import java.util.stream.Collectors;
 public class TransactionService {
 
     private final TransactionRepository transactionRepository;
-    private final UserRepository userRepository;
-
-    private User getCurrentUser() {
-        String identifier = SecurityContextHolder.getContext().getAuthentication().getName();
-        return userRepository.findByUsername(identifier)
-                .or(() -> userRepository.findByEmail(identifier))
-                .orElseThrow(() -> new RuntimeException("User not found"));
-    }
+    private final DeletedRecordRepository deletedRecordRepository;
+    private final TransactionDuplicateIndex duplicateIndex;
+    private final CurrentUser currentUser;
+    private final SuggestionIndex suggestionIndex;
+    private final CategoryService categoryService;
 
     public TransactionResponse createTransaction(TransactionRequest request) {
-        User user = getCurrentUser();
+        User user = currentUser.reference();
 
         Transaction transaction = Transaction.builder()
                 .description(request.getDescription())
                 .amount(request.getAmount())
                 .category(request.getCategory())
+                .categoryId(categoryService.categoryId(user.getId(), request.getCategory()))
                 .paymentMethod(request.getPaymentMethod())
                 .date(request.getDate())
                 .type(request.getType())
@@ -43,37 +43,45 @@ public class TransactionService {
                 .build();
 
         transaction = transactionRepository.save(transaction);
+        duplicateIndex.record(user.getId(), transaction.getFingerprint());
+        suggestionIndex.invalidate(user.getId());
         return mapToResponse(transaction);
     }
 
     public TransactionResponse updateTransaction(Long id, TransactionRequest request) {
-        User user = getCurrentUser();
+        Long userId = currentUser.getId();
         Transaction txn = transactionRepository.findById(id)
-                .filter(t -> t.getUser().equals(user))
+                .filter(t -> t.getUser().getId().equals(userId))
                 .orElseThrow(() -> new RuntimeException("Transaction not found or unauthorized"));
 
         txn.setDescription(request.getDescription());
         txn.setAmount(request.getAmount());
         txn.setCategory(request.getCategory());
+        txn.setCategoryId(categoryService.categoryId(userId, request.getCategory()));
         txn.setType(request.getType());
         txn.setDate(request.getDate());
         txn.setPaymentMethod(request.getPaymentMethod());
         txn.setCurrency(request.getCurrency());
 
         Transaction updated = transactionRepository.save(txn);
+        duplicateIndex.record(userId, updated.getFingerprint());
+        suggestionIndex.invalidate(userId);
         return mapToResponse(updated);
     }
 
+    @Transactional
     public void deleteTransaction(Long id) {
-        User user = getCurrentUser();
+        Long userId = currentUser.getId();
         Transaction txn = transactionRepository.findById(id)
-                .filter(t -> t.getUser().equals(user))
+                .filter(t -> t.getUser().getId().equals(userId))
                 .orElseThrow(() -> new RuntimeException("Transaction not found or unauthorized"));
         transactionRepository.delete(txn);
+        deletedRecordRepository.save(DeletedRecord.of(userId, DeletedRecord.TRANSACTIONS, txn.getId()));
+        suggestionIndex.invalidate(userId);
     }
 
     public List<TransactionResponse> getUserTransactions() {
-        User user = getCurrentUser();
+        User user = currentUser.reference();
         return transactionRepository.findByUser(user)
                 .stream()
                 .map(this::mapToResponse)
@@ -81,7 +89,7 @@ public class TransactionService {
     }
 
     public List<TransactionResponse> getTransactionsByDateRange(LocalDateTime start, LocalDateTime end) {
-        User user = getCurrentUser();
+        User user = currentUser.reference();
         return transactionRepository.findByUserAndDateBetween(user, start, end)
                 .stream()
                 .map(this::mapToResponse)
@@ -0,0 +1,318 @@
+package com.budgetwise.service;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+
+/**
+ * Trending posts: engagement (likes, comments) with exponential time decay, kept in
+ * memory and updated as events arrive. Each category, plus the whole community, has a
+ * bounded board of its top K posts, so a trending request copies at most K ids and
+ * never scans or sorts all posts.
+ *
+ * <p>Scores are stored as {@code weight * 2^((eventTime - epoch) / halfLife)}. Every
+ * score decays at the same rate, so comparing the stored values compares the decayed
+ * scores and nothing has to be rescored as time passes; the epoch is moved forward
+ * long before the values could overflow.
+ *
+ * <p>Scores are snapshotted to {@code trending_scores} periodically and on shutdown,
+ * and reloaded at startup. A crash loses at most one snapshot interval of engagement.
+ */
+@Service
+@Slf4j
+public class TrendingService {
+
+    public static final double LIKE_WEIGHT = 1.0;
+    public static final double COMMENT_WEIGHT = 2.0;
+    // So new posts can surface before their first like
+    public static final double CREATE_WEIGHT = 1.0;
+
+    // Board key for the community as a whole
+    private static final String ALL = "";
+    // Rebase well before 2^(age / halfLife) gets anywhere near Double.MAX_VALUE (~2^1024)
+    private static final double REBASE_AFTER_HALF_LIVES = 500;
+
+    private static final String LOAD_SQL =
+            "SELECT t.post_id, p.category, t.score, t.scored_at " +
+            "FROM trending_scores t JOIN posts p ON p.id = t.post_id";
+    private static final String SEED_SQL =
+            "SELECT id, category, created_at, COALESCE(likes, 0) AS likes, comment_count " +
+            "FROM posts WHERE created_at > ?";
+    private static final String UPSERT_SQL =
+            "INSERT INTO trending_scores (post_id, category, score, scored_at) VALUES (?, ?, ?, ?) " +
+            "ON CONFLICT (post_id) DO UPDATE SET category = EXCLUDED.category, " +
+            "score = EXCLUDED.score, scored_at = EXCLUDED.scored_at";
+    private static final String DELETE_SQL = "DELETE FROM trending_scores WHERE post_id = ?";
+    private static final String DELETE_ORPHANS_SQL =
+            "DELETE FROM trending_scores t WHERE NOT EXISTS (SELECT 1 FROM posts p WHERE p.id = t.post_id)";
+
+    private record Scored(long postId, String category, double value) {}
+
+    private static final Comparator<Scored> RANKING = Comparator.comparingDouble(Scored::value).reversed()
+            .thenComparing(Comparator.comparingLong(Scored::postId).reversed());
+
+    private final JdbcTemplate jdbcTemplate;
+    private final double halfLifeMillis;
+    private final int topK;
+    private final double pruneBelow;
+    private final long seedDays;
+
+    // All guarded by "this"; every update is O(log K) apart from the rare board refill
+    private long epochMillis = System.currentTimeMillis();
+    private final Map<Long, Scored> scores = new HashMap<>();
+    private final Map<String, TreeSet<Scored>> boards = new HashMap<>();
+    private final Set<Long> dirty = new HashSet<>();
+    private final Set<Long> removed = new HashSet<>();
+
+    public TrendingService(JdbcTemplate jdbcTemplate,
+                           @Value("${trending.half-life-hours:6}") double halfLifeHours,
+                           @Value("${trending.top-k:50}") int topK,
+                           @Value("${trending.prune-below:0.05}") double pruneBelow,
+                           @Value("${trending.seed-days:7}") long seedDays) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.halfLifeMillis = halfLifeHours * Duration.ofHours(1).toMillis();
+        this.topK = topK;
+        this.pruneBelow = pruneBelow;
+        this.seedDays = seedDays;
+    }
+
+    @PostConstruct
+    void load() {
+        // Posts deleted while their last snapshot was pending
+        jdbcTemplate.update(DELETE_ORPHANS_SQL);
+        jdbcTemplate.query(LOAD_SQL, rs -> {
+            long scoredAt = rs.getTimestamp("scored_at").getTime();
+            put(new Scored(rs.getLong("post_id"), rs.getString("category"),
+                    rs.getDouble("score") * growth(scoredAt)));
+        });
+        if (scores.isEmpty()) {
+            // First start: estimate from the stored counters of recent posts
+            Timestamp since = Timestamp.valueOf(LocalDateTime.now().minusDays(seedDays));
+            jdbcTemplate.query(SEED_SQL, rs -> {
+                double weight = CREATE_WEIGHT + rs.getInt("likes") * LIKE_WEIGHT
+                        + rs.getInt("comment_count") * COMMENT_WEIGHT;
+                long postId = rs.getLong("id");
+                put(new Scored(postId, rs.getString("category"),
+                        weight * growth(rs.getTimestamp("created_at").getTime())));
+                dirty.add(postId);
+            }, since);
+        }
+        log.info("Loaded trending scores for {} posts", scores.size());
+    }
+
+    public synchronized void postCreated(Long postId, String category) {
+        update(postId, category, CREATE_WEIGHT);
+    }
+
+    /**
+     * Records engagement now. Negative weights take engagement back (unlike, deleted
+     * comment) at today's value, which can lower a score by more than the original
+     * event raised it; scores never go below zero.
+     */
+    public synchronized void engagement(Long postId, String category, double weight) {
+        update(postId, category, weight);
+    }
+
+    public synchronized void categoryChanged(Long postId, String category) {
+        Scored current = scores.get(postId);
+        if (current != null && !current.category().equals(category)) {
+            update(postId, category, 0);
+        }
+    }
+
+    public synchronized void remove(Long postId) {
+        Scored current = scores.remove(postId);
+        if (current != null) {
+            unrank(current, true);
+            dirty.remove(postId);
+            removed.add(postId);
+        }
+    }
+
+    /**
+     * Ids of the top posts, best first, for one category or (null/blank) all of them.
+     * At most K, whatever {@code limit} asks for.
+     */
+    public synchronized List<Long> top(String category, int limit) {
+        TreeSet<Scored> board = boards.get(category == null || category.isBlank() ? ALL : category);
+        List<Long> ids = new ArrayList<>(Math.min(limit, topK));
+        if (board != null) {
+            Iterator<Scored> it = board.iterator();
+            while (it.hasNext() && ids.size() < limit) {
+                ids.add(it.next().postId());
+            }
+        }
+        return ids;
+    }
+
+    private void update(Long postId, String category, double weight) {
+        long now = System.currentTimeMillis();
+        if (now - epochMillis > REBASE_AFTER_HALF_LIVES * halfLifeMillis) {
+            rebase(now);
+        }
+        Scored old = scores.get(postId);
+        String newCategory = category != null ? category : old != null ? old.category() : null;
+        if (newCategory == null) {
+            return;
+        }
+        double value = Math.max(0, (old != null ? old.value() : 0) + weight * growth(now));
+        Scored scored = new Scored(postId, newCategory, value);
+        // Replace the score first, so a refill can never put the old entry back
+        scores.put(postId, scored);
+        if (old != null) {
+            // A lower score or another category may let a post outside the board in
+            unrank(old, value < old.value() || !newCategory.equals(old.category()));
+        }
+        put(scored);
+        removed.remove(postId);
+        dirty.add(postId);
+    }
+
+    private void put(Scored scored) {
+        scores.put(scored.postId(), scored);
+        offer(ALL, scored);
+        offer(scored.category(), scored);
+    }
+
+    private void offer(String key, Scored scored) {
+        TreeSet<Scored> board = boards.computeIfAbsent(key, k -> new TreeSet<>(RANKING));
+        board.add(scored);
+        if (board.size() > topK) {
+            board.pollLast();
+        }
+    }
+
+    private void unrank(Scored old, boolean refill) {
+        for (String key : new String[] { ALL, old.category() }) {
+            TreeSet<Scored> board = boards.get(key);
+            if (board != null && board.remove(old) && refill) {
+                refill(key);
+            }
+        }
+    }
+
+    // Full scan of the category; only after a ranked post lost score or left
+    private void refill(String key) {
+        TreeSet<Scored> board = boards.get(key);
+        for (Scored scored : scores.values()) {
+            if (key.equals(ALL) || key.equals(scored.category())) {
+                if (board.size() < topK || RANKING.compare(scored, board.last()) < 0) {
+                    offer(key, scored);
+                }
+            }
+        }
+    }
+
+    private double growth(long timeMillis) {
+        return Math.pow(2, (timeMillis - epochMillis) / halfLifeMillis);
+    }
+
+    private void rebase(long now) {
+        double scale = 1 / growth(now);
+        epochMillis = now;
+        List<Scored> all = new ArrayList<>(scores.values());
+        scores.clear();
+        boards.clear();
+        for (Scored scored : all) {
+            put(new Scored(scored.postId(), scored.category(), scored.value() * scale));
+        }
+    }
+
+    /**
+     * Drops posts whose decayed score fell below the threshold, then writes changed
+     * scores as their decayed value now.
+     */
+    @Scheduled(fixedDelayString = "${trending.snapshot-interval-ms:60000}")
+    public void snapshot() {
+        List<Object[]> upserts = new ArrayList<>();
+        List<Object[]> deletes = new ArrayList<>();
+        synchronized (this) {
+            long now = System.currentTimeMillis();
+            double decay = 1 / growth(now);
+            List<Scored> faded = scores.values().stream()
+                    .filter(scored -> scored.value() * decay < pruneBelow)
+                    .toList();
+            Set<String> touched = new HashSet<>();
+            for (Scored scored : faded) {
+                scores.remove(scored.postId());
+                unrank(scored, false);
+                touched.add(ALL);
+                touched.add(scored.category());
+                dirty.remove(scored.postId());
+                removed.add(scored.postId());
+            }
+            touched.forEach(this::refill);
+
+            Timestamp scoredAt = new Timestamp(now);
+            for (Long postId : dirty) {
+                Scored scored = scores.get(postId);
+                upserts.add(new Object[] { postId, scored.category(), scored.value() * decay, scoredAt });
+            }
+            for (Long postId : removed) {
+                deletes.add(new Object[] { postId });
+            }
+            dirty.clear();
+            removed.clear();
+        }
+        if (upserts.isEmpty() && deletes.isEmpty()) {
+            return;
+        }
+
+        try {
+            if (!deletes.isEmpty()) {
+                jdbcTemplate.batchUpdate(DELETE_SQL, deletes);
+            }
+            if (!upserts.isEmpty()) {
+                jdbcTemplate.batchUpdate(UPSERT_SQL, upserts);
+            }
+        } catch (RuntimeException e) {
+            // Mark them again so the next snapshot retries; newer changes win either way
+            synchronized (this) {
+                for (Object[] row : upserts) {
+                    Long postId = (Long) row[0];
+                    if (scores.containsKey(postId)) {
+                        dirty.add(postId);
+                    }
+                }
+                for (Object[] row : deletes) {
+                    Long postId = (Long) row[0];
+                    if (!scores.containsKey(postId)) {
+                        removed.add(postId);
+                    }
+                }
+            }
+            log.warn("Could not snapshot trending scores: {}", e.getMessage());
+        }
+    }
+
+    @PreDestroy
+    void snapshotOnShutdown() {
+        snapshot();
+    }
+
+    public synchronized Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("trackedPosts", scores.size());
+        stats.put("boards", boards.size());
+        stats.put("pendingWrites", dirty.size() + removed.size());
+        return stats;
+    }
+}
@@ -0,0 +1,57 @@
+package com.budgetwise.util;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.HexFormat;
+import java.util.Locale;
+import java.util.regex.Pattern;
+
+/**
+ * Identity of a transaction for duplicate detection: SHA-256 (hex) over
+ * user id, date to the second, amount to two decimals, type and the description
+ * with case and whitespace normalised.
+ *
+ * <p>Stored rows are fingerprinted once by {@code TransactionDuplicateIndex}; changing
+ * the formula means registering a new backfill there so old and new rows still match.
+ */
+public final class TransactionFingerprint {
+
+    private static final DateTimeFormatter DATE_FORMAT = DateTimeFormatter.ofPattern("yyyy-MM-dd'T'HH:mm:ss");
+    private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+
+    private TransactionFingerprint() {
+    }
+
+    public static String of(Long userId, LocalDateTime date, BigDecimal amount, String type, String description) {
+        if (userId == null || date == null || amount == null) {
+            return null;
+        }
+        String key = userId
+                + "|" + date.format(DATE_FORMAT)
+                + "|" + amount.setScale(2, RoundingMode.HALF_UP).toPlainString()
+                + "|" + (type != null ? type.trim().toUpperCase(Locale.ROOT) : "")
+                + "|" + normalizeDescription(description);
+        return sha256Hex(key);
+    }
+
+    static String normalizeDescription(String description) {
+        if (description == null) {
+            return "";
+        }
+        return WHITESPACE.matcher(description.trim()).replaceAll(" ").toLowerCase(Locale.ROOT);
+    }
+
+    private static String sha256Hex(String value) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(value.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+}
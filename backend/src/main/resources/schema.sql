@@ -117,4 +117,180 @@ CREATE INDEX IF NOT EXISTS idx_likes_post_id ON likes(post_id);
 CREATE INDEX IF NOT EXISTS idx_likes_user_id ON likes(user_id);
 CREATE INDEX IF NOT EXISTS idx_goals_user_id ON goals(user_id);
 CREATE INDEX IF NOT EXISTS idx_goals_created_at ON goals(created_at);
-CREATE INDEX IF NOT EXISTS idx_settings_user_id ON settings(user_id);
\ No newline at end of file
+CREATE INDEX IF NOT EXISTS idx_settings_user_id ON settings(user_id);
+
+-- Change tracking for incremental export (existing rows are stamped with the migration time)
+ALTER TABLE transactions ADD COLUMN IF NOT EXISTS updated_at TIMESTAMP DEFAULT now();
+ALTER TABLE budgets ADD COLUMN IF NOT EXISTS updated_at TIMESTAMP DEFAULT now();
+ALTER TABLE goals ADD COLUMN IF NOT EXISTS updated_at TIMESTAMP DEFAULT now();
+
+CREATE TABLE IF NOT EXISTS deleted_records (
+    id BIGSERIAL PRIMARY KEY,
+    user_id BIGINT NOT NULL,
+    entity_type VARCHAR(50) NOT NULL,
+    entity_id BIGINT NOT NULL,
+    deleted_at TIMESTAMP NOT NULL
+);
+
+CREATE INDEX IF NOT EXISTS idx_transactions_user_updated_at ON transactions(user_id, updated_at);
+CREATE INDEX IF NOT EXISTS idx_budgets_user_updated_at ON budgets(user_id, updated_at);
+CREATE INDEX IF NOT EXISTS idx_goals_user_updated_at ON goals(user_id, updated_at);
+CREATE INDEX IF NOT EXISTS idx_deleted_records_user_deleted_at ON deleted_records(user_id, deleted_at);
+-- Daily purge of tombstones past export.tombstone-retention-days
+CREATE INDEX IF NOT EXISTS idx_deleted_records_deleted_at ON deleted_records(deleted_at);
+
+-- Duplicate detection for idempotent imports. Not unique: two identical purchases
+-- on the same second are legitimate, so duplicates are only skipped on request.
+-- Existing rows are backfilled once at startup by TransactionDuplicateIndex.
+ALTER TABLE transactions ADD COLUMN IF NOT EXISTS fingerprint VARCHAR(64);
+
+CREATE INDEX IF NOT EXISTS idx_transactions_user_fingerprint ON transactions(user_id, fingerprint);
+
+-- Logged out JWTs, kept until the token would have expired anyway
+CREATE TABLE IF NOT EXISTS revoked_tokens (
+    id BIGSERIAL PRIMARY KEY,
+    jti VARCHAR(64) NOT NULL UNIQUE,
+    user_id BIGINT,
+    expires_at TIMESTAMP NOT NULL,
+    revoked_at TIMESTAMP NOT NULL
+);
+
+CREATE INDEX IF NOT EXISTS idx_revoked_tokens_expires_at ON revoked_tokens(expires_at);
+
+-- Refresh tokens, stored as SHA-256 hashes; a family is one login and its rotations
+CREATE TABLE IF NOT EXISTS refresh_tokens (
+    id BIGSERIAL PRIMARY KEY,
+    token_hash VARCHAR(64) NOT NULL UNIQUE,
+    family_id VARCHAR(36) NOT NULL,
+    user_id BIGINT NOT NULL,
+    expires_at TIMESTAMP NOT NULL,
+    created_at TIMESTAMP NOT NULL,
+    used_at TIMESTAMP,
+    revoked BOOLEAN NOT NULL DEFAULT FALSE,
+    FOREIGN KEY (user_id) REFERENCES users(id) ON DELETE CASCADE
+);
+
+CREATE INDEX IF NOT EXISTS idx_refresh_tokens_family ON refresh_tokens(family_id);
+CREATE INDEX IF NOT EXISTS idx_refresh_tokens_user ON refresh_tokens(user_id);
+CREATE INDEX IF NOT EXISTS idx_refresh_tokens_expires_at ON refresh_tokens(expires_at);
+
+-- Community feed: keyset pages over posts, latest comments per post
+CREATE INDEX IF NOT EXISTS idx_posts_created_at_id ON posts(created_at DESC, id DESC);
+CREATE INDEX IF NOT EXISTS idx_comments_post_created_at ON comments(post_id, created_at DESC, id DESC);
+
+-- One like per user and post (tables created by older Hibernate runs may lack it),
+-- then recount so likes lost before a crash or by old read-modify-write races are fixed
+DELETE FROM likes a USING likes b
+WHERE a.post_id = b.post_id AND a.user_id = b.user_id AND a.id > b.id;
+
+CREATE UNIQUE INDEX IF NOT EXISTS uq_likes_post_user ON likes(post_id, user_id);
+
+UPDATE posts p SET likes = c.cnt
+FROM (SELECT posts.id, COUNT(likes.id) AS cnt
+      FROM posts LEFT JOIN likes ON likes.post_id = posts.id
+      GROUP BY posts.id) c
+WHERE p.id = c.id AND p.likes IS DISTINCT FROM c.cnt;
+
+-- Full-text search: generated tsvector columns with GIN indexes. Posts use English
+-- stemming with titles weighted above content; transaction descriptions are mostly
+-- merchant names, so they are only lower-cased and split ('simple').
+ALTER TABLE posts ADD COLUMN IF NOT EXISTS search_vector tsvector
+    GENERATED ALWAYS AS (
+        setweight(to_tsvector('english', coalesce(title, '')), 'A') ||
+        setweight(to_tsvector('english', coalesce(content, '')), 'B')
+    ) STORED;
+
+ALTER TABLE transactions ADD COLUMN IF NOT EXISTS search_vector tsvector
+    GENERATED ALWAYS AS (to_tsvector('simple', coalesce(description, ''))) STORED;
+
+CREATE INDEX IF NOT EXISTS idx_posts_search_vector ON posts USING GIN (search_vector);
+CREATE INDEX IF NOT EXISTS idx_transactions_search_vector ON transactions USING GIN (search_vector);
+
+-- Denormalised comment totals for the feed, maintained by PostService; the recount
+-- repairs drift from comments written before the column existed or outside the app.
+-- Comment pages use idx_comments_post_created_at.
+ALTER TABLE posts ADD COLUMN IF NOT EXISTS comment_count INT NOT NULL DEFAULT 0;
+
+UPDATE posts p SET comment_count = c.cnt
+FROM (SELECT posts.id, COUNT(comments.id) AS cnt
+      FROM posts LEFT JOIN comments ON comments.post_id = posts.id
+      GROUP BY posts.id) c
+WHERE p.id = c.id AND p.comment_count IS DISTINCT FROM c.cnt;
+
+-- Trending snapshot: each post's decayed engagement score as of scored_at.
+-- The live ranking is in memory (TrendingService); rows of deleted posts are
+-- removed by the next snapshot or at startup.
+CREATE TABLE IF NOT EXISTS trending_scores (
+    post_id BIGINT PRIMARY KEY,
+    category VARCHAR(100) NOT NULL,
+    score DOUBLE PRECISION NOT NULL,
+    scored_at TIMESTAMP NOT NULL
+);
+
+-- Category rename/merge updates every row of a user filed under a name in one statement
+CREATE INDEX IF NOT EXISTS idx_transactions_user_category ON transactions(user_id, category);
+CREATE INDEX IF NOT EXISTS idx_budgets_user_category ON budgets(user_id, category);
+
+-- Categories as foreign keys. Transactions, budgets and goals get a category_id next to
+-- the category name; both are written until the name columns are dropped in a later
+-- release. The table is normally created by Hibernate, but the foreign keys need it now.
+CREATE TABLE IF NOT EXISTS categories (
+    id BIGSERIAL PRIMARY KEY,
+    user_id BIGINT NOT NULL,
+    name VARCHAR(100) NOT NULL,
+    is_default BOOLEAN NOT NULL DEFAULT FALSE,
+    created_at TIMESTAMP NOT NULL,
+    FOREIGN KEY (user_id) REFERENCES users(id),
+    UNIQUE (user_id, name)
+);
+
+-- One-off data migrations that must not run again on later startups
+CREATE TABLE IF NOT EXISTS schema_migrations (
+    name VARCHAR(100) PRIMARY KEY,
+    applied_at TIMESTAMP NOT NULL
+);
+
+-- Users without categories get the defaults first (mirrors CategoryService.DEFAULT_CATEGORIES),
+-- so the names added below do not stop them from being created on first read
+INSERT INTO categories (user_id, name, is_default, created_at)
+SELECT u.id, d.name, TRUE, now()
+FROM users u
+CROSS JOIN (VALUES ('Salary'), ('Housing'), ('Food'), ('Transport'), ('Shopping'),
+                   ('Entertainment'), ('Healthcare'), ('Education'), ('Other')) AS d(name)
+WHERE NOT EXISTS (SELECT 1 FROM categories c WHERE c.user_id = u.id)
+ON CONFLICT DO NOTHING;
+
+-- Every name in use becomes a category of its user (names differing only in case share
+-- one). Once only: afterwards a name without a category is one the user deleted.
+INSERT INTO categories (user_id, name, is_default, created_at)
+SELECT DISTINCT ON (used.user_id, lower(trim(used.category))) used.user_id, trim(used.category), FALSE, now()
+FROM (SELECT user_id, category FROM transactions
+      UNION ALL SELECT user_id, category FROM budgets
+      UNION ALL SELECT user_id, category FROM goals) used
+WHERE trim(coalesce(used.category, '')) <> ''
+  AND NOT EXISTS (SELECT 1 FROM categories c
+                  WHERE c.user_id = used.user_id AND lower(c.name) = lower(trim(used.category)))
+  AND NOT EXISTS (SELECT 1 FROM schema_migrations WHERE name = 'category_ids')
+ORDER BY used.user_id, lower(trim(used.category)), used.category
+ON CONFLICT DO NOTHING;
+
+ALTER TABLE transactions ADD COLUMN IF NOT EXISTS category_id BIGINT REFERENCES categories(id) ON DELETE SET NULL;
+ALTER TABLE budgets ADD COLUMN IF NOT EXISTS category_id BIGINT REFERENCES categories(id) ON DELETE SET NULL;
+ALTER TABLE goals ADD COLUMN IF NOT EXISTS category_id BIGINT REFERENCES categories(id) ON DELETE SET NULL;
+
+-- Backfill, also once
+UPDATE transactions t SET category_id = c.id FROM categories c
+WHERE t.category_id IS NULL AND c.user_id = t.user_id AND lower(c.name) = lower(trim(t.category))
+  AND NOT EXISTS (SELECT 1 FROM schema_migrations WHERE name = 'category_ids');
+UPDATE budgets b SET category_id = c.id FROM categories c
+WHERE b.category_id IS NULL AND c.user_id = b.user_id AND lower(c.name) = lower(trim(b.category))
+  AND NOT EXISTS (SELECT 1 FROM schema_migrations WHERE name = 'category_ids');
+UPDATE goals g SET category_id = c.id FROM categories c
+WHERE g.category_id IS NULL AND c.user_id = g.user_id AND lower(c.name) = lower(trim(g.category))
+  AND NOT EXISTS (SELECT 1 FROM schema_migrations WHERE name = 'category_ids');
+
+INSERT INTO schema_migrations (name, applied_at) VALUES ('category_ids', now()) ON CONFLICT DO NOTHING;
+
+CREATE INDEX IF NOT EXISTS idx_transactions_category_id ON transactions(category_id);
+CREATE INDEX IF NOT EXISTS idx_budgets_category_id ON budgets(category_id);
+CREATE INDEX IF NOT EXISTS idx_goals_category_id ON goals(category_id);
@@ -0,0 +1,141 @@
+package com.budgetwise.security;
+
+import com.budgetwise.model.Role;
+import com.budgetwise.model.Transaction;
+import com.budgetwise.model.User;
+import com.budgetwise.repository.TransactionRepository;
+import com.budgetwise.repository.UserRepository;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Counts the statements a request issues to resolve its user. Each test plays one
+ * request: a fresh CurrentUser and a cleared persistence context.
+ */
+@DataJpaTest(properties = {
+        "spring.sql.init.mode=never",
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.properties.hibernate.generate_statistics=true"
+})
+class CurrentUserQueryCountTest {
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private TransactionRepository transactionRepository;
+
+    private User alice;
+    private Statistics statistics;
+
+    @BeforeEach
+    void setUp() {
+        alice = entityManager.persistFlushFind(User.builder()
+                .username("alice")
+                .email("alice@example.com")
+                .password("hash")
+                .role(Role.ROLE_USER)
+                .build());
+        entityManager.clear();
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+    }
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void tokenWithUserIdNeedsNoUserQuery() {
+        authenticate(new AuthenticatedUser(alice.getId(), "alice", "ROLE_USER"));
+        CurrentUser currentUser = newRequest();
+
+        assertThat(currentUser.getId()).isEqualTo(alice.getId());
+        transactionRepository.save(expense(currentUser.reference()));
+        List<Transaction> listed = transactionRepository.findByUser(currentUser.reference());
+        entityManager.flush();
+
+        assertThat(listed).hasSize(1);
+        assertThat(userLoads()).isZero();
+        // The insert and the list query, nothing for the user
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(2);
+    }
+
+    @Test
+    void userEntityIsLoadedOncePerRequest() {
+        authenticate(new AuthenticatedUser(alice.getId(), "alice", "ROLE_USER"));
+        CurrentUser currentUser = newRequest();
+
+        for (int i = 0; i < 3; i++) {
+            assertThat(currentUser.get().getUsername()).isEqualTo("alice");
+            assertThat(currentUser.getId()).isEqualTo(alice.getId());
+            assertThat(currentUser.reference()).isSameAs(currentUser.get());
+        }
+
+        assertThat(userLoads()).isEqualTo(1);
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+    }
+
+    @Test
+    void legacyTokenResolvesTheIdentityOnce() {
+        // Tokens issued before the id claim authenticate with the full user details
+        authenticate(alice);
+        CurrentUser currentUser = newRequest();
+
+        for (int i = 0; i < 3; i++) {
+            assertThat(currentUser.getId()).isEqualTo(alice.getId());
+        }
+        currentUser.get();
+        currentUser.get();
+
+        // The lookup by name; loading by id then hits the persistence context
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+    }
+
+    private CurrentUser newRequest() {
+        entityManager.clear();
+        return new CurrentUser(userRepository, new UserIdentityCache(userRepository, 100, 300));
+    }
+
+    private long userLoads() {
+        return statistics.getEntityStatistics(User.class.getName()).getLoadCount();
+    }
+
+    private static void authenticate(org.springframework.security.core.userdetails.UserDetails principal) {
+        SecurityContextHolder.getContext().setAuthentication(
+                new UsernamePasswordAuthenticationToken(principal, null, principal.getAuthorities()));
+    }
+
+    private static Transaction expense(User user) {
+        return Transaction.builder()
+                .description("Coffee")
+                .amount(new BigDecimal("3.50"))
+                .category("Food")
+                .date(LocalDateTime.now())
+                .type("EXPENSE")
+                .user(user)
+                .build();
+    }
+}
@@ -0,0 +1,45 @@
+package com.budgetwise.security;
+
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class JwtTokenProviderTest {
+
+    private static final String SECRET = "test_secret_key_that_is_long_enough_for_hs256_signing";
+
+    private final AuthenticatedUser alice = new AuthenticatedUser(42L, "alice", "ROLE_USER");
+    private JwtTokenProvider provider;
+
+    @BeforeEach
+    void setUp() {
+        provider = new JwtTokenProvider();
+        ReflectionTestUtils.setField(provider, "secret", SECRET);
+        ReflectionTestUtils.setField(provider, "expiration", 900_000L);
+        provider.init();
+    }
+
+    @Test
+    void verifiedClaimsCarryThePrincipal() {
+        Claims claims = provider.parseValidatedClaims(provider.generateToken(alice));
+
+        assertThat(claims.getSubject()).isEqualTo("alice");
+        assertThat(AuthenticatedUser.fromClaims(claims).getId()).isEqualTo(42L);
+        assertThat(provider.isValidFor(claims, alice)).isTrue();
+        assertThat(provider.isValidFor(claims, new AuthenticatedUser(7L, "bob", "ROLE_USER"))).isFalse();
+    }
+
+    @Test
+    void tamperedTokenIsRejected() {
+        String token = provider.generateToken(alice);
+        String tampered = token.substring(0, token.length() - 2)
+                + (token.endsWith("AA") ? "BB" : "AA");
+
+        assertThatThrownBy(() -> provider.parseValidatedClaims(tampered)).isInstanceOf(JwtException.class);
+    }
+}
@@ -0,0 +1,92 @@
+package com.budgetwise.service;
+
+import com.budgetwise.model.User;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.Timeout;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class CsvImportPipelineTest {
+
+    private static final int PARSER_THREADS = 2;
+    private static final Map<String, Boolean> TRANSACTIONS_ONLY = Map.of("transactions", true);
+
+    private ThreadPoolTaskExecutor executor;
+    private CsvImportPipeline pipeline;
+
+    @BeforeEach
+    void setUp() {
+        // Same shape as ImportConfig.csvImportExecutor for a single pipeline
+        executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(PARSER_THREADS + 1);
+        executor.setMaxPoolSize(PARSER_THREADS + 1);
+        executor.setQueueCapacity(PARSER_THREADS + 1);
+        executor.initialize();
+        pipeline = new CsvImportPipeline(executor, PARSER_THREADS, 1);
+    }
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdown();
+    }
+
+    @Test
+    @Timeout(30)
+    void failedWriterHandsEveryThreadBack() throws Exception {
+        // Enough rows to fill both queues while the writer is already gone
+        for (int attempt = 0; attempt < 5; attempt++) {
+            ImportBatch failing = batch();
+            doThrow(new IllegalStateException("database down")).when(failing).addTransaction(any(), any());
+
+            assertThatThrownBy(() -> pipeline.run(failing, new User(), csv(10_000), TRANSACTIONS_ONLY))
+                    .isInstanceOf(IllegalStateException.class)
+                    .hasMessage("database down");
+            awaitIdle();
+        }
+
+        ImportBatch batch = batch();
+        List<String> errors = pipeline.run(batch, new User(), csv(100), TRANSACTIONS_ONLY);
+
+        assertThat(errors).isEmpty();
+        verify(batch, times(100)).addTransaction(any(), any());
+        verify(batch).flush();
+        awaitIdle();
+    }
+
+    // The pipeline has returned once its tasks finished; the threads follow a moment later
+    private void awaitIdle() throws InterruptedException {
+        while (executor.getActiveCount() > 0) {
+            Thread.sleep(10);
+        }
+    }
+
+    private static ImportBatch batch() {
+        ImportBatch batch = mock(ImportBatch.class);
+        when(batch.getProgress()).thenReturn(new ImportProgress("CSV"));
+        return batch;
+    }
+
+    private static InputStream csv(int rows) {
+        StringBuilder csv = new StringBuilder("# TRANSACTIONS\ndate,description,amount,category,type\n");
+        for (int i = 0; i < rows; i++) {
+            csv.append("2024-01-15,Row ").append(i).append(",12.50,Food,EXPENSE\n");
+        }
+        return new ByteArrayInputStream(csv.toString().getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,52 @@
+package com.budgetwise.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+
+class TrendingServiceTest {
+
+    private static final int TOP_K = 2;
+
+    private TrendingService trending;
+
+    @BeforeEach
+    void setUp() {
+        trending = new TrendingService(mock(JdbcTemplate.class), 6, TOP_K, 0.05, 7);
+        trending.postCreated(1L, "Food");
+        trending.engagement(1L, null, 3 * TrendingService.LIKE_WEIGHT);
+        trending.postCreated(2L, "Food");
+        trending.engagement(2L, null, TrendingService.LIKE_WEIGHT);
+        trending.postCreated(3L, "Food");
+    }
+
+    @Test
+    void unlikeKeepsOneEntryPerPost() {
+        assertThat(trending.top(null, 10)).containsExactly(1L, 2L);
+
+        trending.engagement(1L, null, -TrendingService.LIKE_WEIGHT);
+
+        assertThat(trending.top(null, 10)).containsExactly(1L, 2L);
+        assertThat(trending.top("Food", 10)).containsExactly(1L, 2L);
+    }
+
+    @Test
+    void categoryMoveLetsTheNextPostIn() {
+        trending.categoryChanged(2L, "Travel");
+
+        assertThat(trending.top("Food", 10)).containsExactly(1L, 3L);
+        assertThat(trending.top("Travel", 10)).containsExactly(2L);
+        assertThat(trending.top(null, 10)).containsExactly(1L, 2L);
+    }
+
+    @Test
+    void losingScoreDropsAPostBelowTheNext() {
+        trending.engagement(1L, null, -4 * TrendingService.LIKE_WEIGHT);
+
+        assertThat(trending.top(null, 10)).containsExactly(2L, 3L);
+        assertThat(trending.top("Food", 10)).containsExactly(2L, 3L);
+    }
+}
@@ -25,13 +25,58 @@ instance.interceptors.request.use(
   }
 );
 
+// Access tokens are short-lived: on 401/403 swap the refresh token for a new pair once
+// and retry. Concurrent failures share one refresh call, since each refresh token
+// can only be used once.
+let refreshing = null;
+
+export const refreshAccessToken = () => {
+  if (!refreshing) {
+    const refreshToken = localStorage.getItem('bw_refresh_token');
+    refreshing = axios.post('/api/auth/refresh', { refreshToken })
+      .then((res) => {
+        localStorage.setItem('bw_token', res.data.token);
+        localStorage.setItem('bw_refresh_token', res.data.refreshToken);
+        axios.defaults.headers.common['Authorization'] = `Bearer ${res.data.token}`;
+        return res.data.token;
+      })
+      .finally(() => {
+        refreshing = null;
+      });
+  }
+  return refreshing;
+};
+
+// True if the access token is missing, unreadable or expires within the margin
+export const isAccessTokenExpiring = (token, marginMs = 30000) => {
+  try {
+    const payload = JSON.parse(atob(token.split('.')[1].replace(/-/g, '+').replace(/_/g, '/')));
+    return payload.exp * 1000 < Date.now() + marginMs;
+  } catch (e) {
+    return true;
+  }
+};
+
 // Log responses for debugging
 instance.interceptors.response.use(
   (response) => {
     console.log("Response received:", response.status, response.data);
     return response;
   },
-  (error) => {
+  async (error) => {
+    const original = error.config;
+    const status = error.response?.status;
+    if ((status === 401 || status === 403) && original && !original._retried
+        && localStorage.getItem('bw_refresh_token')) {
+      original._retried = true;
+      try {
+        const token = await refreshAccessToken();
+        original.headers.Authorization = `Bearer ${token}`;
+        return instance(original);
+      } catch (refreshError) {
+        console.warn("Session refresh failed:", refreshError.response?.data || refreshError.message);
+      }
+    }
     console.error("Response error:", error.response?.status, error.response?.data);
     // Don't auto-redirect here - let ProtectedRoute and components handle auth errors
     // Just log the error and pass it through
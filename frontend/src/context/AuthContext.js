@@ -41,7 +41,7 @@ export function AuthProvider({ children }) {
         password,
       });
 
-      const { token, username, email, message } = res.data;
+      const { token, refreshToken, username, email, message } = res.data;
 
       if (token && username && email) {
         const loggedUser = {
@@ -51,6 +51,7 @@ export function AuthProvider({ children }) {
           joinDate: new Date().toLocaleString('default', { month: 'short', year: 'numeric' }),
         };
         localStorage.setItem('bw_token', token);
+        if (refreshToken) localStorage.setItem('bw_refresh_token', refreshToken);
         localStorage.setItem('bw_user', JSON.stringify(loggedUser));
         setUser(loggedUser);
       }
@@ -76,11 +77,12 @@ export function AuthProvider({ children }) {
         captchaValue: payload.captchaValue,
       });
 
-      const { token, username, email, message } = res.data;
+      const { token, refreshToken, username, email, message } = res.data;
 
       if (token && username && email) {
         const newUser = { username, email };
         localStorage.setItem('bw_token', token);
+        if (refreshToken) localStorage.setItem('bw_refresh_token', refreshToken);
         localStorage.setItem('bw_user', JSON.stringify(newUser));
         setUser(newUser);
       }
@@ -103,8 +105,9 @@ export function AuthProvider({ children }) {
   const logout = async () => {
     try {
       const token = localStorage.getItem('bw_token');
+      const refreshToken = localStorage.getItem('bw_refresh_token');
       if (token) {
-        await axios.post(`${API_BASE_URL}/logout`, {}, {
+        await axios.post(`${API_BASE_URL}/logout`, { refreshToken }, {
           headers: { Authorization: `Bearer ${token}` },
         });
       }
@@ -112,6 +115,7 @@ export function AuthProvider({ children }) {
       console.warn('Logout API failed:', err.message);
     } finally {
       localStorage.removeItem('bw_token');
+      localStorage.removeItem('bw_refresh_token');
       localStorage.removeItem('bw_user');
       setUser(null);
     }
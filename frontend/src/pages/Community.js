@@ -2,6 +2,7 @@ import React, { useState, useEffect } from 'react';
 import { useTheme } from '../context/ThemeContext';
 import { useAuth } from '../context/AuthContext';
 import axios from 'axios';
+import { isAccessTokenExpiring, refreshAccessToken } from '../api/axios';
 import '../styles/Community.css';
 
 // Helper function to get user-friendly error messages
@@ -29,6 +30,19 @@ const getErrorMessage = (error, defaultMessage) => {
   return defaultMessage;
 };
 
+// Posts carry a comment count and only the newest comments; these keep both in step
+const withComment = (post, comment) => (
+  (post.comments || []).some(c => c.id === comment.id)
+    ? post
+    : { ...post, comments: [comment, ...(post.comments || [])], commentCount: (post.commentCount || 0) + 1 }
+);
+
+const withoutComment = (post, commentId) => ({
+  ...post,
+  comments: (post.comments || []).filter(c => c.id !== commentId),
+  commentCount: Math.max(0, (post.commentCount || 0) - 1)
+});
+
 export default function Community() {
   const { isDarkMode } = useTheme();
   const { user } = useAuth();
@@ -36,6 +50,8 @@ export default function Community() {
   const [showNewPostModal, setShowNewPostModal] = useState(false);
   const [selectedPost, setSelectedPost] = useState(null);
   const [newComment, setNewComment] = useState('');
+  const [commentCursor, setCommentCursor] = useState(null);
+  const [feedCursor, setFeedCursor] = useState(null);
   const [loading, setLoading] = useState(false);
   const [message, setMessage] = useState({ type: '', text: '' });
   const [formData, setFormData] = useState({
@@ -59,15 +75,102 @@ export default function Community() {
     loadPosts();
   }, []);
 
-  const loadPosts = async () => {
+  // Live updates from other users, so the page never needs to poll
+  useEffect(() => {
+    if (typeof EventSource === 'undefined') return undefined;
+
+    let source = null;
+    let retryTimer = null;
+    let retryDelay = 1000;
+    let stopped = false;
+
+    const updatePost = (postId, change) => {
+      setPosts(prev => prev.map(p => (p.id === postId ? change(p) : p)));
+      setSelectedPost(prev => (prev && prev.id === postId ? change(prev) : prev));
+    };
+
+    // The token is read on every connect: it is short-lived and may have been refreshed meanwhile
+    const connect = () => {
+      const token = localStorage.getItem('bw_token');
+      if (!token || stopped) return;
+
+      source = new EventSource(`/api/posts/stream?access_token=${encodeURIComponent(token)}`);
+      const on = (type, handler) => source.addEventListener(type, (e) => handler(JSON.parse(e.data)));
+
+      on('post-created', (post) => {
+        setPosts(prev => (prev.some(p => p.id === post.id) ? prev : [post, ...prev]));
+      });
+      on('post-updated', (change) => updatePost(change.id, p => ({ ...p, ...change })));
+      on('post-deleted', ({ id }) => {
+        setPosts(prev => prev.filter(p => p.id !== id));
+        setSelectedPost(prev => (prev && prev.id === id ? null : prev));
+      });
+      on('comment-added', ({ postId, comment }) => updatePost(postId, p => withComment(p, comment)));
+      on('comment-deleted', ({ postId, commentId }) => updatePost(postId, p => (
+        (p.comments || []).some(c => c.id === commentId) ? withoutComment(p, commentId) : p
+      )));
+      on('likes', ({ postId, likes }) => updatePost(postId, p => ({ ...p, likes })));
+
+      source.onopen = () => {
+        retryDelay = 1000;
+      };
+      source.onerror = () => {
+        // The browser retries dropped connections by itself, but gives up for good on a
+        // non-200 answer, such as the 401 its retry gets once the token in the URL expired
+        if (source.readyState !== EventSource.CLOSED) return;
+        source.close();
+        retryTimer = setTimeout(reconnect, retryDelay);
+        retryDelay = Math.min(retryDelay * 2, 60000);
+      };
+    };
+
+    const reconnect = async () => {
+      if (stopped) return;
+      if (isAccessTokenExpiring(localStorage.getItem('bw_token'))) {
+        try {
+          await refreshAccessToken();
+        } catch (error) {
+          // Session is over; the next page load sends the user to log in
+          console.warn('Live updates stopped: could not refresh the session');
+          return;
+        }
+      }
+      connect();
+    };
+
+    connect();
+    return () => {
+      stopped = true;
+      clearTimeout(retryTimer);
+      if (source) source.close();
+    };
+  }, []);
+
+  // Keyset-paginated feed, newest first; the first pages are served from the server's feed cache
+  const loadPosts = async (cursor = null) => {
     try {
       setLoading(true);
-      const response = await axios.get('/api/posts');
-      setPosts(response.data);
-      // Save to localStorage as backup
-      localStorage.setItem('bw_community_posts', JSON.stringify(response.data));
+      const response = await axios.get('/api/posts/feed', {
+        params: cursor ? { cursor } : {}
+      });
+      const { posts: page, nextCursor, hasMore } = response.data;
+      setPosts(prev => {
+        if (!cursor) return page;
+        // Posts that arrived live may already be on the page
+        const seen = new Set(prev.map(p => p.id));
+        return [...prev, ...page.filter(p => !seen.has(p.id))];
+      });
+      setFeedCursor(hasMore ? nextCursor : null);
+      if (!cursor) {
+        // Save to localStorage as backup
+        localStorage.setItem('bw_community_posts', JSON.stringify(page));
+      }
     } catch (error) {
       console.error('Error loading posts from backend:', error);
+      if (cursor) {
+        setMessage({ type: 'error', text: getErrorMessage(error, 'Unable to load more posts. Please try again.') });
+        return;
+      }
       // Try to load from localStorage as fallback
       const savedPosts = localStorage.getItem('bw_community_posts');
       if (savedPosts) {
@@ -85,6 +188,32 @@ export default function Community() {
     }
   };
 
+  // Posts only include their newest comments, so the detail panel pages through the rest
+  const loadComments = async (postId, cursor = null) => {
+    try {
+      const response = await axios.get(`/api/posts/${postId}/comments`, {
+        params: cursor ? { cursor } : {}
+      });
+      const { comments, nextCursor } = response.data;
+      setSelectedPost(prev => {
+        if (!prev || prev.id !== postId) return prev;
+        const existing = cursor ? (prev.comments || []) : [];
+        const seen = new Set(existing.map(c => c.id));
+        return { ...prev, comments: [...existing, ...comments.filter(c => !seen.has(c.id))] };
+      });
+      setCommentCursor(nextCursor);
+    } catch (error) {
+      console.error('Error loading comments:', error);
+      setMessage({ type: 'error', text: getErrorMessage(error, 'Unable to load comments. Please try again.') });
+    }
+  };
+
+  const handleSelectPost = (post) => {
+    setSelectedPost(post);
+    setCommentCursor(null);
+    loadComments(post.id);
+  };
+
   const handleCreatePost = async () => {
     if (!formData.title.trim()) {
       setMessage({ type: 'error', text: 'Post title cannot be empty' });
@@ -120,6 +249,7 @@ export default function Community() {
         content: formData.content,
         createdAt: new Date().toISOString(),
         comments: [],
+        commentCount: 0,
         likes: 0,
         isLikedByUser: false
       };
@@ -146,16 +276,11 @@ export default function Community() {
         content: newComment
       });
 
-      // Update the selected post with the new comment
-      setSelectedPost({
-        ...selectedPost,
-        comments: [response.data, ...(selectedPost.comments || [])]
-      });
-
-      // Update the posts list
+      // Update the selected post and the posts list with the new comment
+      setSelectedPost(prev => (prev && prev.id === selectedPost.id ? withComment(prev, response.data) : prev));
       setPosts(posts.map(p => 
         p.id === selectedPost.id 
-          ? { ...p, comments: [response.data, ...(p.comments || [])] }
+          ? withComment(p, response.data)
           : p
       ));
 
@@ -172,15 +297,16 @@ export default function Community() {
     try {
       const response = await axios.post(`/api/posts/${postId}/like`);
       
-      // Update posts list
+      // Only the like fields change; keep the comments already loaded
+      const liked = { likes: response.data.likes, isLikedByUser: response.data.isLikedByUser };
       const updatedPosts = posts.map(p => 
-        p.id === postId ? response.data : p
+        p.id === postId ? { ...p, ...liked } : p
       );
       setPosts(updatedPosts);
 
       // Update selected post if it's the liked one
       if (selectedPost?.id === postId) {
-        setSelectedPost(response.data);
+        setSelectedPost({ ...selectedPost, ...liked });
       }
     } catch (error) {
       console.error('Error liking post:', error);
@@ -211,13 +337,12 @@ export default function Community() {
         
         // Update selected post
         if (selectedPost) {
-          const updatedComments = selectedPost.comments.filter(c => c.id !== commentId);
-          setSelectedPost({ ...selectedPost, comments: updatedComments });
+          setSelectedPost(withoutComment(selectedPost, commentId));
           
           // Update posts list
           setPosts(posts.map(p =>
             p.id === selectedPost.id
-              ? { ...p, comments: updatedComments }
+              ? withoutComment(p, commentId)
               : p
           ));
         }
@@ -421,7 +546,7 @@ export default function Community() {
               posts.map(post => (
                 <div
                   key={post.id}
-                  onClick={() => setSelectedPost(post)}
+                  onClick={() => handleSelectPost(post)}
                   style={{
                     background: cardBg,
                     padding: '20px',
@@ -480,11 +605,31 @@ export default function Community() {
                     }}
                   >
                     <span>❤️ {post.likes || 0} Likes</span>
-                    <span>💬 {post.comments?.length || 0} Comments</span>
+                    <span>💬 {post.commentCount ?? post.comments?.length ?? 0} Comments</span>
                   </div>
                 </div>
               ))
             )}
+            {feedCursor && posts.length > 0 && (
+              <button
+                onClick={() => loadPosts(feedCursor)}
+                disabled={loading}
+                style={{
+                  background: 'none',
+                  border: `1px solid ${borderColor}`,
+                  color: primaryColor,
+                  padding: '10px 16px',
+                  borderRadius: '8px',
+                  cursor: loading ? 'not-allowed' : 'pointer',
+                  fontSize: '14px',
+                  fontWeight: '600',
+                  width: '100%',
+                  opacity: loading ? 0.6 : 1
+                }}
+              >
+                {loading ? 'Loading...' : 'Load more posts'}
+              </button>
+            )}
           </div>
 
           {/* Post Details Panel */}
@@ -693,6 +838,24 @@ export default function Community() {
                       </div>
                     ))
                   )}
+                  {commentCursor && (
+                    <button
+                      onClick={() => loadComments(selectedPost.id, commentCursor)}
+                      style={{
+                        background: 'none',
+                        border: `1px solid ${borderColor}`,
+                        color: primaryColor,
+                        padding: '8px 16px',
+                        borderRadius: '6px',
+                        cursor: 'pointer',
+                        fontSize: '13px',
+                        fontWeight: '600',
+                        width: '100%'
+                      }}
+                    >
+                      Load more comments
+                    </button>
+                  )}
                 </div>
               </div>
             </div>
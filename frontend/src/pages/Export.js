@@ -26,6 +26,19 @@ const getErrorMessage = (error) => {
   return 'An unexpected error occurred. Please try again.';
 };
 
+// Background imports (PDF) answer 202 with a session; poll it until the import has finished
+const IMPORT_POLL_INTERVAL_MS = 1000;
+
+const waitForImportSession = async (sessionId) => {
+  while (true) {
+    const { data } = await axios.get(`/api/export/import/sessions/${sessionId}`);
+    if (data.status === 'COMPLETED' || data.status === 'FAILED') {
+      return data.result || { success: data.status === 'COMPLETED', message: data.progress?.message };
+    }
+    await new Promise(resolve => setTimeout(resolve, IMPORT_POLL_INTERVAL_MS));
+  }
+};
+
 export default function Export() {
   const { isDarkMode } = useTheme();
   const [loading, setLoading] = useState(false);
@@ -225,6 +238,13 @@ export default function Export() {
           'Content-Type': 'multipart/form-data'
         }
       });
+      const result = response.status === 202
+        ? await waitForImportSession(response.data.sessionId)
+        : response.data;
+      if (result?.success === false) {
+        setMessage({ type: 'error', text: result.message || 'Import failed. Please check the file and try again.' });
+        return;
+      }
 
       setMessage({ type: 'success', text: 'Import successful! Your data has been imported.' });
       setShowImportModal(false);